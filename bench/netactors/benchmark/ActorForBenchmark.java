@@ -0,0 +1,107 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.benchmark;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import lombok.val;
+import netactors.ActorSystem;
+import netactors.IActorSystem;
+import netactors.actor.IActor;
+import netactors.config.ActorConfiguration;
+import netactors.nexus.ActorURL;
+import netactors.nexus.AdapterFactory;
+import netactors.nexus.ProtocolType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of actorFor lookups: of the local actor, of an already connected remote actor, and of an in-memory URL with no
+ * actor behind it. Connecting to a remote actor for the first time is dominated by the transport, so it is not measured here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActorForBenchmark
+{
+  @Param({"MEM", "TCP", "UDP"})
+  public ProtocolType protocol;
+
+  private IActorSystem localSystem;
+  private IActorSystem remoteSystem;
+  private ActorURL localUrl;
+  private ActorURL remoteUrl;
+  private ActorURL missingUrl;
+
+  @Setup
+  public void setup()
+      throws Exception
+  {
+    val adapterFactory = new AdapterFactory();
+    localUrl = new ActorURL(protocol, "localhost", 21011);
+    remoteUrl = new ActorURL(protocol, "localhost", 21012);
+    missingUrl = new ActorURL(ProtocolType.MEM, "localhost", 21013);
+
+    localSystem = new ActorSystem(new ActorConfiguration(localUrl), adapterFactory);
+    remoteSystem = new ActorSystem(new ActorConfiguration(remoteUrl), adapterFactory);
+    localSystem.actorOf(CountingActor.class, new Object[] {new Semaphore(0)});
+    remoteSystem.actorOf(CountingActor.class, new Object[] {new Semaphore(0)});
+
+    if (localSystem.actorFor(remoteUrl) == null)
+      throw new IllegalStateException("Could not connect to " + remoteUrl);
+  }
+
+  @TearDown
+  public void tearDown()
+  {
+    localSystem.shutdown();
+    remoteSystem.shutdown();
+  }
+
+  @Benchmark
+  public IActor actorForLocal()
+  {
+    return localSystem.actorFor(localUrl);
+  }
+
+  @Benchmark
+  public IActor actorForConnectedRemote()
+  {
+    return localSystem.actorFor(remoteUrl);
+  }
+
+  @Benchmark
+  public IActor actorForMissing()
+  {
+    return localSystem.actorFor(missingUrl);
+  }
+}
@@ -0,0 +1,97 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.benchmark;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import netactors.nexus.ActorURL;
+import netactors.nexus.ProtocolType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures registry lookups keyed on actor URLs, as done by the actor and adapter registries for every message: with canonical URLs,
+ * which compare by reference, against equal copies, which compare their strings. Looking URLs up again through of() shows the cost
+ * of canonicalizing a URL that applications build on the fly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActorURLBenchmark
+{
+  @Param({"16", "1024"})
+  public int actors;
+
+  private ConcurrentHashMap<ActorURL, Integer> registry;
+  private ActorURL[] canonical;
+  private ActorURL[] copies;
+
+  @Setup
+  public void setup()
+  {
+    registry = new ConcurrentHashMap<ActorURL, Integer>();
+    canonical = new ActorURL[actors];
+    copies = new ActorURL[actors];
+    for (int i = 0; i < actors; i++)
+    {
+      canonical[i] = ActorURL.of(ProtocolType.TCP, "localhost", 22000, "actor" + i);
+      copies[i] = new ActorURL(ProtocolType.TCP, "localhost", 22000, "actor" + i);
+      registry.put(canonical[i], i);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(1024)
+  public int lookupCanonical()
+  {
+    int found = 0;
+    for (int i = 0; i < 1024; i++)
+      found += registry.get(canonical[i % actors]);
+    return found;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(1024)
+  public int lookupCopy()
+  {
+    int found = 0;
+    for (int i = 0; i < 1024; i++)
+      found += registry.get(copies[i % actors]);
+    return found;
+  }
+
+  @Benchmark
+  public ActorURL canonicalize()
+  {
+    return ActorURL.of(ProtocolType.TCP, "localhost", 22000, "actor0");
+  }
+}
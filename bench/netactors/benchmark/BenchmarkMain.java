@@ -0,0 +1,49 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.benchmark;
+
+import lombok.val;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks whose names match the given regular expression, or all of them
+ */
+public final class BenchmarkMain
+{
+  /**
+   * Private constructor prevents instantiation
+   */
+  private BenchmarkMain()
+  {
+  }
+
+  /**
+   * Entry point
+   * 
+   * @throws RunnerException A benchmark failed
+   */
+  public static void main(final String[] args)
+      throws RunnerException
+  {
+    val include = args.length > 0 ? args[0] : BenchmarkMain.class.getPackage().getName() + ".*";
+    new Runner(new OptionsBuilder().include(include).build()).run();
+  }
+}
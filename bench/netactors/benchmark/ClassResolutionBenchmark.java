@@ -0,0 +1,143 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import lombok.val;
+import netactors.codec.CachingClassResolver;
+import netactors.codec.ClassLoaderResolver;
+import netactors.codec.SerializationCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures Java serialization decode throughput with uncached class resolution (as with Netty's cacheDisabled resolver) against the
+ * caching resolver shared by the adapters of an actor system. Runs on several threads, as server adapters decode concurrently.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class ClassResolutionBenchmark
+{
+  private SerializationCodec uncached;
+  private SerializationCodec cached;
+  private byte[] encoded;
+
+  @Setup
+  public void setup()
+      throws Exception
+  {
+    val classLoader = ClassResolutionBenchmark.class.getClassLoader();
+    uncached = new SerializationCodec(new ClassLoaderResolver(classLoader));
+    cached = new SerializationCodec(new CachingClassResolver(classLoader));
+
+    val out = new ByteArrayOutputStream();
+    cached.encode(createMessage(), out);
+    encoded = out.toByteArray();
+  }
+
+  @Benchmark
+  public Object decodeUncached()
+      throws Exception
+  {
+    return uncached.decode(new ByteArrayInputStream(encoded));
+  }
+
+  @Benchmark
+  public Object decodeCached()
+      throws Exception
+  {
+    return cached.decode(new ByteArrayInputStream(encoded));
+  }
+
+  /**
+   * Creates an object graph spanning several classes, as typical application messages do
+   */
+  private static Serializable createMessage()
+  {
+    val items = new ArrayList<Item>();
+    for (int i = 0; i < 8; i++)
+      items.add(new Item("item-" + i, i, new Date(i)));
+
+    val attributes = new HashMap<String, Serializable>();
+    attributes.put("count", items.size());
+    attributes.put("total", 123.45d);
+
+    return new Order(42L, items, attributes);
+  }
+
+  /**
+   * Sample message
+   */
+  public static final class Order
+      implements Serializable
+  {
+    private static final long serialVersionUID = 1L;
+    final long id;
+    final List<Item> items;
+    final Map<String, Serializable> attributes;
+
+    Order(final long id, final List<Item> items, final Map<String, Serializable> attributes)
+    {
+      this.id = id;
+      this.items = items;
+      this.attributes = attributes;
+    }
+  }
+
+  /**
+   * Sample nested message part
+   */
+  public static final class Item
+      implements Serializable
+  {
+    private static final long serialVersionUID = 1L;
+    final String name;
+    final int quantity;
+    final Date created;
+
+    Item(final String name, final int quantity, final Date created)
+    {
+      this.name = name;
+      this.quantity = quantity;
+      this.created = created;
+    }
+  }
+}
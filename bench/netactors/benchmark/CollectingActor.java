@@ -0,0 +1,52 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.benchmark;
+
+import java.io.Serializable;
+import java.util.concurrent.BlockingQueue;
+import netactors.IActorSystem;
+import netactors.actor.UntypedActor;
+import netactors.config.IActorConfiguration;
+
+/**
+ * Actor handing every message it receives over to a waiting benchmark thread
+ */
+public final class CollectingActor
+    extends UntypedActor
+{
+  private final BlockingQueue<Serializable> received;
+
+  /**
+   * Constructor
+   */
+  public CollectingActor(final IActorSystem system, final IActorConfiguration config, final BlockingQueue<Serializable> received)
+  {
+    super(system, config);
+    this.received = received;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void onReceive(final Serializable message)
+  {
+    received.offer(message);
+  }
+}
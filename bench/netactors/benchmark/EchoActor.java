@@ -0,0 +1,55 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.benchmark;
+
+import java.io.Serializable;
+import lombok.val;
+import netactors.IActorSystem;
+import netactors.actor.UntypedActor;
+import netactors.config.IActorConfiguration;
+import netactors.nexus.ActorURL;
+
+/**
+ * Actor sending every message it receives back to another actor
+ */
+public final class EchoActor
+    extends UntypedActor
+{
+  private final ActorURL replyTo;
+
+  /**
+   * Constructor
+   */
+  public EchoActor(final IActorSystem system, final IActorConfiguration config, final ActorURL replyTo)
+  {
+    super(system, config);
+    this.replyTo = replyTo;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void onReceive(final Serializable message)
+  {
+    val ref = getSystem().actorFor(replyTo);
+    if (ref != null)
+      ref.send(message);
+  }
+}
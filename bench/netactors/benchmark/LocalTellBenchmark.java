@@ -0,0 +1,104 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.benchmark;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import lombok.val;
+import netactors.ActorSystem;
+import netactors.IActorSystem;
+import netactors.actor.IActor;
+import netactors.config.ActorConfiguration;
+import netactors.nexus.ActorURL;
+import netactors.nexus.AdapterFactory;
+import netactors.nexus.ProtocolType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares sending to a local actor through its reference, which queues straight into the mailbox it is bound to, with telling it
+ * through the actor system, which looks it up in the registry first. The same message instance is sent every time, so running with
+ * the GC profiler (-prof gc) shows what the send path itself allocates per message: only the node of the mailbox queue on the
+ * reference path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalTellBenchmark
+{
+  private static final int BATCH = 1000;
+  private static final String MESSAGE = "tick";
+
+  private IActorSystem system;
+  private ActorURL url;
+  private IActor actor;
+  private Semaphore processed;
+
+  @Setup
+  public void setup()
+      throws Exception
+  {
+    url = new ActorURL(ProtocolType.MEM, "localhost", 21021);
+    system = new ActorSystem(new ActorConfiguration(url), new AdapterFactory());
+    processed = new Semaphore(0);
+    actor = system.actorOf(CountingActor.class, new Object[] {processed});
+  }
+
+  @TearDown
+  public void tearDown()
+  {
+    system.shutdown();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH)
+  public void sendThroughReference()
+      throws InterruptedException
+  {
+    for (int i = 0; i < BATCH; i++)
+      actor.send(MESSAGE);
+
+    // keeps the mailbox from growing without bound
+    processed.acquire(BATCH);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH)
+  public void tellThroughSystem()
+      throws InterruptedException
+  {
+    for (int i = 0; i < BATCH; i++)
+      system.tell(url, MESSAGE);
+
+    processed.acquire(BATCH);
+  }
+}
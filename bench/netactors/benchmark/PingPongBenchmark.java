@@ -0,0 +1,103 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.benchmark;
+
+import java.io.Serializable;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.val;
+import netactors.ActorSystem;
+import netactors.IActorSystem;
+import netactors.actor.IActor;
+import netactors.config.ActorConfiguration;
+import netactors.nexus.ActorURL;
+import netactors.nexus.AdapterFactory;
+import netactors.nexus.ProtocolType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures round-trip latency between two actors in different actor systems. Each operation sends a message to an echoing actor
+ * and waits for it to come back; sample-time mode reports latency percentiles. A lost UDP datagram shows up as a timeout-length
+ * sample.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PingPongBenchmark
+{
+  private static final int TIMEOUT_MILLIS = 1000;
+
+  @Param({"MEM", "TCP", "UDP"})
+  public ProtocolType protocol;
+
+  private IActorSystem pingSystem;
+  private IActorSystem pongSystem;
+  private IActor pong;
+  private BlockingQueue<Serializable> replies;
+  private int sequence;
+
+  @Setup
+  public void setup()
+      throws Exception
+  {
+    val adapterFactory = new AdapterFactory();
+    val pingUrl = new ActorURL(protocol, "localhost", 21021);
+    val pongUrl = new ActorURL(protocol, "localhost", 21022);
+    replies = new LinkedBlockingQueue<Serializable>();
+
+    pingSystem = new ActorSystem(new ActorConfiguration(pingUrl), adapterFactory);
+    pongSystem = new ActorSystem(new ActorConfiguration(pongUrl), adapterFactory);
+    pingSystem.actorOf(CollectingActor.class, new Object[] {replies});
+    pongSystem.actorOf(EchoActor.class, new Object[] {pingUrl});
+
+    pong = pingSystem.actorFor(pongUrl);
+    if (pong == null)
+      throw new IllegalStateException("Could not connect to " + pongUrl);
+  }
+
+  @TearDown
+  public void tearDown()
+  {
+    pingSystem.shutdown();
+    pongSystem.shutdown();
+  }
+
+  @Benchmark
+  public Serializable roundTrip()
+      throws InterruptedException
+  {
+    pong.send(sequence++);
+    return replies.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+  }
+}
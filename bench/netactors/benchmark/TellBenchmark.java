@@ -0,0 +1,127 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.benchmark;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import lombok.val;
+import netactors.ActorSystem;
+import netactors.IActorSystem;
+import netactors.config.ActorConfiguration;
+import netactors.nexus.ActorURL;
+import netactors.nexus.AdapterFactory;
+import netactors.nexus.ProtocolType;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures end-to-end tell throughput: each operation tells a batch of messages to an actor in another actor system and waits until
+ * the actor has processed them, so that queues cannot grow without bound during the run. Lost UDP datagrams make an operation wait
+ * for the timeout and are reported as the lostBatches counter, rather than stalling the run. Network runs compare writing messages
+ * one by one with coalescing them into batches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TellBenchmark
+{
+  private static final int BATCH = 100;
+  private static final int TIMEOUT_MILLIS = 1000;
+
+  @Param({"MEM", "TCP", "UDP"})
+  public ProtocolType protocol;
+
+  @Param({"0", "8192"})
+  public int maxBatchBytes;
+
+  private IActorSystem receiverSystem;
+  private IActorSystem senderSystem;
+  private ActorURL receiverUrl;
+  private Semaphore processed;
+
+  /**
+   * Counts the batches not fully processed within the timeout, reported by JMH next to the throughput of each iteration
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Losses
+  {
+    public long lostBatches;
+
+    @Setup(Level.Iteration)
+    public void reset()
+    {
+      lostBatches = 0;
+    }
+  }
+
+  @Setup
+  public void setup()
+      throws Exception
+  {
+    val adapterFactory = new AdapterFactory();
+    receiverUrl = new ActorURL(protocol, "localhost", 21001);
+    receiverSystem = new ActorSystem(new ActorConfiguration(receiverUrl), adapterFactory);
+    val senderUrl = new ActorURL(protocol, "localhost", 21002);
+    senderSystem = new ActorSystem(new ActorConfiguration(senderUrl).withWriteBatching(maxBatchBytes, 0), adapterFactory);
+    processed = new Semaphore(0);
+
+    receiverSystem.actorOf(CountingActor.class, new Object[] {processed});
+    if (senderSystem.actorFor(receiverUrl) == null)
+      throw new IllegalStateException("Could not connect to " + receiverUrl);
+  }
+
+  @TearDown
+  public void tearDown()
+  {
+    senderSystem.shutdown();
+    receiverSystem.shutdown();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH)
+  public void tell(final Losses losses)
+      throws InterruptedException
+  {
+    for (int i = 0; i < BATCH; i++)
+      senderSystem.tell(receiverUrl, i);
+
+    if (!processed.tryAcquire(BATCH, TIMEOUT_MILLIS, TimeUnit.MILLISECONDS))
+    {
+      processed.drainPermits();
+      losses.lostBatches++;
+    }
+  }
+}
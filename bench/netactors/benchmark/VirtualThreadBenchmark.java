@@ -0,0 +1,154 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.benchmark;
+
+import java.io.Serializable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import lombok.val;
+import netactors.ActorSystem;
+import netactors.IActorSystem;
+import netactors.actor.UntypedActor;
+import netactors.config.ActorConfiguration;
+import netactors.config.IActorConfiguration;
+import netactors.context.ISystemContext;
+import netactors.context.SystemContext;
+import netactors.nexus.ActorURL;
+import netactors.nexus.AdapterFactory;
+import netactors.nexus.ProtocolType;
+import netactors.registry.ActorRegistry;
+import netactors.threading.ActorThreadFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares worker-thread and virtual-thread execution, for actors that block inside onReceive (e.g. on JDBC or file I/O). Each
+ * operation tells a batch of messages to every actor and waits until all have been processed. On JVMs without virtual threads both
+ * modes run on worker threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VirtualThreadBenchmark
+{
+  private static final int BASE_PORT = 20000;
+
+  @Param({"false", "true"})
+  public boolean virtualThreads;
+  @Param({"256"})
+  public int actors;
+  @Param({"8"})
+  public int messagesPerActor;
+  @Param({"1"})
+  public int blockMillis;
+
+  private ISystemContext systemContext;
+  private ActorSystem[] systems;
+  private ActorURL[] urls;
+  private Semaphore processed;
+
+  @Setup
+  public void setup()
+      throws Exception
+  {
+    // all actor systems share one context, so that worker pools are shared as they would be in a single system
+    val adapterFactory = new AdapterFactory();
+    systemContext = new SystemContext(new ActorThreadFactory());
+    systems = new ActorSystem[actors];
+    urls = new ActorURL[actors];
+    processed = new Semaphore(0);
+
+    for (int i = 0; i < actors; i++)
+    {
+      urls[i] = new ActorURL(ProtocolType.MEM, "localhost", BASE_PORT + i);
+      val config = new ActorConfiguration(urls[i]).withVirtualThreads(virtualThreads);
+      systems[i] = new ActorSystem(config, adapterFactory, new ActorRegistry(), systemContext);
+      systems[i].actorOf(BlockingActor.class, new Object[] {processed, blockMillis});
+    }
+  }
+
+  @TearDown
+  public void tearDown()
+  {
+    for (val system : systems)
+      system.shutdown();
+  }
+
+  @Benchmark
+  public void tellBlockingActors()
+      throws InterruptedException
+  {
+    for (int m = 0; m < messagesPerActor; m++)
+      for (int i = 0; i < actors; i++)
+        systems[i].tell(urls[i], m);
+
+    processed.acquire(actors * messagesPerActor);
+  }
+
+  /**
+   * Actor blocking its thread for a while on every message
+   */
+  public static final class BlockingActor
+      extends UntypedActor
+  {
+    private final Semaphore processed;
+    private final int blockMillis;
+
+    /**
+     * Constructor
+     */
+    public BlockingActor(final IActorSystem system, final IActorConfiguration config, final Semaphore processed,
+                         final Integer blockMillis)
+    {
+      super(system, config);
+      this.processed = processed;
+      this.blockMillis = blockMillis;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onReceive(final Serializable message)
+    {
+      try
+      {
+        Thread.sleep(blockMillis);
+      }
+      catch(InterruptedException e)
+      {
+        Thread.currentThread().interrupt();
+      }
+      processed.release();
+    }
+  }
+}
@@ -0,0 +1,54 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors;
+
+import lombok.Getter;
+import netactors.actor.IActor;
+import netactors.threading.SettableFuture;
+
+/**
+ * The pending resolution of an actor URL. The reference to the actor is usable before the resolution completes: messages sent to a
+ * remote actor while its node is being connected to are queued, and sent once connected. The future completes with the same
+ * reference once the actor is reachable, or fails if it is not.
+ */
+public final class ActorFuture
+    extends SettableFuture<IActor>
+{
+  /**
+   * The reference to the actor, usable straight away, or null if the actor could not be resolved at all
+   */
+  @Getter
+  private final IActor reference;
+
+  /**
+   * Constructor
+   */
+  ActorFuture(final IActor reference)
+  {
+    this.reference = reference;
+  }
+
+  /**
+   * Completes the future with the reference to the actor. Returns false if it was already completed.
+   */
+  boolean resolve()
+  {
+    return complete(reference);
+  }
+}
@@ -0,0 +1,218 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import lombok.Getter;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+import lombok.val;
+import netactors.exception.StackTraceLogging;
+import netactors.nexus.ActorURL;
+import netactors.nexus.Envelope;
+import netactors.nexus.IActorAdapter;
+import netactors.nexus.Multicast;
+import netactors.nexus.common.AbstractClientTcpUdpAdapter;
+import netactors.nexus.common.AbstractNodeLink;
+import netactors.reply.GatherFuture;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import propel.core.common.StackTraceLevel;
+
+/**
+ * A fixed group of actors, to which messages are broadcast. Local and in-memory members are passed each message directly. For
+ * members reached over the network, the message is encoded once into a frame naming all of them, and the same frame is sent to
+ * each of their nodes, which passes it on to the members it hosts. Requests may be scattered to all members, gathering the first
+ * replies or all of them into a single future.
+ */
+public final class ActorGroup
+{
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private final ActorSystem system;
+  private final ActorURL[] urls;
+  /**
+   * The URLs of the members, without duplicates
+   */
+  @Getter
+  private final List<ActorURL> members;
+
+  /**
+   * Constructor
+   */
+  ActorGroup(final ActorSystem system, final Collection<ActorURL> members)
+  {
+    this.system = system;
+    // duplicate members would receive each message more than once
+    val distinct = new LinkedHashSet<ActorURL>(members);
+    this.urls = distinct.toArray(new ActorURL[distinct.size()]);
+    this.members = Collections.unmodifiableList(Arrays.asList(urls));
+  }
+
+  /**
+   * Sends an asynchronous message to each member of the group, returning the number of members the message was passed on to.
+   * Members which do not exist, or do not accept the message because their mailbox is full, are skipped.
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public int tell(@NotNull final Serializable message)
+  {
+    try
+    {
+      return send(connectors(), Envelope.message(system.getSenderUrl(), null, message));
+    }
+    catch(IOException e)
+    {
+      if (system.getActorConfig().isLoggingEnabled())
+        logger.info(this + " could not encode message: " + StackTraceLogging.format(e, StackTraceLevel.ABBREVIATED));
+      return 0;
+    }
+  }
+
+  /**
+   * Sends a request to each member of the group, returning a future completed with all replies, or with those that arrived in time
+   * once the timeout elapses
+   * 
+   * @throws NullPointerException An argument is null
+   * @throws IllegalArgumentException The timeout is not positive
+   */
+  public GatherFuture gather(final Serializable message, final long timeoutMillis)
+  {
+    return gather(message, urls.length, timeoutMillis);
+  }
+
+  /**
+   * Sends a request to each member of the group, returning a future completed with the first replies, up to the given number, or
+   * with those that arrived in time once the timeout elapses. No more replies are expected than there are members the request is
+   * sent to. The future fails if the request could not be encoded.
+   * 
+   * @throws NullPointerException An argument is null
+   * @throws IllegalArgumentException The number of replies or the timeout is not positive
+   */
+  @Validate
+  public GatherFuture gather(@NotNull final Serializable message, final int replies, final long timeoutMillis)
+  {
+    if (replies <= 0)
+      throw new IllegalArgumentException("replies=" + replies);
+    if (timeoutMillis <= 0)
+      throw new IllegalArgumentException("timeoutMillis=" + timeoutMillis);
+
+    val connectors = connectors();
+    int found = 0;
+    for (IActorAdapter connector : connectors)
+      if (connector != null)
+        found++;
+
+    val future = new GatherFuture(Math.min(replies, found));
+    val replyRegistry = system.getSystemContext().getReplyRegistry();
+    val correlationId = replyRegistry.register(future, timeoutMillis);
+
+    // local and in-memory members reply straight into the registry, network server adapters replace this with the inbound channel
+    val request = Envelope.request(correlationId, system.getSenderUrl(), message);
+    request.setReturnPath(replyRegistry);
+
+    try
+    {
+      send(connectors, request);
+    }
+    catch(IOException e)
+    {
+      replyRegistry.fail(correlationId, e);
+    }
+
+    return future;
+  }
+
+  /**
+   * Returns the connector to each member, or null for members which do not exist
+   */
+  private IActorAdapter[] connectors()
+  {
+    val registry = system.getActorRegistry();
+    val result = new IActorAdapter[urls.length];
+    for (int i = 0; i < urls.length; i++)
+    {
+      val context = registry.get(urls[i]);
+      if (context != null)
+        result[i] = context.getConnector();
+    }
+
+    return result;
+  }
+
+  /**
+   * Passes an envelope on to each member with a connector, returning the number of members it was passed on to. Members reached
+   * over the network are sent one frame, encoded before anything is sent, so that nothing is sent if it cannot be encoded.
+   * 
+   * @throws IOException The envelope could not be encoded
+   */
+  private int send(final IActorAdapter[] connectors, final Envelope envelope)
+      throws IOException
+  {
+    val remote = new ArrayList<ActorURL>();
+    // links are not shared across actor systems, so identity is enough to tell them apart
+    val links = new LinkedHashSet<AbstractNodeLink>();
+    for (int i = 0; i < connectors.length; i++)
+    {
+      val link = connectors[i] instanceof AbstractClientTcpUdpAdapter ? ((AbstractClientTcpUdpAdapter) connectors[i]).getLink()
+          : null;
+      if (link != null)
+      {
+        remote.add(urls[i]);
+        links.add(link);
+        connectors[i] = null;
+      }
+    }
+
+    ChannelBuffer frame = null;
+    if (!links.isEmpty())
+      frame = links.iterator().next().encode(new Multicast(remote.toArray(new ActorURL[remote.size()]), envelope));
+
+    int sent = 0;
+    for (IActorAdapter connector : connectors)
+      if (connector != null && connector.offer(envelope))
+        sent++;
+
+    if (frame != null)
+    {
+      for (AbstractNodeLink link : links)
+        link.sendFrame(frame);
+      sent += remote.size();
+    }
+
+    return sent;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + " (" + urls.length + " members)";
+  }
+}
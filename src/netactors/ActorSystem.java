@@ -19,25 +19,54 @@
 package netactors;
 
 import java.io.Serializable;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Validate;
 import lombok.Validate.NotNull;
 import lombok.val;
 import netactors.actor.IActor;
+import netactors.actor.UntypedActor;
 import netactors.config.IActorConfiguration;
 import netactors.context.IActorContext;
+import netactors.context.ISystemContext;
 import netactors.context.LocalActorContext;
 import netactors.context.RemoteActorContext;
+import netactors.context.SystemContext;
 import netactors.exception.ActorAlreadyExistsException;
 import netactors.exception.ActorCreationException;
+import netactors.exception.ActorNotFoundException;
 import netactors.exception.AdapterStartException;
+import netactors.exception.MailboxFullException;
 import netactors.exception.StackTraceLogging;
+import netactors.mailbox.IMailbox;
+import netactors.mailbox.IMessagePrioritizer;
+import netactors.mailbox.IMessageQueue;
+import netactors.mailbox.Mailbox;
+import netactors.mailbox.MessageContext;
+import netactors.mailbox.MpscMessageQueue;
+import netactors.mailbox.PriorityMessageQueue;
+import netactors.management.ActorSystemManagement;
+import netactors.metrics.ActorMetrics;
+import netactors.metrics.MetricsSnapshot;
 import netactors.nexus.ActorURL;
 import netactors.nexus.AdapterFactory;
+import netactors.nexus.Envelope;
 import netactors.nexus.IAdapterFactory;
 import netactors.registry.ActorRegistry;
+import netactors.registry.AdapterType;
 import netactors.registry.IActorRegistry;
+import netactors.reply.ReplyFuture;
+import netactors.routing.ElasticPool;
+import netactors.routing.IRouteeFactory;
+import netactors.routing.IRoutingLogic;
+import netactors.routing.Resizer;
+import netactors.routing.Router;
+import netactors.threading.IDispatcher;
+import netactors.threading.IFutureListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import propel.core.common.StackTraceLevel;
@@ -58,6 +87,12 @@ public final class ActorSystem
   private final IActorRegistry actorRegistry;
   @Getter(AccessLevel.PACKAGE)
   private final IAdapterFactory actorAdapterFactory;
+  @Getter(AccessLevel.PACKAGE)
+  private final ISystemContext systemContext;
+  // null if the system is not registered with the platform MBean server
+  private final ActorSystemManagement management;
+  // remote actors being connected to, so that concurrent resolutions share one attempt
+  private final ConcurrentHashMap<ActorURL, ActorFuture> resolutions = new ConcurrentHashMap<ActorURL, ActorFuture>();
 
   /**
    * Default constructor
@@ -89,10 +124,33 @@ public final class ActorSystem
   @Validate
   public ActorSystem(@NotNull final IActorConfiguration actorConfig, @NotNull final IAdapterFactory actorAdapterFactory,
                      @NotNull final IActorRegistry actorRegistry)
+  {
+    this(actorConfig, actorAdapterFactory, actorRegistry,
+         new SystemContext(actorAdapterFactory.getAdapterRegistry().getThreadFactory(), actorConfig.getSharedWorkerThreads(),
+                           Runtime.getRuntime().availableProcessors()));
+  }
+
+  /**
+   * Default constructor
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public ActorSystem(@NotNull final IActorConfiguration actorConfig, @NotNull final IAdapterFactory actorAdapterFactory,
+                     @NotNull final IActorRegistry actorRegistry, @NotNull final ISystemContext systemContext)
   {
     this.actorConfig = actorConfig;
     this.actorRegistry = actorRegistry;
     this.actorAdapterFactory = actorAdapterFactory;
+    this.systemContext = systemContext;
+
+    if (actorConfig.isManagementEnabled())
+    {
+      management = new ActorSystemManagement(actorConfig.getUrl(), actorRegistry, actorAdapterFactory.getAdapterRegistry(),
+                                             systemContext);
+      management.register();
+    } else
+      management = null;
   }
 
   /**
@@ -114,38 +172,258 @@ public final class ActorSystem
   public <T extends IActor> T actorOf(@NotNull final Class<T> actorType, @NotNull final Object[] args)
       throws ActorCreationException
   {
+    return actorOf(actorType, args, systemContext.createDispatcher(actorConfig));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public <T extends IActor> T actorOf(@NotNull final Class<T> actorType, @NotNull final Object[] args,
+                                      @NotNull final IDispatcher dispatcher)
+      throws ActorCreationException
+  {
+    return createActor(actorConfig, actorType, args, dispatcher, new MpscMessageQueue());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public <T extends IActor> T actorOf(@NotNull final String name, @NotNull final Class<T> actorType, @NotNull final Object[] args)
+      throws ActorCreationException
+  {
+    val config = configFor(name);
+    return createActor(config, actorType, args, systemContext.createDispatcher(config), new MpscMessageQueue());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public <T extends IActor> Router routerOf(@NotNull final String name, @NotNull final Class<T> actorType,
+                                            @NotNull final Object[] args, final int routees, @NotNull final IRoutingLogic logic)
+      throws ActorCreationException
+  {
+    if (routees <= 0)
+      throw new ActorCreationException("Invalid number of routees: " + routees, null);
+
+    val config = configFor(name);
+    if (actorConfig.isLoggingEnabled())
+      logger.info("Creating router of " + routees + " " + actorType.getSimpleName() + " at " + config.getUrl() + " (" + logic + ")");
+
+    return createRouter(config, routeeFactory(config, actorType, args), routees, logic);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public <T extends IActor> Router poolOf(@NotNull final String name, @NotNull final Class<T> actorType,
+                                          @NotNull final Object[] args, @NotNull final IRoutingLogic logic,
+                                          @NotNull final Resizer resizer)
+      throws ActorCreationException
+  {
+    val config = configFor(name);
     if (actorConfig.isLoggingEnabled())
-      logger.info("Creating actor " + actorType.getSimpleName());
+      logger.info("Creating pool of " + actorType.getSimpleName() + " at " + config.getUrl() + " (" + logic + ", " + resizer + ")");
 
+    val factory = routeeFactory(config, actorType, args);
+    val router = createRouter(config, factory, resizer.getLowerBound(), logic);
+    new ElasticPool(config, router, resizer, factory).start(systemContext.getScheduler());
+    return router;
+  }
+
+  /**
+   * Creates a router with the given number of routees and registers it
+   * 
+   * @throws ActorCreationException The routees could not be created, or the router could not be registered
+   */
+  private Router createRouter(final IActorConfiguration config, final IRouteeFactory factory, final int routees,
+                              final IRoutingLogic logic)
+      throws ActorCreationException
+  {
+    val mailboxes = new IMailbox[routees];
     try
     {
-      // instantiate
-      T actor = null;
-      try
-      {
-        actor = (T) ReflectionUtils.activate(actorType, ArrayUtils.join(new Object[] {this, actorConfig}, args));
-      }
-      catch(Exception e)
+      for (int i = 0; i < routees; i++)
+        mailboxes[i] = factory.create();
+
+      val router = new Router(config, mailboxes, logic);
+      actorRegistry.addAndStart(new LocalActorContext(actorAdapterFactory, systemContext, config, router));
+
+      val metrics = metricsFor(config);
+      if (metrics != null)
+        metrics.watch(router);
+      return router;
+    }
+    catch(Exception e)
+    {
+      for (IMailbox mailbox : mailboxes)
+        if (mailbox != null)
+          mailbox.shutdown();
+      if (e instanceof ActorCreationException)
+        throw (ActorCreationException) e;
+      throw new ActorCreationException("Router creation failed", e);
+    }
+  }
+
+  /**
+   * Returns a factory of routees of the given type, each with a mailbox and dispatcher of its own. Routees messaging themselves skip
+   * the router, and record into the metrics of the router.
+   */
+  private <T extends IActor> IRouteeFactory routeeFactory(final IActorConfiguration config, final Class<T> actorType,
+                                                         final Object[] args)
+  {
+    val metrics = metricsFor(config);
+    return new IRouteeFactory() {
+      public IMailbox create()
+          throws ActorCreationException
       {
-        throw new ActorCreationException("Actor activation failed. Note that the actor implementation " + actorType.getSimpleName()
-            + " must provide a public constructor, accepting an " + IActorSystem.class.getSimpleName() + " and an "
-            + IActorConfiguration.class.getSimpleName() + " argument", e);
+        val dispatcher = systemContext.createDispatcher(config);
+        try
+        {
+          val actor = activate(config, actorType, args);
+          val mailbox = new Mailbox(config, actor, new MpscMessageQueue(), dispatcher, metrics);
+          if (actor instanceof UntypedActor)
+            ((UntypedActor) actor).bind(mailbox);
+          return mailbox;
+        }
+        catch(ActorCreationException e)
+        {
+          dispatcher.shutdown();
+          throw e;
+        }
       }
+    };
+  }
+
+  /**
+   * Returns the configuration of the actor of the given name under this system's endpoint
+   * 
+   * @throws ActorCreationException The name is empty or contains a slash
+   */
+  private IActorConfiguration configFor(final String name)
+      throws ActorCreationException
+  {
+    if (name.isEmpty() || name.indexOf('/') >= 0)
+      throw new ActorCreationException("Invalid actor name: " + name, null);
+
+    val url = actorConfig.getUrl();
+    return actorConfig.cloneFor(ActorURL.of(url.getProtocol(), url.getHost(), url.getPort(), name));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public <T extends IActor> T actorOf(@NotNull final Class<T> actorType, @NotNull final Object[] args,
+                                      @NotNull final IMessagePrioritizer prioritizer)
+      throws ActorCreationException
+  {
+    return actorOf(actorType, args, systemContext.createDispatcher(actorConfig), prioritizer);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public <T extends IActor> T actorOf(@NotNull final Class<T> actorType, @NotNull final Object[] args,
+                                      @NotNull final IDispatcher dispatcher, @NotNull final IMessagePrioritizer prioritizer)
+      throws ActorCreationException
+  {
+    IMessageQueue queue;
+    try
+    {
+      queue = new PriorityMessageQueue(prioritizer);
+    }
+    catch(IllegalArgumentException e)
+    {
+      // the dispatcher is owned by the actor
+      dispatcher.shutdown();
+      throw new ActorCreationException("Invalid prioritizer: " + prioritizer, e);
+    }
+
+    return createActor(actorConfig, actorType, args, dispatcher, queue);
+  }
 
-      // create local actor context
-      val context = new LocalActorContext(actorAdapterFactory, actorConfig, actor);
+  /**
+   * Creates a local actor at the URL of the given configuration, queuing its messages in the given queue and processing them on the
+   * given dispatcher
+   * 
+   * @throws ActorCreationException The actor could not be created
+   */
+  private <T extends IActor> T createActor(final IActorConfiguration config, final Class<T> actorType, final Object[] args,
+                                           final IDispatcher dispatcher, final IMessageQueue queue)
+      throws ActorCreationException
+  {
+    if (actorConfig.isLoggingEnabled())
+      logger.info("Creating actor " + actorType.getSimpleName() + " at " + config.getUrl());
+
+    try
+    {
+      // instantiate
+      val actor = activate(config, actorType, args);
+
+      // create local actor context, messages are queued per actor and processed by one dispatcher thread at a time
+      val metrics = metricsFor(config);
+      val mailbox = new Mailbox(config, actor, queue, dispatcher, metrics);
+      val context = new LocalActorContext(actorAdapterFactory, systemContext, config, mailbox);
 
       // maintain and start it
       actorRegistry.addAndStart(context);
+      if (metrics != null)
+        metrics.watch(mailbox);
+
+      // messages sent through the actor itself may skip the registry from now on
+      if (actor instanceof UntypedActor)
+        ((UntypedActor) actor).bind(mailbox);
 
       return actor;
     }
     catch(Exception e)
     {
+      // the dispatcher is owned by the actor
+      dispatcher.shutdown();
       throw new ActorCreationException("Actor creation failed", e);
     }
   }
 
+  /**
+   * Returns the metrics of the actor at the URL of the given configuration, or null if it does not record any
+   */
+  private ActorMetrics metricsFor(final IActorConfiguration config)
+  {
+    return config.isMetricsEnabled() ? systemContext.getMetricsRegistry().actor(config.getUrl()) : null;
+  }
+
+  /**
+   * Instantiates an actor of the given type, passing it this actor system, its configuration and the extra arguments
+   * 
+   * @throws ActorCreationException The actor could not be instantiated
+   */
+  @SuppressWarnings("unchecked")
+  private <T extends IActor> T activate(final IActorConfiguration config, final Class<T> actorType, final Object[] args)
+      throws ActorCreationException
+  {
+    try
+    {
+      return (T) ReflectionUtils.activate(actorType, ArrayUtils.join(new Object[] {this, config}, args));
+    }
+    catch(Exception e)
+    {
+      throw new ActorCreationException("Actor activation failed. Note that the actor implementation " + actorType.getSimpleName()
+          + " must provide a public constructor, accepting an " + IActorSystem.class.getSimpleName() + " and an "
+          + IActorConfiguration.class.getSimpleName() + " argument", e);
+    }
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -153,38 +431,122 @@ public final class ActorSystem
   @Validate
   public IActor actorFor(@NotNull final ActorURL url)
   {
-    // attempt to retrieve a previously cached actor reference
-    IActorContext context = actorRegistry.get(url);
-    if (context != null)
+    // previously resolved actors are returned without waiting, unless still being connected to
+    val context = actorRegistry.get(url);
+    if (context != null && !resolutions.containsKey(url))
       return context.getActor();
 
-    // if the local actor, it is not created yet
-    if (actorConfig.getUrl().equals(url))
+    val future = actorForAsync(url);
+    try
+    {
+      return future.get(actorConfig.getTimeoutMillis(), TimeUnit.MILLISECONDS);
+    }
+    catch(InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+      return null;
+    }
+    catch(Exception e)
+    {
+      // could not connect
+      if (actorConfig.isLoggingEnabled())
+        logger.info("Could not resolve " + url + ": " + StackTraceLogging.format(e, StackTraceLevel.ABBREVIATED));
       return null;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public ActorFuture actorForAsync(@NotNull final ActorURL url)
+  {
+    // resolutions in progress are registered before their context, and unregistered once it is ready or removed
+    IActorContext context = actorRegistry.get(url);
+    val pending = resolutions.get(url);
+    if (pending != null)
+      return pending;
+
+    // attempt to retrieve a previously cached actor reference
+    if (context != null)
+      return resolved(context.getActor());
+
+    // if an actor of the local node, it is not created yet
+    if (actorConfig.getUrl().getNode().equals(url.getNode()))
+    {
+      val missing = new ActorFuture(null);
+      missing.fail(new ActorNotFoundException("No actor found at " + url));
+      return missing;
+    }
 
-    // attempt to connect to remote actor
-    context = new RemoteActorContext(actorAdapterFactory, actorConfig.cloneFor(url));
+    // attempt to connect to remote actor, the reference queues messages until then
+    context = new RemoteActorContext(actorAdapterFactory, systemContext, actorConfig.cloneFor(url));
+    val future = new ActorFuture(context.getActor());
+    val prev = resolutions.putIfAbsent(url, future);
+    if (prev != null)
+      return prev;
 
     // maintain and start it
     try
     {
-      actorRegistry.addAndStart(context);
+      actorRegistry.addAndStart(context).addListener(new IFutureListener<Void>() {
+        public void onSuccess(final Void value)
+        {
+          resolutions.remove(url, future);
+          future.resolve();
+        }
+
+        public void onFailure(final Throwable cause)
+        {
+          resolutions.remove(url, future);
+          future.fail(cause);
+        }
+      });
     }
     catch(ActorAlreadyExistsException e)
     {
       // another thread probably has already added it, attempt to get it again
-      context = actorRegistry.get(url);
+      resolutions.remove(url, future);
+      val existing = actorRegistry.get(url);
+      if (existing != null)
+        return resolved(existing.getActor());
+
+      future.fail(e);
     }
     catch(AdapterStartException e)
     {
-      // could not connect
-      if (actorConfig.isLoggingEnabled())
-        logger.info("Could not start remoting adapter: " + StackTraceLogging.format(e, StackTraceLevel.ABBREVIATED));
-      return null;
+      resolutions.remove(url, future);
+      future.fail(e);
     }
 
-    // if found, return it
-    return context != null ? context.getActor() : null;
+    return future;
+  }
+
+  /**
+   * Returns a future completed with the given actor reference
+   */
+  private static ActorFuture resolved(final IActor actor)
+  {
+    val future = new ActorFuture(actor);
+    future.resolve();
+    return future;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public ActorGroup groupOf(@NotNull final Collection<ActorURL> members)
+  {
+    if (members.isEmpty())
+      throw new IllegalArgumentException("No members given");
+
+    for (val url : members)
+      actorForAsync(url);
+
+    return new ActorGroup(this, members);
   }
 
   /**
@@ -193,6 +555,16 @@ public final class ActorSystem
   @Override
   @Validate
   public void tell(@NotNull final ActorURL url, @NotNull final Serializable message)
+  {
+    tell(url, message, null);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public void tell(@NotNull final ActorURL url, @NotNull final Serializable message, final Map<String, String> headers)
   {
     val context = actorRegistry.get(url);
     if (context != null)
@@ -201,10 +573,10 @@ public final class ActorSystem
       switch(connector.getType())
       {
         case CLIENT:
-          connector.send(message);
+          connector.send(Envelope.message(getSenderUrl(), headers, message));
           break;
         case SERVER:
-          connector.onReceive(message);
+          connector.onReceive(wrapLocal(message, headers));
           break;
         default:
           throw new UnsupportedOperationException("Unsupported connector: " + connector.getType());
@@ -212,12 +584,95 @@ public final class ActorSystem
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public boolean tryTell(@NotNull final ActorURL url, @NotNull final Serializable message)
+  {
+    val context = actorRegistry.get(url);
+    if (context == null)
+      return false;
+
+    val connector = context.getConnector();
+    if (connector.getType() == AdapterType.CLIENT)
+      return connector.offer(Envelope.message(getSenderUrl(), null, message));
+
+    return connector.offer(wrapLocal(message, null));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public ReplyFuture ask(@NotNull final ActorURL url, @NotNull final Serializable message, final long timeoutMillis)
+  {
+    if (timeoutMillis <= 0)
+      throw new IllegalArgumentException("timeoutMillis=" + timeoutMillis);
+
+    val future = new ReplyFuture();
+    val context = actorRegistry.get(url);
+    if (context == null)
+    {
+      future.fail(new ActorNotFoundException("No actor found at " + url));
+      return future;
+    }
+
+    val replyRegistry = systemContext.getReplyRegistry();
+    val correlationId = replyRegistry.register(future, timeoutMillis);
+
+    // local and in-memory actors reply straight into the registry, network server adapters replace this with the inbound channel
+    val request = Envelope.request(correlationId, getSenderUrl(), message);
+    request.setReturnPath(replyRegistry);
+
+    if (!context.getConnector().offer(request))
+      replyRegistry.fail(correlationId, new MailboxFullException(url + " did not accept the request"));
+
+    return future;
+  }
+
+  /**
+   * Wraps a message sent to a local actor in an envelope only if it carries headers or is sent from within an actor, as the sender
+   * is the local actor system otherwise
+   */
+  private Serializable wrapLocal(final Serializable message, final Map<String, String> headers)
+  {
+    val sender = MessageContext.senderOr(null);
+    if (sender == null && (headers == null || headers.isEmpty()))
+      return message;
+
+    return Envelope.message(sender != null ? sender : actorConfig.getUrl(), headers, message);
+  }
+
+  /**
+   * Returns the URL that messages are sent from: that of the actor sending them from within onReceive(), or the URL of the actor
+   * system if sent from outside an actor
+   */
+  ActorURL getSenderUrl()
+  {
+    return MessageContext.senderOr(actorConfig.getUrl());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public MetricsSnapshot getMetrics()
+  {
+    return systemContext.getMetricsRegistry().snapshot();
+  }
+
   /**
    * {@inheritDoc}
    */
   @Override
   public void shutdown()
   {
+    if (management != null)
+      management.unregister();
     actorRegistry.shutdownAndClear();
+    systemContext.shutdown();
   }
 }
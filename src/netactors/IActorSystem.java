@@ -19,9 +19,19 @@
 package netactors;
 
 import java.io.Serializable;
+import java.util.Collection;
+import java.util.Map;
 import netactors.actor.IActor;
 import netactors.exception.ActorCreationException;
+import netactors.exception.MailboxFullException;
+import netactors.mailbox.IMessagePrioritizer;
+import netactors.metrics.MetricsSnapshot;
 import netactors.nexus.ActorURL;
+import netactors.reply.ReplyFuture;
+import netactors.routing.IRoutingLogic;
+import netactors.routing.Resizer;
+import netactors.routing.Router;
+import netactors.threading.IDispatcher;
 
 /**
  * Interface of the actor system
@@ -46,6 +56,71 @@ public interface IActorSystem
   <T extends IActor> T actorOf(Class<T> actorType, Object[] args)
       throws ActorCreationException;
 
+  /**
+   * Creates a local actor of specified type, passing it extra arguments. Messages are processed on the given dispatcher, which is
+   * owned by the actor from then on and is shut down along with it.
+   * 
+   * @throws NullPointerException An argument is null
+   * @throws ActorCreationException The actor could not be created
+   */
+  <T extends IActor> T actorOf(Class<T> actorType, Object[] args, IDispatcher dispatcher)
+      throws ActorCreationException;
+
+  /**
+   * Creates a local actor of specified type, passing it extra arguments, named so that it is reachable at
+   * protocol://host:port/name under this system's endpoint. Named actors share the connections of their node with all other actors
+   * of the node.
+   * 
+   * @throws NullPointerException An argument is null
+   * @throws ActorCreationException The name is empty or contains a slash, or the actor could not be created
+   */
+  <T extends IActor> T actorOf(String name, Class<T> actorType, Object[] args)
+      throws ActorCreationException;
+
+  /**
+   * Creates a local actor of specified type, passing it extra arguments. Messages are queued in a priority mailbox, where more urgent
+   * messages (as determined by the prioritizer) overtake any others already queued.
+   * 
+   * @throws NullPointerException An argument is null
+   * @throws ActorCreationException The actor could not be created
+   */
+  <T extends IActor> T actorOf(Class<T> actorType, Object[] args, IMessagePrioritizer prioritizer)
+      throws ActorCreationException;
+
+  /**
+   * Creates a local actor of specified type, passing it extra arguments. Messages are queued in a priority mailbox and processed on
+   * the given dispatcher, which is owned by the actor from then on.
+   * 
+   * @throws NullPointerException An argument is null
+   * @throws ActorCreationException The actor could not be created
+   */
+  <T extends IActor> T actorOf(Class<T> actorType, Object[] args, IDispatcher dispatcher, IMessagePrioritizer prioritizer)
+      throws ActorCreationException;
+
+  /**
+   * Creates a router reachable at protocol://host:port/name under this system's endpoint, fronting the given number of local actors
+   * of specified type, each passed the extra arguments. Messages sent to the router are passed to one of its routees, as chosen by
+   * the routing logic, and routees process messages in parallel. Routees share the router's URL, so they appear as the router to
+   * the actors they message.
+   * 
+   * @throws NullPointerException An argument is null
+   * @throws ActorCreationException The name is empty or contains a slash, the number of routees is not positive, or the routees
+   *           could not be created
+   */
+  <T extends IActor> Router routerOf(String name, Class<T> actorType, Object[] args, int routees, IRoutingLogic logic)
+      throws ActorCreationException;
+
+  /**
+   * Creates a router like routerOf(), whose routees are resized periodically as decided by the resizer, starting at its lower
+   * bound. The pool grows while its routees are under pressure and shrinks once they are idle. Routees removed from the pool are
+   * shut down once they have processed the messages queued for them.
+   * 
+   * @throws NullPointerException An argument is null
+   * @throws ActorCreationException The name is empty or contains a slash, or the routees could not be created
+   */
+  <T extends IActor> Router poolOf(String name, Class<T> actorType, Object[] args, IRoutingLogic logic, Resizer resizer)
+      throws ActorCreationException;
+
   /**
    * Returns the actor at the specified URL, or null if no such actor exists
    * 
@@ -54,12 +129,65 @@ public interface IActorSystem
   IActor actorFor(ActorURL url);
 
   /**
-   * Sends an asynchronous message to an actor, if it exists
+   * Resolves the actor at the specified URL without waiting for its node to be connected to. The returned future holds a reference
+   * usable straight away, queuing messages until connected, and completes once the actor is reachable or fails if it is not.
+   * Concurrent resolutions of the same URL share one future.
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  ActorFuture actorForAsync(ActorURL url);
+
+  /**
+   * Sends an asynchronous message to an actor, if it exists. Messages to actors of other actor systems carry the URL of this
+   * system's actor, so that the receiving actor may send back to it with UntypedActor.getSender().
    * 
    * @throws NullPointerException An argument is null
+   * @throws MailboxFullException The actor's mailbox is full and its overflow policy is to fail
    */
   void tell(ActorURL actorUrl, Serializable message);
 
+  /**
+   * Sends an asynchronous message to an actor, if it exists, along with headers which the actor may read while processing it
+   * 
+   * @throws NullPointerException An argument is null, except for the headers
+   * @throws MailboxFullException The actor's mailbox is full and its overflow policy is to fail
+   */
+  void tell(ActorURL actorUrl, Serializable message, Map<String, String> headers);
+
+  /**
+   * Sends an asynchronous message to an actor, returning false if the actor does not exist or the message was not accepted because
+   * the actor's mailbox is full
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  boolean tryTell(ActorURL actorUrl, Serializable message);
+
+  /**
+   * Sends a request to an actor, returning a future completed with the reply. The actor replies from within onReceive(), with
+   * UntypedActor.reply(). Replies from remote actors arrive over the same connection as the request. The future fails with an
+   * ActorNotFoundException if the actor does not exist, a MailboxFullException if the request was not accepted, or a
+   * TimeoutException if no reply arrives in time.
+   * 
+   * @throws NullPointerException An argument is null
+   * @throws IllegalArgumentException The timeout is not positive
+   */
+  ReplyFuture ask(ActorURL actorUrl, Serializable message, long timeoutMillis);
+
+  /**
+   * Returns a group of the actors at the specified URLs, to which messages can be broadcast or requests scattered, gathering their
+   * replies. Remote members are resolved in the background, as with actorForAsync().
+   * 
+   * @throws NullPointerException An argument is null, or contains null
+   * @throws IllegalArgumentException No URLs are given
+   */
+  ActorGroup groupOf(Collection<ActorURL> members);
+
+  /**
+   * Returns a snapshot of the metrics of this system's actors, and of the links and endpoints of its network adapters. Links and
+   * endpoints are shared by the adapters of all actors of a node, so their metrics cover all those adapters.
+   */
+  MetricsSnapshot getMetrics();
+
   /**
    * Shuts down all actors and cleans up all resources
    */
@@ -19,6 +19,7 @@
 package netactors.actor;
 
 import java.io.Serializable;
+import netactors.exception.MailboxFullException;
 import netactors.nexus.ActorURL;
 
 /**
@@ -40,6 +41,15 @@ public interface IActor
    * Can be used to send a message to an actor. This is an asynchronous method.
    * 
    * @throws NullPointerException An argument is null
+   * @throws MailboxFullException The actor's mailbox is full and its overflow policy is to fail
    */
   void send(Serializable message);
+
+  /**
+   * Can be used to send a message to an actor, without failing. Returns false if the message was not accepted, because the actor's
+   * mailbox is full or its connection cannot take more data, so that callers may throttle.
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  boolean trySend(Serializable message);
 }
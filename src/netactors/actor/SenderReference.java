@@ -0,0 +1,113 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.actor;
+
+import java.io.Serializable;
+import lombok.Getter;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+import lombok.val;
+import netactors.IActorSystem;
+import netactors.nexus.ActorURL;
+import netactors.nexus.Envelope;
+import netactors.nexus.IReturnPath;
+
+/**
+ * Reference to the sender of a message, sending back along the path the message arrived on where possible, so that no connection
+ * to the sender has to be opened. Otherwise the sender is looked up by its URL.
+ */
+final class SenderReference
+    implements IActor
+{
+  private final IActorSystem system;
+  private final ActorURL from;
+  @Getter
+  private final ActorURL url;
+  private final IReturnPath returnPath;
+
+  /**
+   * Constructor, the return path is optional
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  SenderReference(@NotNull final IActorSystem system, @NotNull final ActorURL from, @NotNull final ActorURL url,
+                  final IReturnPath returnPath)
+  {
+    this.system = system;
+    this.from = from;
+    this.url = url;
+    this.returnPath = returnPath;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void onReceive(final Serializable message)
+  {
+    throw new IllegalStateException(this + " should never receive data: " + message);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public void send(@NotNull final Serializable message)
+  {
+    if (sendBack(message))
+      return;
+
+    val actor = system.actorFor(url);
+    if (actor != null)
+      actor.send(message);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public boolean trySend(@NotNull final Serializable message)
+  {
+    if (sendBack(message))
+      return true;
+
+    val actor = system.actorFor(url);
+    return actor != null && actor.trySend(message);
+  }
+
+  /**
+   * Sends a message along the return path, returning false if there is none or it cannot carry the message
+   */
+  private boolean sendBack(final Serializable message)
+  {
+    return returnPath != null && returnPath.send(new Envelope(0, false, from, url, null, message));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + " (" + url + ")";
+  }
+}
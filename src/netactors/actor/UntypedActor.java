@@ -23,9 +23,13 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Validate;
 import lombok.Validate.NotNull;
+import lombok.val;
 import netactors.IActorSystem;
 import netactors.config.IActorConfiguration;
+import netactors.mailbox.IMailbox;
+import netactors.mailbox.MessageContext;
 import netactors.nexus.ActorURL;
+import netactors.nexus.Envelope;
 
 /**
  * Abstract implementation of an actor
@@ -37,6 +41,8 @@ public abstract class UntypedActor
   private final IActorSystem system;
   @Getter(AccessLevel.PROTECTED)
   private final IActorConfiguration config;
+  // mailbox of the started actor, so that messages sent to it skip the actor registry
+  private volatile IMailbox mailbox;
 
   /**
    * Constructor
@@ -56,7 +62,93 @@ public abstract class UntypedActor
   @Validate
   public final void send(@NotNull final Serializable message)
   {
-    system.tell(getUrl(), message);
+    val bound = mailbox;
+    if (bound != null)
+      bound.enqueue(fromSender(message));
+    else
+      system.tell(getUrl(), message);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public final boolean trySend(@NotNull final Serializable message)
+  {
+    val bound = mailbox;
+    if (bound != null)
+      return bound.offer(fromSender(message));
+
+    return system.tryTell(getUrl(), message);
+  }
+
+  /**
+   * Wraps a message queued straight into the mailbox in an envelope from the actor sending it, if sent from within one
+   */
+  private static Serializable fromSender(final Serializable message)
+  {
+    val sender = MessageContext.senderOr(null);
+    if (sender == null || message instanceof Envelope)
+      return message;
+
+    return Envelope.message(sender, null, message);
+  }
+
+  /**
+   * Binds the actor to its mailbox once started by the actor system, after which messages sent to the actor are queued straight into
+   * it. Not meant to be called by actor implementations.
+   * 
+   * @throws NullPointerException An argument is null
+   * @throws IllegalStateException The actor is already bound to another mailbox
+   */
+  @Validate
+  public final void bind(@NotNull final IMailbox mailbox)
+  {
+    if (this.mailbox != null && this.mailbox != mailbox)
+      throw new IllegalStateException(this + " is already bound to " + this.mailbox);
+
+    this.mailbox = mailbox;
+  }
+
+  /**
+   * Replies to the request being processed, e.g. one sent with IActorSystem.ask(). Must be called from within onReceive().
+   * 
+   * @throws NullPointerException An argument is null
+   * @throws IllegalStateException The message being processed is not a request
+   */
+  @Validate
+  protected final void reply(@NotNull final Serializable response)
+  {
+    val request = MessageContext.current();
+    if (request == null || !request.isReplyable())
+      throw new IllegalStateException(this + " is not processing a request");
+
+    request.getReturnPath().send(Envelope.reply(request.getCorrelationId(), response));
+  }
+
+  /**
+   * Returns a reference to the sender of the message being processed: the actor which sent it from within its onReceive(), or the
+   * actor system if told from outside an actor. Returns null if the sender is not known, e.g. because the message was sent
+   * through a reference from outside an actor. Messages sent to the sender travel back over the connection the message arrived
+   * on, if it is still open. Must be called from within onReceive().
+   */
+  protected final IActor getSender()
+  {
+    val envelope = MessageContext.current();
+    if (envelope == null || envelope.getSender() == null)
+      return null;
+
+    return new SenderReference(system, getUrl(), envelope.getSender(), envelope.getReturnPath());
+  }
+
+  /**
+   * Returns the value of a header of the message being processed, or null if not present. Must be called from within onReceive().
+   */
+  protected final String getHeader(final String name)
+  {
+    val envelope = MessageContext.current();
+    return envelope != null ? envelope.getHeader(name) : null;
   }
 
   /**
@@ -0,0 +1,179 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.buffer;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+import lombok.val;
+
+/**
+ * Pool of direct buffers in a few size classes, recycled once their contents have been written out, so that encoding messages does
+ * not allocate per message. Direct buffers are handed to the socket as they are, whereas Netty copies heap buffers into direct
+ * memory before writing them. Each class keeps a bounded number of free buffers; any beyond that are left to the garbage collector.
+ */
+public final class BufferPool
+{
+  private static final int[] SIZE_CLASSES = {512, 2048, 8192, 32768};
+  private static final int DEFAULT_MAX_POOLED_BYTES_PER_CLASS = 1048576;
+
+  private final SizeClass[] classes;
+
+  /**
+   * Default constructor, keeping up to 1MB of free buffers per size class
+   */
+  public BufferPool()
+  {
+    this(DEFAULT_MAX_POOLED_BYTES_PER_CLASS);
+  }
+
+  /**
+   * Constructor, keeping up to the given number of bytes of free buffers per size class
+   * 
+   * @throws IllegalArgumentException The value is negative
+   */
+  public BufferPool(final int maxPooledBytesPerClass)
+  {
+    if (maxPooledBytesPerClass < 0)
+      throw new IllegalArgumentException(maxPooledBytesPerClass + " is negative");
+
+    classes = new SizeClass[SIZE_CLASSES.length];
+    for (int i = 0; i < classes.length; i++)
+      classes[i] = new SizeClass(SIZE_CLASSES[i], maxPooledBytesPerClass / SIZE_CLASSES[i]);
+  }
+
+  /**
+   * Returns the capacity of the buffers acquired for the given capacity: that of the smallest size class able to hold it, or of the
+   * largest class if none can
+   */
+  public static int sizeClassOf(final int capacity)
+  {
+    for (final int size : SIZE_CLASSES)
+      if (size >= capacity)
+        return size;
+
+    return SIZE_CLASSES[SIZE_CLASSES.length - 1];
+  }
+
+  /**
+   * Returns the capacity of the size class following the given one, or of the largest class if there is none
+   */
+  public static int nextSizeClass(final int capacity)
+  {
+    return sizeClassOf(capacity + 1);
+  }
+
+  /**
+   * Returns a cleared direct buffer with the capacity of sizeClassOf(), recording it in the given statistics
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public ByteBuffer acquire(final int capacity, @NotNull final EncodingStats stats)
+  {
+    val sizeClass = classes[indexOf(sizeClassOf(capacity))];
+    val buffer = sizeClass.free.poll();
+    if (buffer != null)
+    {
+      sizeClass.freeCount.decrementAndGet();
+      stats.recordChunk(false);
+      return buffer;
+    }
+
+    stats.recordChunk(true);
+    return ByteBuffer.allocateDirect(sizeClass.capacity);
+  }
+
+  /**
+   * Returns a buffer acquired from this pool, which must no longer be used by the caller
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public void release(@NotNull final ByteBuffer buffer)
+  {
+    val index = indexOf(buffer.capacity());
+    if (index < 0 || !buffer.isDirect())
+      return;
+
+    val sizeClass = classes[index];
+    if (sizeClass.freeCount.incrementAndGet() > sizeClass.maxFree)
+    {
+      sizeClass.freeCount.decrementAndGet();
+      return;
+    }
+
+    buffer.clear();
+    sizeClass.free.offer(buffer);
+  }
+
+  /**
+   * Returns the number of free buffers pooled across all size classes
+   */
+  public int size()
+  {
+    int result = 0;
+    for (final SizeClass sizeClass : classes)
+      result += sizeClass.freeCount.get();
+
+    return result;
+  }
+
+  /**
+   * Returns the index of the size class of the given capacity, or -1 if none
+   */
+  private static int indexOf(final int capacity)
+  {
+    for (int i = 0; i < SIZE_CLASSES.length; i++)
+      if (SIZE_CLASSES[i] == capacity)
+        return i;
+
+    return -1;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + " (free: " + size() + ")";
+  }
+
+  /**
+   * The free buffers of a size class
+   */
+  private static final class SizeClass
+  {
+    private final int capacity;
+    private final int maxFree;
+    private final Queue<ByteBuffer> free = new ConcurrentLinkedQueue<ByteBuffer>();
+    // tracked separately, as the size of the queue is not constant-time
+    private final AtomicInteger freeCount = new AtomicInteger();
+
+    SizeClass(final int capacity, final int maxFree)
+    {
+      this.capacity = capacity;
+      this.maxFree = maxFree;
+    }
+  }
+}
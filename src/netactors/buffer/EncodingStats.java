@@ -0,0 +1,113 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.buffer;
+
+import netactors.metrics.StripedCounter;
+
+/**
+ * Counters of the buffers used to encode the messages written over a connection. Chunks are the pooled buffers messages are encoded
+ * into, allocations are the chunks which had to be allocated because the pool had none free, and copied bytes are those copied
+ * after encoding, e.g. when coalescing messages into a batch. Counters are striped, as all senders over a connection record into the
+ * same statistics.
+ */
+public final class EncodingStats
+{
+  private final StripedCounter messages = new StripedCounter();
+  private final StripedCounter encodedBytes = new StripedCounter();
+  private final StripedCounter chunks = new StripedCounter();
+  private final StripedCounter allocations = new StripedCounter();
+  private final StripedCounter copiedBytes = new StripedCounter();
+
+  /**
+   * Records an encoded message of the given size
+   */
+  public void recordMessage(final int bytes)
+  {
+    messages.increment();
+    encodedBytes.add(bytes);
+  }
+
+  /**
+   * Records a chunk taken from the pool, or allocated if the pool had none free
+   */
+  public void recordChunk(final boolean allocated)
+  {
+    chunks.increment();
+    if (allocated)
+      allocations.increment();
+  }
+
+  /**
+   * Records the given number of bytes copied from one buffer to another
+   */
+  public void recordCopy(final int bytes)
+  {
+    copiedBytes.add(bytes);
+  }
+
+  /**
+   * Returns the number of messages encoded
+   */
+  public long getMessages()
+  {
+    return messages.sum();
+  }
+
+  /**
+   * Returns the number of bytes encoded, including length prefixes
+   */
+  public long getEncodedBytes()
+  {
+    return encodedBytes.sum();
+  }
+
+  /**
+   * Returns the number of chunks taken from the pool
+   */
+  public long getChunks()
+  {
+    return chunks.sum();
+  }
+
+  /**
+   * Returns the number of chunks allocated because the pool had none free
+   */
+  public long getAllocations()
+  {
+    return allocations.sum();
+  }
+
+  /**
+   * Returns the number of bytes copied after encoding
+   */
+  public long getCopiedBytes()
+  {
+    return copiedBytes.sum();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + " (messages: " + getMessages() + ", bytes: " + getEncodedBytes() + ", chunks: " + getChunks()
+        + ", allocations: " + getAllocations() + ", copied bytes: " + getCopiedBytes() + ")";
+  }
+}
@@ -0,0 +1,224 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.buffer;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+import lombok.val;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelFutureListener;
+
+/**
+ * Output stream writing into chunks taken from a buffer pool, moving on to a chunk of the next size class whenever the current one
+ * is full, so that bytes already written are never copied as the output grows. The output is exposed as a composite of the chunks,
+ * which must be released back to the pool once it has been written out. Not thread-safe.
+ */
+public final class PooledBufferOutputStream
+    extends OutputStream
+{
+  private final BufferPool pool;
+  private final EncodingStats stats;
+  private final int firstChunkCapacity;
+  private final List<ByteBuffer> chunks = new ArrayList<ByteBuffer>(2);
+  private final List<ChannelBuffer> buffers = new ArrayList<ChannelBuffer>(2);
+  private ChannelBuffer current;
+  private int size;
+
+  /**
+   * Constructor, the first chunk is taken from the pool on the first write
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public PooledBufferOutputStream(@NotNull final BufferPool pool, @NotNull final EncodingStats stats, final int firstChunkCapacity)
+  {
+    this.pool = pool;
+    this.stats = stats;
+    this.firstChunkCapacity = firstChunkCapacity;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void write(final int b)
+  {
+    ensureWritable();
+    current.writeByte(b);
+    size++;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void write(final byte[] b, final int off, final int len)
+  {
+    int offset = off;
+    int remaining = len;
+    while (remaining > 0)
+    {
+      ensureWritable();
+      val length = Math.min(remaining, current.writableBytes());
+      current.writeBytes(b, offset, length);
+      offset += length;
+      remaining -= length;
+      size += length;
+    }
+  }
+
+  /**
+   * Writes the readable bytes of the given buffer, without changing its reader index
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public void write(@NotNull final ChannelBuffer src)
+  {
+    int index = src.readerIndex();
+    val end = src.writerIndex();
+    while (index < end)
+    {
+      ensureWritable();
+      val length = Math.min(end - index, current.writableBytes());
+      current.writeBytes(src, index, length);
+      index += length;
+      size += length;
+    }
+  }
+
+  /**
+   * Writes a big-endian int
+   */
+  public void writeInt(final int value)
+  {
+    write(value >>> 24);
+    write(value >>> 16);
+    write(value >>> 8);
+    write(value);
+  }
+
+  /**
+   * Overwrites a big-endian int written earlier, e.g. a length field reserved at the start of the output
+   * 
+   * @throws IndexOutOfBoundsException The int does not lie within the output written so far
+   */
+  public void setInt(final int index, final int value)
+  {
+    if (index < 0 || index + 4 > size)
+      throw new IndexOutOfBoundsException("index=" + index + ", size=" + size);
+
+    for (int i = 0; i < 4; i++)
+      setByte(index + i, value >>> (24 - 8 * i));
+  }
+
+  /**
+   * Returns the number of bytes written
+   */
+  public int size()
+  {
+    return size;
+  }
+
+  /**
+   * Returns the bytes written as a single buffer, backed by the chunks. Gathering composites are written to sockets with a single
+   * gathering write, while others are copied into one buffer by Netty; datagram channels must not be given gathering composites, as
+   * they send each part as a datagram of its own.
+   */
+  public ChannelBuffer toBuffer(final boolean gathering)
+  {
+    if (buffers.isEmpty())
+      return ChannelBuffers.EMPTY_BUFFER;
+    if (buffers.size() == 1)
+      return buffers.get(0);
+
+    return ChannelBuffers.wrappedBuffer(gathering, buffers.toArray(new ChannelBuffer[buffers.size()]));
+  }
+
+  /**
+   * Returns the chunks to the pool. The stream and any buffer returned by toBuffer() must no longer be used.
+   */
+  public void release()
+  {
+    for (final ByteBuffer chunk : chunks)
+      pool.release(chunk);
+
+    chunks.clear();
+    buffers.clear();
+    current = null;
+    size = 0;
+  }
+
+  /**
+   * Releases the chunks once the given write has completed, successfully or not, as Netty no longer refers to them from then on
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public void releaseOnCompletion(@NotNull final ChannelFuture future)
+  {
+    future.addListener(new ChannelFutureListener() {
+      public void operationComplete(final ChannelFuture completed)
+      {
+        release();
+      }
+    });
+  }
+
+  /**
+   * Takes a chunk from the pool if there is none, or the current one is full
+   */
+  private void ensureWritable()
+  {
+    if (current != null && current.writable())
+      return;
+
+    val capacity = current == null ? firstChunkCapacity : BufferPool.nextSizeClass(current.capacity());
+    val chunk = pool.acquire(capacity, stats);
+    chunks.add(chunk);
+
+    // wrapping a buffer makes all of it readable, so the indices are reset for writing
+    current = ChannelBuffers.wrappedBuffer(chunk);
+    current.clear();
+    buffers.add(current);
+  }
+
+  /**
+   * Overwrites a byte written earlier
+   */
+  private void setByte(final int index, final int value)
+  {
+    int offset = index;
+    for (final ChannelBuffer buffer : buffers)
+    {
+      if (offset < buffer.writerIndex())
+      {
+        buffer.setByte(offset, value);
+        return;
+      }
+      offset -= buffer.writerIndex();
+    }
+  }
+}
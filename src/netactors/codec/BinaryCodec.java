@@ -0,0 +1,633 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.Getter;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+import lombok.val;
+import netactors.nexus.ActorURL;
+import netactors.nexus.Envelope;
+import netactors.nexus.Multicast;
+import netactors.nexus.ProtocolType;
+import netactors.nexus.common.CodecDecoder;
+import org.jboss.netty.buffer.ChannelBufferInputStream;
+
+/**
+ * Compact binary message codec. Strings, boxed primitives, byte arrays, lists, sets and maps are written with a one-byte type tag
+ * and variable-length integers, while user types registered with an integer ID are written by their own ITypeSerializer. Any
+ * other Serializable value falls back to Java serialization, looking up classes through a class resolver. Request and reply envelopes, as well as multicast messages, are
+ * written with their own tag as well. Lists, sets and maps are decoded as ArrayList, LinkedHashSet and LinkedHashMap
+ * respectively.
+ * <p>
+ * Types must be registered with the same IDs on both ends, before any messages are exchanged.
+ */
+public final class BinaryCodec
+    implements IMessageCodec
+{
+  private static final Charset UTF8 = Charset.forName("UTF-8");
+
+  private static final byte NULL = 0;
+  private static final byte STRING = 1;
+  private static final byte INTEGER = 2;
+  private static final byte LONG = 3;
+  private static final byte SHORT = 4;
+  private static final byte BYTE = 5;
+  private static final byte CHARACTER = 6;
+  private static final byte TRUE = 7;
+  private static final byte FALSE = 8;
+  private static final byte FLOAT = 9;
+  private static final byte DOUBLE = 10;
+  private static final byte BYTES = 11;
+  private static final byte LIST = 12;
+  private static final byte SET = 13;
+  private static final byte MAP = 14;
+  private static final byte REGISTERED = 15;
+  private static final byte SERIALIZED = 16;
+  private static final byte ENVELOPE = 17;
+  private static final byte MULTICAST = 18;
+
+  // envelope flags
+  private static final int REPLY_FLAG = 1;
+  private static final int SENDER_FLAG = 2;
+  private static final int RECIPIENT_FLAG = 4;
+  private static final int HEADERS_FLAG = 8;
+  private static final ProtocolType[] PROTOCOLS = ProtocolType.values();
+  // no length read from a frame may exceed the frame itself
+  private static final int MAX_LENGTH = CodecDecoder.MAX_FRAME_LENGTH;
+
+  @Getter
+  private final IClassResolver classResolver;
+  private final ConcurrentHashMap<Class<?>, Registration> registrationsByType = new ConcurrentHashMap<Class<?>, Registration>();
+  private final ConcurrentHashMap<Integer, Registration> registrationsById = new ConcurrentHashMap<Integer, Registration>();
+
+  /**
+   * Default constructor, caching classes resolved with the class loader of this library
+   */
+  public BinaryCodec()
+  {
+    this(new CachingClassResolver(BinaryCodec.class.getClassLoader()));
+  }
+
+  /**
+   * Constructor
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public BinaryCodec(@NotNull final IClassResolver classResolver)
+  {
+    this.classResolver = classResolver;
+  }
+
+  /**
+   * Registers a user type, which is written by the given serializer and identified on the wire by the given ID. Only values of
+   * exactly this class are matched, not of its subclasses.
+   * 
+   * @throws NullPointerException An argument is null
+   * @throws IllegalArgumentException The ID is negative, or the ID or type is already registered
+   */
+  @Validate
+  public <T> BinaryCodec register(final int id, @NotNull final Class<T> type, @NotNull final ITypeSerializer<T> serializer)
+  {
+    if (id < 0)
+      throw new IllegalArgumentException(id + " is negative");
+
+    val registration = new Registration(id, serializer);
+    if (registrationsById.putIfAbsent(id, registration) != null)
+      throw new IllegalArgumentException("ID already registered: " + id);
+    if (registrationsByType.putIfAbsent(type, registration) != null)
+    {
+      registrationsById.remove(id, registration);
+      throw new IllegalArgumentException("Type already registered: " + type.getName());
+    }
+
+    return this;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public void encode(@NotNull final Serializable message, @NotNull final OutputStream out)
+      throws IOException
+  {
+    writeObject(message, out instanceof DataOutput ? (DataOutput) out : new DataOutputStream(out));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public Serializable decode(@NotNull final InputStream in)
+      throws IOException
+  {
+    val result = readObject(in instanceof DataInput ? (DataInput) in : new DataInputStream(in));
+    if (result != null && !(result instanceof Serializable))
+      throw new IOException("Decoded message is not serializable: " + result.getClass().getName());
+
+    return (Serializable) result;
+  }
+
+  /**
+   * Writes a value of any supported type, which may be null
+   * 
+   * @throws NullPointerException The output is null
+   * @throws IOException The value could not be written
+   */
+  @Validate
+  @SuppressWarnings("unchecked")
+  public void writeObject(final Object value, @NotNull final DataOutput out)
+      throws IOException
+  {
+    if (value == null)
+    {
+      out.writeByte(NULL);
+      return;
+    }
+
+    val type = value.getClass();
+    val registration = registrationsByType.get(type);
+    if (registration != null)
+    {
+      out.writeByte(REGISTERED);
+      writeVarInt(registration.id, out);
+      ((ITypeSerializer<Object>) registration.serializer).write(value, out);
+    }
+    else if (type == Envelope.class)
+    {
+      out.writeByte(ENVELOPE);
+      writeEnvelope((Envelope) value, out);
+    }
+    else if (type == Multicast.class)
+    {
+      out.writeByte(MULTICAST);
+      writeMulticast((Multicast) value, out);
+    }
+    else if (type == String.class)
+    {
+      out.writeByte(STRING);
+      writeString((String) value, out);
+    }
+    else if (type == Integer.class)
+    {
+      out.writeByte(INTEGER);
+      writeVarLong(zigZag((Integer) value), out);
+    }
+    else if (type == Long.class)
+    {
+      out.writeByte(LONG);
+      writeVarLong(zigZag((Long) value), out);
+    }
+    else if (type == Boolean.class)
+      out.writeByte((Boolean) value ? TRUE : FALSE);
+    else if (type == Double.class)
+    {
+      out.writeByte(DOUBLE);
+      out.writeDouble((Double) value);
+    }
+    else if (type == Float.class)
+    {
+      out.writeByte(FLOAT);
+      out.writeFloat((Float) value);
+    }
+    else if (type == Short.class)
+    {
+      out.writeByte(SHORT);
+      out.writeShort((Short) value);
+    }
+    else if (type == Byte.class)
+    {
+      out.writeByte(BYTE);
+      out.writeByte((Byte) value);
+    }
+    else if (type == Character.class)
+    {
+      out.writeByte(CHARACTER);
+      out.writeChar((Character) value);
+    }
+    else if (type == byte[].class)
+    {
+      val bytes = (byte[]) value;
+      out.writeByte(BYTES);
+      writeVarInt(bytes.length, out);
+      out.write(bytes);
+    }
+    else if (value instanceof List)
+    {
+      out.writeByte(LIST);
+      writeCollection((List<?>) value, out);
+    }
+    else if (value instanceof Set)
+    {
+      out.writeByte(SET);
+      writeCollection((Set<?>) value, out);
+    }
+    else if (value instanceof Map)
+    {
+      val map = (Map<?, ?>) value;
+      out.writeByte(MAP);
+      writeVarInt(map.size(), out);
+      for (val entry : map.entrySet())
+      {
+        writeObject(entry.getKey(), out);
+        writeObject(entry.getValue(), out);
+      }
+    }
+    else if (value instanceof Serializable)
+    {
+      // length-prefixed, so that the object stream cannot read past the value
+      val bytes = new ByteArrayOutputStream();
+      val oos = new ObjectOutputStream(bytes);
+      oos.writeObject(value);
+      oos.close();
+
+      out.writeByte(SERIALIZED);
+      writeVarInt(bytes.size(), out);
+      out.write(bytes.toByteArray());
+    }
+    else
+      throw new IOException("Unsupported type: " + type.getName());
+  }
+
+  /**
+   * Reads a value written by writeObject()
+   * 
+   * @throws NullPointerException An argument is null
+   * @throws IOException The value could not be read, or is malformed
+   */
+  @Validate
+  public Object readObject(@NotNull final DataInput in)
+      throws IOException
+  {
+    val tag = in.readByte();
+    switch(tag)
+    {
+      case NULL:
+        return null;
+      case STRING:
+        return readString(in);
+      case INTEGER:
+        return (int) unZigZag(readVarLong(in));
+      case LONG:
+        return unZigZag(readVarLong(in));
+      case SHORT:
+        return in.readShort();
+      case BYTE:
+        return in.readByte();
+      case CHARACTER:
+        return in.readChar();
+      case TRUE:
+        return Boolean.TRUE;
+      case FALSE:
+        return Boolean.FALSE;
+      case FLOAT:
+        return in.readFloat();
+      case DOUBLE:
+        return in.readDouble();
+      case BYTES:
+        val bytes = new byte[readLength(in)];
+        in.readFully(bytes);
+        return bytes;
+      case LIST:
+        val list = new ArrayList<Object>();
+        readCollection(list, in);
+        return list;
+      case SET:
+        val set = new LinkedHashSet<Object>();
+        readCollection(set, in);
+        return set;
+      case MAP:
+        val size = readLength(in);
+        val map = new LinkedHashMap<Object, Object>();
+        for (int i = 0; i < size; i++)
+          map.put(readObject(in), readObject(in));
+        return map;
+      case REGISTERED:
+        val id = readVarInt(in);
+        val registration = registrationsById.get(id);
+        if (registration == null)
+          throw new IOException("Unregistered type ID: " + id);
+        return registration.serializer.read(in);
+      case SERIALIZED:
+        val serialized = new byte[readLength(in)];
+        in.readFully(serialized);
+        try
+        {
+          return new ResolvingObjectInputStream(new ByteArrayInputStream(serialized), classResolver).readObject();
+        }
+        catch(ClassNotFoundException e)
+        {
+          throw new IOException("Could not resolve serialized class", e);
+        }
+      case ENVELOPE:
+        return readEnvelope(in);
+      case MULTICAST:
+        return readMulticast(in);
+      default:
+        throw new IOException("Unknown type tag: " + tag);
+    }
+  }
+
+  /**
+   * Writes an envelope as its correlation ID, a byte of flags marking replies and present fields, the present fields and the message
+   */
+  private void writeEnvelope(final Envelope envelope, final DataOutput out)
+      throws IOException
+  {
+    val sender = envelope.getSender();
+    val recipient = envelope.getRecipient();
+    val headers = envelope.getHeaders();
+
+    int flags = envelope.isReply() ? REPLY_FLAG : 0;
+    if (sender != null)
+      flags |= SENDER_FLAG;
+    if (recipient != null)
+      flags |= RECIPIENT_FLAG;
+    if (!headers.isEmpty())
+      flags |= HEADERS_FLAG;
+
+    writeVarLong(envelope.getCorrelationId(), out);
+    out.writeByte(flags);
+    if (sender != null)
+      writeUrl(sender, out);
+    if (recipient != null)
+      writeUrl(recipient, out);
+    if (!headers.isEmpty())
+    {
+      writeVarInt(headers.size(), out);
+      for (val header : headers.entrySet())
+      {
+        writeString(header.getKey(), out);
+        writeString(header.getValue(), out);
+      }
+    }
+    writeObject(envelope.getMessage(), out);
+  }
+
+  /**
+   * Reads an envelope written by writeEnvelope()
+   */
+  private Envelope readEnvelope(final DataInput in)
+      throws IOException
+  {
+    val correlationId = readVarLong(in);
+    val flags = in.readByte();
+    val sender = (flags & SENDER_FLAG) != 0 ? readUrl(in) : null;
+    val recipient = (flags & RECIPIENT_FLAG) != 0 ? readUrl(in) : null;
+
+    Map<String, String> headers = null;
+    if ((flags & HEADERS_FLAG) != 0)
+    {
+      val size = readLength(in);
+      headers = new LinkedHashMap<String, String>();
+      for (int i = 0; i < size; i++)
+        headers.put(readString(in), readString(in));
+    }
+
+    val message = readObject(in);
+    if (!(message instanceof Serializable))
+      throw new IOException("Not an enveloped message: " + message);
+
+    return new Envelope(correlationId, (flags & REPLY_FLAG) != 0, sender, recipient, headers, (Serializable) message);
+  }
+
+  /**
+   * Writes a multicast message as the number of recipients, their URLs and the envelope
+   */
+  private void writeMulticast(final Multicast multicast, final DataOutput out)
+      throws IOException
+  {
+    val recipients = multicast.getRecipients();
+    writeVarInt(recipients.length, out);
+    for (ActorURL recipient : recipients)
+      writeUrl(recipient, out);
+    writeEnvelope(multicast.getEnvelope(), out);
+  }
+
+  /**
+   * Reads a multicast message written by writeMulticast()
+   */
+  private Multicast readMulticast(final DataInput in)
+      throws IOException
+  {
+    val recipients = new ActorURL[readLength(in)];
+    for (int i = 0; i < recipients.length; i++)
+      recipients[i] = readUrl(in);
+
+    return new Multicast(recipients, readEnvelope(in));
+  }
+
+  /**
+   * Writes an actor URL as its protocol, host, port and path
+   */
+  private static void writeUrl(final ActorURL url, final DataOutput out)
+      throws IOException
+  {
+    out.writeByte(url.getProtocol().ordinal());
+    writeString(url.getHost(), out);
+    writeVarInt(url.getPort(), out);
+    writeString(url.getPath(), out);
+  }
+
+  /**
+   * Reads an actor URL written by writeUrl()
+   */
+  private static ActorURL readUrl(final DataInput in)
+      throws IOException
+  {
+    val protocol = in.readByte();
+    if (protocol < 0 || protocol >= PROTOCOLS.length)
+      throw new IOException("Unknown protocol: " + protocol);
+
+    return ActorURL.valueOf(PROTOCOLS[protocol], readString(in), readVarInt(in), readString(in));
+  }
+
+  /**
+   * Writes the size and elements of a collection
+   */
+  private void writeCollection(final Collection<?> collection, final DataOutput out)
+      throws IOException
+  {
+    writeVarInt(collection.size(), out);
+    for (val element : collection)
+      writeObject(element, out);
+  }
+
+  /**
+   * Reads the size and elements of a collection
+   */
+  private void readCollection(final Collection<Object> collection, final DataInput in)
+      throws IOException
+  {
+    val size = readLength(in);
+    for (int i = 0; i < size; i++)
+      collection.add(readObject(in));
+  }
+
+  /**
+   * Writes a string as its UTF-8 length and bytes
+   */
+  private static void writeString(final String value, final DataOutput out)
+      throws IOException
+  {
+    val bytes = value.getBytes(UTF8);
+    writeVarInt(bytes.length, out);
+    out.write(bytes);
+  }
+
+  /**
+   * Reads a string written by writeString()
+   */
+  private static String readString(final DataInput in)
+      throws IOException
+  {
+    val bytes = new byte[readLength(in)];
+    in.readFully(bytes);
+    return new String(bytes, UTF8);
+  }
+
+  /**
+   * Reads a non-negative length, which cannot exceed the maximum frame length, nor the bytes remaining in a frame being decoded, so
+   * that a malformed length cannot exhaust memory. Lengths count bytes or elements, each of which takes at least one byte.
+   */
+  private static int readLength(final DataInput in)
+      throws IOException
+  {
+    val length = readVarInt(in);
+    if (length < 0 || length > MAX_LENGTH)
+      throw new IOException("Invalid length: " + length);
+    if (in instanceof ChannelBufferInputStream && length > ((ChannelBufferInputStream) in).available())
+      throw new IOException("Length exceeds the remaining frame: " + length);
+
+    return length;
+  }
+
+  /**
+   * Writes an unsigned integer in 7-bit groups, least significant first
+   */
+  private static void writeVarInt(final int value, final DataOutput out)
+      throws IOException
+  {
+    writeVarLong(value & 0xFFFFFFFFL, out);
+  }
+
+  /**
+   * Reads an unsigned integer written by writeVarInt()
+   */
+  private static int readVarInt(final DataInput in)
+      throws IOException
+  {
+    return (int) readVarLong(in);
+  }
+
+  /**
+   * Writes an unsigned long in 7-bit groups, least significant first
+   */
+  private static void writeVarLong(long value, final DataOutput out)
+      throws IOException
+  {
+    while ((value & ~0x7FL) != 0)
+    {
+      out.writeByte((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.writeByte((int) value);
+  }
+
+  /**
+   * Reads an unsigned long written by writeVarLong()
+   */
+  private static long readVarLong(final DataInput in)
+      throws IOException
+  {
+    long result = 0;
+    for (int shift = 0; shift < 64; shift += 7)
+    {
+      val b = in.readByte();
+      result |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0)
+        return result;
+    }
+
+    throw new IOException("Malformed variable-length integer");
+  }
+
+  /**
+   * Maps signed values to unsigned ones, so that small negative values stay short
+   */
+  private static long zigZag(final long value)
+  {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  /**
+   * Reverses zigZag()
+   */
+  private static long unZigZag(final long value)
+  {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + " (" + registrationsById.size() + " registered types)";
+  }
+
+  /**
+   * Registered user type
+   */
+  private static final class Registration
+  {
+    final int id;
+    final ITypeSerializer<?> serializer;
+
+    Registration(final int id, final ITypeSerializer<?> serializer)
+    {
+      this.id = id;
+      this.serializer = serializer;
+    }
+  }
+}
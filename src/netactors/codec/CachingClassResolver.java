@@ -0,0 +1,108 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.codec;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+import lombok.val;
+
+/**
+ * Class resolver caching the classes it has looked up through a class loader. Classes are only weakly referenced, so that caching
+ * does not prevent their class loaders from being unloaded, in which case they are looked up again. Safe for concurrent use, so
+ * that a single instance can be shared by all adapters of an actor system.
+ */
+public final class CachingClassResolver
+    implements IClassResolver
+{
+  private final ClassLoader classLoader;
+  private final ConcurrentHashMap<String, WeakReference<Class<?>>> cache = new ConcurrentHashMap<String, WeakReference<Class<?>>>();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * Constructor
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public CachingClassResolver(@NotNull final ClassLoader classLoader)
+  {
+    this.classLoader = classLoader;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Class<?> resolve(final String className)
+      throws ClassNotFoundException
+  {
+    val ref = cache.get(className);
+    if (ref != null)
+    {
+      val cached = ref.get();
+      if (cached != null)
+      {
+        hits.incrementAndGet();
+        return cached;
+      }
+    }
+
+    misses.incrementAndGet();
+    val result = Class.forName(className, false, classLoader);
+    cache.put(className, new WeakReference<Class<?>>(result));
+    return result;
+  }
+
+  /**
+   * Returns the number of lookups served from the cache
+   */
+  public long getHits()
+  {
+    return hits.get();
+  }
+
+  /**
+   * Returns the number of lookups that went through the class loader, including failed ones
+   */
+  public long getMisses()
+  {
+    return misses.get();
+  }
+
+  /**
+   * Returns the number of cached classes, including any that have been unloaded since
+   */
+  public int size()
+  {
+    return cache.size();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + " (hits: " + getHits() + ", misses: " + getMisses() + ")";
+  }
+}
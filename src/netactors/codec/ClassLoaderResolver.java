@@ -0,0 +1,61 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.codec;
+
+import lombok.Validate;
+import lombok.Validate.NotNull;
+
+/**
+ * Class resolver looking up every class through a class loader, without any caching
+ */
+public final class ClassLoaderResolver
+    implements IClassResolver
+{
+  private final ClassLoader classLoader;
+
+  /**
+   * Constructor
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public ClassLoaderResolver(@NotNull final ClassLoader classLoader)
+  {
+    this.classLoader = classLoader;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Class<?> resolve(final String className)
+      throws ClassNotFoundException
+  {
+    return Class.forName(className, false, classLoader);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName();
+  }
+}
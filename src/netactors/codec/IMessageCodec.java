@@ -0,0 +1,47 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+
+/**
+ * Interface of a message codec, converting messages to and from bytes for the TCP and UDP adapters. Framing is handled by the
+ * adapters, so codecs only deal with the contents of a single message. Both ends of a connection must use the same codec.
+ */
+public interface IMessageCodec
+{
+  /**
+   * Writes a message to the stream
+   * 
+   * @throws IOException The message could not be encoded
+   */
+  void encode(Serializable message, OutputStream out)
+      throws IOException;
+
+  /**
+   * Reads a message from the stream, which contains exactly one encoded message
+   * 
+   * @throws IOException The message could not be decoded
+   */
+  Serializable decode(InputStream in)
+      throws IOException;
+}
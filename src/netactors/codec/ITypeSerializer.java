@@ -0,0 +1,45 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.codec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Interface of a serializer for a user type registered with the BinaryCodec
+ */
+public interface ITypeSerializer<T>
+{
+  /**
+   * Writes the fields of a value. Nested objects may be written with BinaryCodec.writeObject().
+   * 
+   * @throws IOException The value could not be written
+   */
+  void write(T value, DataOutput out)
+      throws IOException;
+
+  /**
+   * Reads a value, in the order its fields were written. Nested objects may be read with BinaryCodec.readObject().
+   * 
+   * @throws IOException The value could not be read
+   */
+  T read(DataInput in)
+      throws IOException;
+}
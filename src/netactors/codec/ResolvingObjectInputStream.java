@@ -0,0 +1,63 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+
+/**
+ * Object input stream looking up the classes of deserialized objects through a class resolver
+ */
+final class ResolvingObjectInputStream
+    extends ObjectInputStream
+{
+  private final IClassResolver classResolver;
+
+  /**
+   * Constructor
+   * 
+   * @throws IOException The stream header could not be read
+   */
+  ResolvingObjectInputStream(final InputStream in, final IClassResolver classResolver)
+      throws IOException
+  {
+    super(in);
+    this.classResolver = classResolver;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected Class<?> resolveClass(final ObjectStreamClass desc)
+      throws IOException, ClassNotFoundException
+  {
+    try
+    {
+      return classResolver.resolve(desc.getName());
+    }
+    catch(ClassNotFoundException e)
+    {
+      // primitive types are not resolved by name
+      return super.resolveClass(desc);
+    }
+  }
+}
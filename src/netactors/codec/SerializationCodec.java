@@ -0,0 +1,102 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import lombok.Getter;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+import lombok.val;
+
+/**
+ * Message codec using standard Java serialization. Supports any Serializable message, at the cost of writing class descriptors
+ * with every message. Classes are looked up through a class resolver, which caches them by default; as the codec is shared by all
+ * adapters of an actor system, so is the cache.
+ */
+public final class SerializationCodec
+    implements IMessageCodec
+{
+  @Getter
+  private final IClassResolver classResolver;
+
+  /**
+   * Default constructor, caching classes resolved with the class loader of this library
+   */
+  public SerializationCodec()
+  {
+    this(new CachingClassResolver(SerializationCodec.class.getClassLoader()));
+  }
+
+  /**
+   * Constructor
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public SerializationCodec(@NotNull final IClassResolver classResolver)
+  {
+    this.classResolver = classResolver;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public void encode(@NotNull final Serializable message, @NotNull final OutputStream out)
+      throws IOException
+  {
+    val oos = new ObjectOutputStream(out);
+    oos.writeObject(message);
+    oos.flush();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public Serializable decode(@NotNull final InputStream in)
+      throws IOException
+  {
+    val ois = new ResolvingObjectInputStream(in, classResolver);
+
+    try
+    {
+      return (Serializable) ois.readObject();
+    }
+    catch(ClassNotFoundException e)
+    {
+      throw new IOException("Could not resolve message class", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + " (" + classResolver + ")";
+  }
+}
@@ -22,6 +22,9 @@ import lombok.Getter;
 import lombok.Validate;
 import lombok.Validate.NotNull;
 import lombok.val;
+import netactors.codec.IMessageCodec;
+import netactors.codec.SerializationCodec;
+import netactors.mailbox.OverflowPolicy;
 import netactors.nexus.ActorURL;
 
 /**
@@ -32,6 +35,19 @@ public final class ActorConfiguration
 {
   private static final String LOGGING_ENABLED_PROPERTY = "netactorLog";
   private static final String TIMEOUT_MILLIS_PROPERTY = "netactorTimeoutMillis";
+  private static final String WORKER_THREADS_PROPERTY = "netactorWorkerThreads";
+  private static final String VIRTUAL_THREADS_PROPERTY = "netactorVirtualThreads";
+  private static final String THROUGHPUT_PROPERTY = "netactorThroughput";
+  private static final String THROUGHPUT_DEADLINE_MILLIS_PROPERTY = "netactorThroughputDeadlineMillis";
+  private static final String MAILBOX_CAPACITY_PROPERTY = "netactorMailboxCapacity";
+  private static final String OVERFLOW_POLICY_PROPERTY = "netactorOverflowPolicy";
+  private static final String MAX_BATCH_BYTES_PROPERTY = "netactorMaxBatchBytes";
+  private static final String MAX_LINGER_MICROS_PROPERTY = "netactorMaxLingerMicros";
+  private static final String OUTBOUND_BUFFER_CAPACITY_PROPERTY = "netactorOutboundBufferCapacity";
+  private static final String MIN_RECONNECT_BACKOFF_MILLIS_PROPERTY = "netactorMinReconnectBackoffMillis";
+  private static final String MAX_RECONNECT_BACKOFF_MILLIS_PROPERTY = "netactorMaxReconnectBackoffMillis";
+  private static final String METRICS_ENABLED_PROPERTY = "netactorMetrics";
+  private static final String MANAGEMENT_ENABLED_PROPERTY = "netactorManagement";
 
   @Getter
   private final ActorURL url;
@@ -39,6 +55,36 @@ public final class ActorConfiguration
   private final int timeoutMillis;
   @Getter
   private final boolean loggingEnabled;
+  @Getter
+  private int workerThreads;
+  @Getter
+  private int sharedWorkerThreads;
+  @Getter
+  private boolean virtualThreads;
+  @Getter
+  private int throughput;
+  @Getter
+  private int throughputDeadlineMillis;
+  @Getter
+  private int mailboxCapacity;
+  @Getter
+  private OverflowPolicy overflowPolicy;
+  @Getter
+  private IMessageCodec messageCodec;
+  @Getter
+  private int maxBatchBytes;
+  @Getter
+  private int maxLingerMicros;
+  @Getter
+  private int outboundBufferCapacity;
+  @Getter
+  private int minReconnectBackoffMillis;
+  @Getter
+  private int maxReconnectBackoffMillis;
+  @Getter
+  private boolean metricsEnabled;
+  @Getter
+  private boolean managementEnabled;
 
   /**
    * Constructor
@@ -70,9 +116,48 @@ public final class ActorConfiguration
   @Validate
   public ActorConfiguration(@NotNull final ActorURL url, final int timeoutMillis, final boolean loggingEnabled)
   {
-    this.url = url;
+    this.url = url.intern();
     this.timeoutMillis = timeoutMillis;
     this.loggingEnabled = loggingEnabled;
+    this.sharedWorkerThreads = getDefaultSharedWorkerThreads();
+    this.virtualThreads = getDefaultIsVirtualThreads();
+    this.throughput = getDefaultThroughput();
+    this.throughputDeadlineMillis = getDefaultThroughputDeadlineMillis();
+    this.mailboxCapacity = getDefaultMailboxCapacity();
+    this.overflowPolicy = getDefaultOverflowPolicy();
+    this.messageCodec = new SerializationCodec();
+    this.maxBatchBytes = getDefaultMaxBatchBytes();
+    this.maxLingerMicros = getDefaultMaxLingerMicros();
+    this.outboundBufferCapacity = getDefaultOutboundBufferCapacity();
+    this.minReconnectBackoffMillis = getDefaultMinReconnectBackoffMillis();
+    this.maxReconnectBackoffMillis = Math.max(minReconnectBackoffMillis, getDefaultMaxReconnectBackoffMillis());
+    this.metricsEnabled = getDefaultIsMetricsEnabled();
+    this.managementEnabled = getDefaultIsManagementEnabled();
+  }
+
+  /**
+   * Copy constructor, replacing the URL
+   */
+  private ActorConfiguration(final ActorConfiguration other, final ActorURL url)
+  {
+    this.url = url.intern();
+    this.timeoutMillis = other.timeoutMillis;
+    this.loggingEnabled = other.loggingEnabled;
+    this.workerThreads = other.workerThreads;
+    this.sharedWorkerThreads = other.sharedWorkerThreads;
+    this.virtualThreads = other.virtualThreads;
+    this.throughput = other.throughput;
+    this.throughputDeadlineMillis = other.throughputDeadlineMillis;
+    this.mailboxCapacity = other.mailboxCapacity;
+    this.overflowPolicy = other.overflowPolicy;
+    this.messageCodec = other.messageCodec;
+    this.maxBatchBytes = other.maxBatchBytes;
+    this.maxLingerMicros = other.maxLingerMicros;
+    this.outboundBufferCapacity = other.outboundBufferCapacity;
+    this.minReconnectBackoffMillis = other.minReconnectBackoffMillis;
+    this.maxReconnectBackoffMillis = other.maxReconnectBackoffMillis;
+    this.metricsEnabled = other.metricsEnabled;
+    this.managementEnabled = other.managementEnabled;
   }
 
   /**
@@ -82,7 +167,175 @@ public final class ActorConfiguration
   @Validate
   public IActorConfiguration cloneFor(@NotNull final ActorURL url)
   {
-    return new ActorConfiguration(url, getTimeoutMillis(), isLoggingEnabled());
+    return new ActorConfiguration(this, url);
+  }
+
+  /**
+   * Returns a copy of the configuration, using a dedicated pool of the given number of worker threads, or the pool shared across the
+   * actor system if zero
+   *
+   * @throws IllegalArgumentException The value is negative
+   */
+  public ActorConfiguration withWorkerThreads(final int workerThreads)
+  {
+    if (workerThreads < 0)
+      throw new IllegalArgumentException(workerThreads + " is negative");
+
+    val result = new ActorConfiguration(this, url);
+    result.workerThreads = workerThreads;
+    return result;
+  }
+
+  /**
+   * Returns a copy of the configuration, sizing the worker pool shared across the actor system to the given number of threads
+   *
+   * @throws IllegalArgumentException The value is not positive
+   */
+  public ActorConfiguration withSharedWorkerThreads(final int sharedWorkerThreads)
+  {
+    if (sharedWorkerThreads <= 0)
+      throw new IllegalArgumentException(sharedWorkerThreads + " is not positive");
+
+    val result = new ActorConfiguration(this, url);
+    result.sharedWorkerThreads = sharedWorkerThreads;
+    return result;
+  }
+
+  /**
+   * Returns a copy of the configuration, processing messages on virtual threads if true. Falls back to worker threads on JVMs
+   * without virtual thread support.
+   */
+  public ActorConfiguration withVirtualThreads(final boolean virtualThreads)
+  {
+    val result = new ActorConfiguration(this, url);
+    result.virtualThreads = virtualThreads;
+    return result;
+  }
+
+  /**
+   * Returns a copy of the configuration, processing at most the given number of messages per scheduling turn
+   *
+   * @throws IllegalArgumentException The value is not positive
+   */
+  public ActorConfiguration withThroughput(final int throughput)
+  {
+    if (throughput <= 0)
+      throw new IllegalArgumentException(throughput + " is not positive");
+
+    val result = new ActorConfiguration(this, url);
+    result.throughput = throughput;
+    return result;
+  }
+
+  /**
+   * Returns a copy of the configuration, yielding after the given time slice (in millis) per scheduling turn, or never if zero
+   *
+   * @throws IllegalArgumentException The value is negative
+   */
+  public ActorConfiguration withThroughputDeadlineMillis(final int throughputDeadlineMillis)
+  {
+    if (throughputDeadlineMillis < 0)
+      throw new IllegalArgumentException(throughputDeadlineMillis + " is negative");
+
+    val result = new ActorConfiguration(this, url);
+    result.throughputDeadlineMillis = throughputDeadlineMillis;
+    return result;
+  }
+
+  /**
+   * Returns a copy of the configuration, bounding mailboxes to the given capacity and applying the given policy when full. A zero
+   * capacity makes mailboxes unbounded.
+   *
+   * @throws NullPointerException An argument is null
+   * @throws IllegalArgumentException The capacity is negative
+   */
+  @Validate
+  public ActorConfiguration withMailboxCapacity(final int mailboxCapacity, @NotNull final OverflowPolicy overflowPolicy)
+  {
+    if (mailboxCapacity < 0)
+      throw new IllegalArgumentException(mailboxCapacity + " is negative");
+
+    val result = new ActorConfiguration(this, url);
+    result.mailboxCapacity = mailboxCapacity;
+    result.overflowPolicy = overflowPolicy;
+    return result;
+  }
+
+  /**
+   * Returns a copy of the configuration, using the given codec over TCP and UDP. Remote actors must use an equivalent codec.
+   *
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public ActorConfiguration withMessageCodec(@NotNull final IMessageCodec messageCodec)
+  {
+    val result = new ActorConfiguration(this, url);
+    result.messageCodec = messageCodec;
+    return result;
+  }
+
+  /**
+   * Returns a copy of the configuration, coalescing messages sent over TCP and UDP into batches of up to the given number of bytes,
+   * or sending each message on its own if zero. A batch is flushed once full, or once senders pause, waiting up to the given linger
+   * time (in micros) for more messages to join it.
+   *
+   * @throws IllegalArgumentException A value is negative
+   */
+  public ActorConfiguration withWriteBatching(final int maxBatchBytes, final int maxLingerMicros)
+  {
+    if (maxBatchBytes < 0)
+      throw new IllegalArgumentException(maxBatchBytes + " is negative");
+    if (maxLingerMicros < 0)
+      throw new IllegalArgumentException(maxLingerMicros + " is negative");
+
+    val result = new ActorConfiguration(this, url);
+    result.maxBatchBytes = maxBatchBytes;
+    result.maxLingerMicros = maxLingerMicros;
+    return result;
+  }
+
+  /**
+   * Returns a copy of the configuration, buffering up to the given number of messages sent over TCP and UDP while the connection to
+   * the remote node is down, or discarding them if zero. Reconnection attempts back off exponentially between the given delays (in
+   * millis).
+   *
+   * @throws IllegalArgumentException The capacity is negative, the minimum delay is not positive or exceeds the maximum delay
+   */
+  public ActorConfiguration withReconnect(final int outboundBufferCapacity, final int minReconnectBackoffMillis,
+                                          final int maxReconnectBackoffMillis)
+  {
+    if (outboundBufferCapacity < 0)
+      throw new IllegalArgumentException(outboundBufferCapacity + " is negative");
+    if (minReconnectBackoffMillis <= 0)
+      throw new IllegalArgumentException(minReconnectBackoffMillis + " is not positive");
+    if (maxReconnectBackoffMillis < minReconnectBackoffMillis)
+      throw new IllegalArgumentException(maxReconnectBackoffMillis + " is less than " + minReconnectBackoffMillis);
+
+    val result = new ActorConfiguration(this, url);
+    result.outboundBufferCapacity = outboundBufferCapacity;
+    result.minReconnectBackoffMillis = minReconnectBackoffMillis;
+    result.maxReconnectBackoffMillis = maxReconnectBackoffMillis;
+    return result;
+  }
+
+  /**
+   * Returns a copy of the configuration, recording the metrics of actors if true, which costs reading the clock for each message
+   */
+  public ActorConfiguration withMetrics(final boolean metricsEnabled)
+  {
+    val result = new ActorConfiguration(this, url);
+    result.metricsEnabled = metricsEnabled;
+    return result;
+  }
+
+  /**
+   * Returns a copy of the configuration, registering actor systems created with it as MBeans if true
+   */
+  public ActorConfiguration withManagement(final boolean managementEnabled)
+  {
+    val result = new ActorConfiguration(this, url);
+    result.managementEnabled = managementEnabled;
+    return result;
   }
 
   /**
@@ -94,14 +347,146 @@ public final class ActorConfiguration
     return Boolean.parseBoolean(value);
   }
 
+  /**
+   * Returns a configured property, or true if property is not set
+   */
+  private static boolean getDefaultIsMetricsEnabled()
+  {
+    val value = System.getProperty(METRICS_ENABLED_PROPERTY);
+    return value == null || Boolean.parseBoolean(value);
+  }
+
+  /**
+   * Returns a configured property, or true if property is not set
+   */
+  private static boolean getDefaultIsManagementEnabled()
+  {
+    val value = System.getProperty(MANAGEMENT_ENABLED_PROPERTY);
+    return value == null || Boolean.parseBoolean(value);
+  }
+
+  /**
+   * Returns a configured property, or false if property is not set
+   */
+  private static boolean getDefaultIsVirtualThreads()
+  {
+    val value = System.getProperty(VIRTUAL_THREADS_PROPERTY);
+    return Boolean.parseBoolean(value);
+  }
+
   /**
    * Returns a configured property, or a default value if property is not set
    */
   private static int getDefaultTimeoutMillis()
+  {
+    return getNonNegativeIntProperty(TIMEOUT_MILLIS_PROPERTY, 2000);
+  }
+
+  /**
+   * Returns a configured property, or a default value (one thread per processor) if property is not set
+   */
+  private static int getDefaultSharedWorkerThreads()
+  {
+    return getPositiveIntProperty(WORKER_THREADS_PROPERTY, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Returns a configured property, or a default value if property is not set
+   */
+  private static int getDefaultThroughput()
+  {
+    return getPositiveIntProperty(THROUGHPUT_PROPERTY, 100);
+  }
+
+  /**
+   * Returns a configured property, or a default value (no time slice) if property is not set
+   */
+  private static int getDefaultThroughputDeadlineMillis()
+  {
+    return getNonNegativeIntProperty(THROUGHPUT_DEADLINE_MILLIS_PROPERTY, 0);
+  }
+
+  /**
+   * Returns a configured property, or a default value (unbounded) if property is not set
+   */
+  private static int getDefaultMailboxCapacity()
+  {
+    return getNonNegativeIntProperty(MAILBOX_CAPACITY_PROPERTY, 0);
+  }
+
+  /**
+   * Returns a configured property, or a default value (no batching) if property is not set
+   */
+  private static int getDefaultMaxBatchBytes()
+  {
+    return getNonNegativeIntProperty(MAX_BATCH_BYTES_PROPERTY, 0);
+  }
+
+  /**
+   * Returns a configured property, or a default value (flush as soon as senders pause) if property is not set
+   */
+  private static int getDefaultMaxLingerMicros()
+  {
+    return getNonNegativeIntProperty(MAX_LINGER_MICROS_PROPERTY, 0);
+  }
+
+  /**
+   * Returns a configured property, or a default value if property is not set
+   */
+  private static int getDefaultOutboundBufferCapacity()
+  {
+    return getNonNegativeIntProperty(OUTBOUND_BUFFER_CAPACITY_PROPERTY, 1024);
+  }
+
+  /**
+   * Returns a configured property, or a default value if property is not set
+   */
+  private static int getDefaultMinReconnectBackoffMillis()
+  {
+    return getPositiveIntProperty(MIN_RECONNECT_BACKOFF_MILLIS_PROPERTY, 50);
+  }
+
+  /**
+   * Returns a configured property, or a default value if property is not set
+   */
+  private static int getDefaultMaxReconnectBackoffMillis()
+  {
+    return getPositiveIntProperty(MAX_RECONNECT_BACKOFF_MILLIS_PROPERTY, 5000);
+  }
+
+  /**
+   * Returns a configured property, or a default value if property is not set or invalid
+   */
+  private static OverflowPolicy getDefaultOverflowPolicy()
+  {
+    try
+    {
+      val value = System.getProperty(OVERFLOW_POLICY_PROPERTY);
+      return OverflowPolicy.valueOf(value.trim().toUpperCase());
+    }
+    catch(Exception e)
+    {
+      return OverflowPolicy.DROP_NEWEST;
+    }
+  }
+
+  /**
+   * Returns a configured positive integer property, or a default value if property is not set or invalid
+   */
+  private static int getPositiveIntProperty(final String property, final int defaultValue)
+  {
+    val value = getNonNegativeIntProperty(property, defaultValue);
+    return value > 0 ? value : defaultValue;
+  }
+
+  /**
+   * Returns a configured non-negative integer property, or a default value if property is not set or invalid
+   */
+  private static int getNonNegativeIntProperty(final String property, final int defaultValue)
   {
     try
     {
-      val value = System.getProperty(TIMEOUT_MILLIS_PROPERTY);
+      val value = System.getProperty(property);
       val intValue = Integer.parseInt(value);
       if (intValue < 0)
         throw new IllegalArgumentException(intValue + " is negative");
@@ -110,7 +495,7 @@ public final class ActorConfiguration
     }
     catch(Exception e)
     {
-      return 2000;
+      return defaultValue;
     }
   }
 }
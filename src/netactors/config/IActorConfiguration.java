@@ -18,6 +18,8 @@
 // /////////////////////////////////////////////////////////
 package netactors.config;
 
+import netactors.codec.IMessageCodec;
+import netactors.mailbox.OverflowPolicy;
 import netactors.nexus.ActorURL;
 
 /**
@@ -40,6 +42,84 @@ public interface IActorConfiguration
    */
   boolean isLoggingEnabled();
 
+  /**
+   * Getter for the number of worker threads dedicated to an adapter, or zero if the pool shared across the actor system is used
+   */
+  int getWorkerThreads();
+
+  /**
+   * Getter for the number of threads of the worker pool shared across the actor system. Only the configuration of the actor system
+   * itself is used for this.
+   */
+  int getSharedWorkerThreads();
+
+  /**
+   * Getter on whether messages are processed on virtual threads, when supported by the JVM. Takes precedence over worker threads.
+   */
+  boolean isVirtualThreads();
+
+  /**
+   * Getter for the maximum number of messages an actor processes per scheduling turn, before yielding its thread to other actors
+   */
+  int getThroughput();
+
+  /**
+   * Getter for the time slice (in millis) after which an actor yields its thread, even if it has not reached its throughput, or zero
+   * if unlimited
+   */
+  int getThroughputDeadlineMillis();
+
+  /**
+   * Getter for the maximum number of messages queued in an actor's mailbox, or zero if unbounded
+   */
+  int getMailboxCapacity();
+
+  /**
+   * Getter for the policy applied when a message is sent to a bounded mailbox that is full
+   */
+  OverflowPolicy getOverflowPolicy();
+
+  /**
+   * Getter for the codec converting messages to and from bytes, over TCP and UDP
+   */
+  IMessageCodec getMessageCodec();
+
+  /**
+   * Getter for the maximum number of bytes coalesced into one write over TCP and UDP, or zero if messages are written one by one
+   */
+  int getMaxBatchBytes();
+
+  /**
+   * Getter for the time (in micros) a partially filled batch waits for more messages before being flushed, or zero if it is flushed
+   * as soon as senders pause
+   */
+  int getMaxLingerMicros();
+
+  /**
+   * Getter for the maximum number of messages buffered while the connection to a remote node is down, or zero if they are discarded
+   */
+  int getOutboundBufferCapacity();
+
+  /**
+   * Getter for the delay (in millis) before the first attempt to reconnect to a remote node
+   */
+  int getMinReconnectBackoffMillis();
+
+  /**
+   * Getter for the maximum delay (in millis) between attempts to reconnect to a remote node
+   */
+  int getMaxReconnectBackoffMillis();
+
+  /**
+   * Getter on whether actors record metrics of the messages they receive and process
+   */
+  boolean isMetricsEnabled();
+
+  /**
+   * Getter on whether actor systems register an MBean with the platform MBean server, for monitoring and managing their actors
+   */
+  boolean isManagementEnabled();
+
   /**
    * Returns a copy of the configuration, for use with another actor
    * 
@@ -0,0 +1,41 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.context;
+
+import netactors.exception.AdapterStartException;
+
+/**
+ * Interface of a transport resource shared by the adapters of an actor system, e.g. the connection to a remote node. Shared
+ * resources are opened on first acquisition and closed when released by their last user.
+ */
+public interface ISharedResource
+{
+  /**
+   * Opens the resource
+   * 
+   * @throws AdapterStartException The resource could not be opened
+   */
+  void open()
+      throws AdapterStartException;
+
+  /**
+   * Closes the resource
+   */
+  void close();
+}
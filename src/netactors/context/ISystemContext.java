@@ -0,0 +1,123 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.context;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import netactors.buffer.BufferPool;
+import netactors.config.IActorConfiguration;
+import netactors.exception.AdapterStartException;
+import netactors.metrics.MetricsRegistry;
+import netactors.reply.IReplyRegistry;
+import netactors.threading.IDispatcher;
+import org.jboss.netty.channel.socket.ClientSocketChannelFactory;
+import org.jboss.netty.channel.socket.DatagramChannelFactory;
+import org.jboss.netty.channel.socket.ServerSocketChannelFactory;
+
+/**
+ * Interface of an actor system context, holding the thread pools and transport resources shared by all adapters of an actor system
+ */
+public interface ISystemContext
+{
+  /**
+   * Returns the bounded worker pool used for processing messages, shared across the actor system
+   */
+  ExecutorService getWorkerPool();
+
+  /**
+   * Returns a worker pool for an adapter: the shared virtual-thread executor if the configuration requests virtual threads and the
+   * JVM supports them, a dedicated pool if the configuration requests worker threads of its own, otherwise the shared worker pool.
+   * Dedicated pools must be shut down by the adapter.
+   *
+   * @throws NullPointerException An argument is null
+   */
+  ExecutorService getWorkerPool(IActorConfiguration actorConfig);
+
+  /**
+   * Returns true if the given pool is shared across the actor system, and so must not be shut down by adapters
+   */
+  boolean isShared(ExecutorService pool);
+
+  /**
+   * Creates the default dispatcher of an actor, running on the worker pool returned for the given configuration
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  IDispatcher createDispatcher(IActorConfiguration actorConfig);
+
+  /**
+   * Returns the scheduler used for timeouts, shared across the actor system
+   */
+  ScheduledExecutorService getScheduler();
+
+  /**
+   * Returns the table of requests awaiting a reply, shared by all adapters of the actor system
+   */
+  IReplyRegistry getReplyRegistry();
+
+  /**
+   * Returns the registry of the metrics of actors and transports, shared by all adapters of the actor system. Safe to use from I/O
+   * threads.
+   */
+  MetricsRegistry getMetricsRegistry();
+
+  /**
+   * Returns the pool of direct buffers that outbound messages are encoded into, shared by all adapters of the actor system. Safe to
+   * use from I/O threads, unlike the other resources of the context.
+   */
+  BufferPool getBufferPool();
+
+  /**
+   * Returns the TCP client channel factory, shared by all TCP client adapters
+   */
+  ClientSocketChannelFactory getTcpClientChannelFactory();
+
+  /**
+   * Returns the TCP server channel factory, shared by all TCP server adapters
+   */
+  ServerSocketChannelFactory getTcpServerChannelFactory();
+
+  /**
+   * Returns the UDP channel factory, shared by all UDP client and server adapters
+   */
+  DatagramChannelFactory getUdpChannelFactory();
+
+  /**
+   * Returns the transport resource shared under the given key, creating and opening it if it does not exist yet. Each successful
+   * call must be balanced by a call to release().
+   * 
+   * @throws NullPointerException An argument is null
+   * @throws AdapterStartException The resource could not be opened
+   */
+  <T extends ISharedResource> T acquire(String key, ISharedResourceFactory<T> factory)
+      throws AdapterStartException;
+
+  /**
+   * Releases a reference to the transport resource shared under the given key, closing the resource once no references are left
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  void release(String key);
+
+  /**
+   * Releases all pools and transport resources, failing any requests still awaiting a reply. Resources are re-created on demand,
+   * if requested after shutdown.
+   */
+  void shutdown();
+}
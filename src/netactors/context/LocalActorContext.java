@@ -24,6 +24,7 @@ import lombok.Validate.NotNull;
 import netactors.actor.IActor;
 import netactors.config.IActorConfiguration;
 import netactors.exception.UnsupportedProtocolException;
+import netactors.mailbox.IMailbox;
 import netactors.nexus.ActorURL;
 import netactors.nexus.IActorAdapter;
 import netactors.nexus.IAdapterFactory;
@@ -46,11 +47,11 @@ public final class LocalActorContext
    * @throws UnsupportedProtocolException The specified protocol is unsupported
    */
   @Validate
-  public LocalActorContext(@NotNull final IAdapterFactory adapterFactory, @NotNull final IActorConfiguration config,
-                           @NotNull final IActor actor)
+  public LocalActorContext(@NotNull final IAdapterFactory adapterFactory, @NotNull final ISystemContext systemContext,
+                           @NotNull final IActorConfiguration config, @NotNull final IMailbox mailbox)
   {
-    this.actor = actor;
-    this.connector = adapterFactory.createServer(config, actor);
+    this.actor = mailbox.getActor();
+    this.connector = adapterFactory.createServer(config, systemContext, mailbox);
   }
 
   /**
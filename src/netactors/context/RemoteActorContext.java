@@ -49,10 +49,11 @@ public final class RemoteActorContext
    * @throws UnsupportedProtocolException The specified protocol is unsupported
    */
   @Validate
-  public RemoteActorContext(@NotNull final IAdapterFactory adapterFactory, @NotNull final IActorConfiguration actorConfig)
+  public RemoteActorContext(@NotNull final IAdapterFactory adapterFactory, @NotNull final ISystemContext systemContext,
+                            @NotNull final IActorConfiguration actorConfig)
   {
     this.remoteUrl = actorConfig.getUrl();
-    val adapter = adapterFactory.createClient(actorConfig);
+    val adapter = adapterFactory.createClient(actorConfig, systemContext);
     this.connector = adapter;
     this.actor = adapter;
   }
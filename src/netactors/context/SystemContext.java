@@ -0,0 +1,386 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.context;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import lombok.Getter;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+import lombok.val;
+import netactors.buffer.BufferPool;
+import netactors.config.IActorConfiguration;
+import netactors.exception.AdapterStartException;
+import netactors.metrics.MetricsRegistry;
+import netactors.reply.IReplyRegistry;
+import netactors.reply.ReplyRegistry;
+import netactors.threading.ExecutorDispatcher;
+import netactors.threading.IDispatcher;
+import netactors.threading.VirtualThreads;
+import org.jboss.netty.channel.socket.ClientSocketChannelFactory;
+import org.jboss.netty.channel.socket.DatagramChannelFactory;
+import org.jboss.netty.channel.socket.ServerSocketChannelFactory;
+import org.jboss.netty.channel.socket.nio.NioClientSocketChannelFactory;
+import org.jboss.netty.channel.socket.nio.NioDatagramChannelFactory;
+import org.jboss.netty.channel.socket.nio.NioServerSocketChannelFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Implementation of the actor system context. Message processing happens on a fixed-size worker pool, sized to the number of
+ * cores by default. Netty boss and I/O threads are taken from a separate pool, which stays bounded because channel factories are
+ * shared and each one only keeps a fixed number of I/O workers alive. Actors opting into virtual threads share a single
+ * virtual-thread-per-task executor instead, where the JVM supports it.
+ */
+public final class SystemContext
+    implements ISystemContext
+{
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private final ThreadFactory threadFactory;
+  private final int workerThreads;
+  private final int ioThreads;
+  @Getter
+  private final IReplyRegistry replyRegistry;
+  @Getter
+  private final BufferPool bufferPool = new BufferPool();
+  @Getter
+  private final MetricsRegistry metricsRegistry = new MetricsRegistry();
+
+  private ExecutorService workerPool;
+  private ExecutorService virtualThreadPool;
+  private boolean virtualThreadFallbackLogged;
+  private ExecutorService ioPool;
+  private ScheduledThreadPoolExecutor scheduler;
+  // shared transport resources, guarded by their own lock as opening one may block; their factories may take the lock of the
+  // context to get pools and channel factories, so it is never held while taking this one
+  private final Map<String, SharedEntry> shared = new HashMap<String, SharedEntry>();
+  private NioClientSocketChannelFactory tcpClientChannelFactory;
+  private NioServerSocketChannelFactory tcpServerChannelFactory;
+  private NioDatagramChannelFactory udpChannelFactory;
+
+  /**
+   * Constructor, sizing pools to the number of available processors
+   *
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public SystemContext(@NotNull final ThreadFactory threadFactory)
+  {
+    this(threadFactory, Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Constructor
+   *
+   * @throws NullPointerException An argument is null
+   * @throws IllegalArgumentException A thread count is not positive
+   */
+  @Validate
+  public SystemContext(@NotNull final ThreadFactory threadFactory, final int workerThreads, final int ioThreads)
+  {
+    if (workerThreads <= 0)
+      throw new IllegalArgumentException("workerThreads=" + workerThreads);
+    if (ioThreads <= 0)
+      throw new IllegalArgumentException("ioThreads=" + ioThreads);
+
+    this.threadFactory = threadFactory;
+    this.workerThreads = workerThreads;
+    this.ioThreads = ioThreads;
+    this.replyRegistry = new ReplyRegistry(this);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized ExecutorService getWorkerPool()
+  {
+    if (workerPool == null)
+      workerPool = Executors.newFixedThreadPool(workerThreads, threadFactory);
+
+    return workerPool;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public ExecutorService getWorkerPool(@NotNull final IActorConfiguration actorConfig)
+  {
+    if (actorConfig.isVirtualThreads())
+    {
+      val pool = getVirtualThreadPool();
+      if (pool != null)
+        return pool;
+    }
+
+    if (actorConfig.getWorkerThreads() > 0)
+      return Executors.newFixedThreadPool(actorConfig.getWorkerThreads(), threadFactory);
+
+    return getWorkerPool();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public IDispatcher createDispatcher(@NotNull final IActorConfiguration actorConfig)
+  {
+    val pool = getWorkerPool(actorConfig);
+    return new ExecutorDispatcher(pool, !isShared(pool));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized boolean isShared(final ExecutorService pool)
+  {
+    return pool != null && (pool == workerPool || pool == virtualThreadPool);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized ScheduledExecutorService getScheduler()
+  {
+    if (scheduler == null)
+    {
+      scheduler = new ScheduledThreadPoolExecutor(1, threadFactory);
+      // timeouts are usually cancelled well before they expire, so they should not linger in the queue
+      scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    return scheduler;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  @SuppressWarnings("unchecked")
+  public <T extends ISharedResource> T acquire(@NotNull final String key, @NotNull final ISharedResourceFactory<T> factory)
+      throws AdapterStartException
+  {
+    synchronized(shared)
+    {
+      SharedEntry entry = shared.get(key);
+      if (entry == null)
+      {
+        val resource = factory.create();
+        resource.open();
+        entry = new SharedEntry(resource);
+        shared.put(key, entry);
+      }
+
+      entry.references++;
+      return (T) entry.resource;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public void release(@NotNull final String key)
+  {
+    ISharedResource resource;
+    synchronized(shared)
+    {
+      val entry = shared.get(key);
+      if (entry == null || --entry.references > 0)
+        return;
+
+      shared.remove(key);
+      resource = entry.resource;
+    }
+
+    // closing may block, so happens outside the lock
+    resource.close();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized ClientSocketChannelFactory getTcpClientChannelFactory()
+  {
+    if (tcpClientChannelFactory == null)
+      tcpClientChannelFactory = new NioClientSocketChannelFactory(getIoPool(), getIoPool(), 1, ioThreads);
+
+    return tcpClientChannelFactory;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized ServerSocketChannelFactory getTcpServerChannelFactory()
+  {
+    if (tcpServerChannelFactory == null)
+      tcpServerChannelFactory = new NioServerSocketChannelFactory(getIoPool(), getIoPool(), ioThreads);
+
+    return tcpServerChannelFactory;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized DatagramChannelFactory getUdpChannelFactory()
+  {
+    if (udpChannelFactory == null)
+      udpChannelFactory = new NioDatagramChannelFactory(getIoPool(), ioThreads);
+
+    return udpChannelFactory;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void shutdown()
+  {
+    replyRegistry.failAll(new IllegalStateException("The actor system has been shut down"));
+    metricsRegistry.clear();
+
+    // shared resources are closed outside any lock, before the pools and channel factories they use are released
+    val resources = new ArrayList<ISharedResource>();
+    synchronized(shared)
+    {
+      for (val entry : shared.values())
+        resources.add(entry.resource);
+      shared.clear();
+    }
+    for (ISharedResource resource : resources)
+      resource.close();
+
+    releasePools();
+  }
+
+  /**
+   * Releases the channel factories and pools, which are re-created on demand
+   */
+  private synchronized void releasePools()
+  {
+    if (tcpClientChannelFactory != null)
+    {
+      tcpClientChannelFactory.releaseExternalResources();
+      tcpClientChannelFactory = null;
+    }
+    if (tcpServerChannelFactory != null)
+    {
+      tcpServerChannelFactory.releaseExternalResources();
+      tcpServerChannelFactory = null;
+    }
+    if (udpChannelFactory != null)
+    {
+      udpChannelFactory.releaseExternalResources();
+      udpChannelFactory = null;
+    }
+    if (ioPool != null)
+    {
+      ioPool.shutdownNow();
+      ioPool = null;
+    }
+    if (workerPool != null)
+    {
+      workerPool.shutdownNow();
+      workerPool = null;
+    }
+    if (virtualThreadPool != null)
+    {
+      virtualThreadPool.shutdownNow();
+      virtualThreadPool = null;
+    }
+    if (scheduler != null)
+    {
+      scheduler.shutdownNow();
+      scheduler = null;
+    }
+  }
+
+  /**
+   * Returns the virtual-thread executor, or null if the JVM does not support virtual threads
+   */
+  private synchronized ExecutorService getVirtualThreadPool()
+  {
+    if (virtualThreadPool == null)
+    {
+      if (!VirtualThreads.isSupported())
+      {
+        if (!virtualThreadFallbackLogged)
+        {
+          logger.warn("Virtual threads are not supported by this JVM, falling back to worker threads");
+          virtualThreadFallbackLogged = true;
+        }
+        return null;
+      }
+
+      virtualThreadPool = VirtualThreads.newVirtualThreadPerTaskExecutor();
+    }
+
+    return virtualThreadPool;
+  }
+
+  /**
+   * Returns the pool providing Netty boss and I/O threads
+   */
+  private ExecutorService getIoPool()
+  {
+    if (ioPool == null)
+      ioPool = Executors.newCachedThreadPool(threadFactory);
+
+    return ioPool;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName();
+  }
+
+  /**
+   * A shared resource and its number of references
+   */
+  private static final class SharedEntry
+  {
+    private final ISharedResource resource;
+    private int references;
+
+    SharedEntry(final ISharedResource resource)
+    {
+      this.resource = resource;
+    }
+  }
+}
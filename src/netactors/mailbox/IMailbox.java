@@ -0,0 +1,76 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.mailbox;
+
+import java.io.Serializable;
+import netactors.actor.IActor;
+import netactors.exception.MailboxFullException;
+
+/**
+ * Interface of an actor mailbox. Messages are queued and then processed by the actor, by at most one thread at a time.
+ */
+public interface IMailbox
+{
+  /**
+   * Getter for the actor processing the messages of this mailbox
+   */
+  IActor getActor();
+
+  /**
+   * Queues a message and schedules the mailbox for processing, if it is not already scheduled. Bounded mailboxes apply their
+   * overflow policy when full. Messages are discarded once the mailbox is shut down.
+   *
+   * @throws NullPointerException An argument is null
+   * @throws MailboxFullException The mailbox is full and its overflow policy is to fail
+   */
+  void enqueue(Serializable message);
+
+  /**
+   * Queues a message like enqueue(), but returns false instead of throwing if the message was not accepted because the mailbox is
+   * full or shut down. Senders may use this as a signal to throttle.
+   *
+   * @throws NullPointerException An argument is null
+   */
+  boolean offer(Serializable message);
+
+  /**
+   * Returns the number of messages waiting to be processed
+   */
+  int size();
+
+  /**
+   * Returns the number of messages processed so far
+   */
+  long getProcessedCount();
+
+  /**
+   * Returns the time spent processing messages so far, in nanoseconds
+   */
+  long getProcessingNanos();
+
+  /**
+   * Returns true once the mailbox has been shut down
+   */
+  boolean isShutdown();
+
+  /**
+   * Stops processing messages and shuts down the dispatcher of the mailbox. Messages queued afterwards are discarded.
+   */
+  void shutdown();
+}
@@ -0,0 +1,37 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.mailbox;
+
+import java.io.Serializable;
+
+/**
+ * Interface of a message prioritizer, assigning messages to the priority levels of a priority mailbox
+ */
+public interface IMessagePrioritizer
+{
+  /**
+   * Returns the number of priority levels
+   */
+  int getLevels();
+
+  /**
+   * Returns the priority level of a message, from zero (most urgent) to getLevels() - 1. Values out of range are clamped.
+   */
+  int getPriority(Serializable message);
+}
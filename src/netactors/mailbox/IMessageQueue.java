@@ -0,0 +1,56 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.mailbox;
+
+import java.io.Serializable;
+
+/**
+ * Interface of a mailbox message queue. Implementations must allow multiple concurrent producers, but may assume that there is only
+ * ever a single consumer at a time.
+ */
+public interface IMessageQueue
+{
+  /**
+   * Inserts a message at the end of the queue, returning true if successful, false otherwise
+   *
+   * @throws NullPointerException An argument is null
+   */
+  boolean offer(Serializable message);
+
+  /**
+   * Removes and returns the message at the front of the queue, or null if the queue is empty. Must only be called by the consumer.
+   */
+  Serializable poll();
+
+  /**
+   * Removes and returns the message to discard first when the mailbox is full, or null if the queue is empty. Must only be called
+   * by the consumer.
+   */
+  Serializable evict();
+
+  /**
+   * Returns true if there are no messages in the queue
+   */
+  boolean isEmpty();
+
+  /**
+   * Returns the number of messages in the queue
+   */
+  int size();
+}
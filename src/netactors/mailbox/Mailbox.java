@@ -0,0 +1,397 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.mailbox;
+
+import java.io.Serializable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.Getter;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+import lombok.val;
+import netactors.actor.IActor;
+import netactors.config.IActorConfiguration;
+import netactors.exception.MailboxFullException;
+import netactors.exception.StackTraceLogging;
+import netactors.metrics.ActorMetrics;
+import netactors.nexus.Envelope;
+import netactors.threading.IDispatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import propel.core.common.StackTraceLevel;
+
+/**
+ * Implementation of an actor mailbox. The mailbox is submitted to the dispatcher only when transitioning from idle to scheduled, so
+ * that the actor never processes messages concurrently and does not need any locking. Each run processes a batch of messages, up to
+ * the configured throughput or time slice, and then yields the thread by rescheduling itself if more messages are pending.
+ * <p>
+ * Mailboxes with a configured capacity are bounded by a semaphore of free slots, applying the overflow policy when none is left.
+ * Under the drop-oldest policy the sender evicts the oldest message itself and takes over its slot, so the queue never exceeds its
+ * capacity. Polling is then serialized by a lock, as the queue only supports one consumer at a time.
+ * <p>
+ * If given metrics, the mailbox records the messages it accepts, rejects and evicts, and the time taken to process each message.
+ */
+public final class Mailbox
+    implements IMailbox, Runnable
+{
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private final IActorConfiguration actorConfig;
+  @Getter
+  private final IActor actor;
+  private final IMessageQueue queue;
+  private final IDispatcher dispatcher;
+  private final int throughput;
+  private final long throughputDeadlineNanos;
+  private final OverflowPolicy overflowPolicy;
+  // null if metrics are not recorded
+  private final ActorMetrics metrics;
+  // free slots of a bounded mailbox, or null if unbounded
+  private final Semaphore slots;
+  // serializes polling between the consumer and senders evicting the oldest message, or null if senders never poll
+  private final Object pollLock;
+  private final AtomicBoolean scheduled = new AtomicBoolean();
+  private volatile boolean closed;
+  // only updated by the thread processing the mailbox, once per batch
+  private volatile long processedCount;
+  private volatile long processingNanos;
+
+  /**
+   * Constructor
+   *
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public Mailbox(@NotNull final IActorConfiguration actorConfig, @NotNull final IActor actor, @NotNull final IMessageQueue queue,
+                 @NotNull final IDispatcher dispatcher)
+  {
+    this(actorConfig, actor, queue, dispatcher, null);
+  }
+
+  /**
+   * Constructor, recording into the given metrics unless null
+   *
+   * @throws NullPointerException An argument is null, except for the metrics
+   */
+  @Validate
+  public Mailbox(@NotNull final IActorConfiguration actorConfig, @NotNull final IActor actor, @NotNull final IMessageQueue queue,
+                 @NotNull final IDispatcher dispatcher, final ActorMetrics metrics)
+  {
+    this.actorConfig = actorConfig;
+    this.actor = actor;
+    this.queue = queue;
+    this.dispatcher = dispatcher;
+    this.throughput = actorConfig.getThroughput();
+    this.throughputDeadlineNanos = TimeUnit.MILLISECONDS.toNanos(actorConfig.getThroughputDeadlineMillis());
+    this.overflowPolicy = actorConfig.getOverflowPolicy();
+    this.slots = actorConfig.getMailboxCapacity() > 0 ? new Semaphore(actorConfig.getMailboxCapacity()) : null;
+    this.pollLock = slots != null && overflowPolicy == OverflowPolicy.DROP_OLDEST ? new Object() : null;
+    this.metrics = metrics;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public void enqueue(@NotNull final Serializable message)
+  {
+    if (closed)
+      return;
+
+    if (!offer(message) && overflowPolicy == OverflowPolicy.FAIL)
+      throw new MailboxFullException(this + " is full, capacity: " + actorConfig.getMailboxCapacity());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public boolean offer(@NotNull final Serializable message)
+  {
+    if (closed)
+      return false;
+
+    if (slots != null && !reserveSlot())
+    {
+      if (metrics != null)
+        metrics.recordRejected();
+      if (actorConfig.isLoggingEnabled())
+        logger.debug(this + " is full, discarding message (" + overflowPolicy + ")");
+      return false;
+    }
+
+    queue.offer(message);
+    if (metrics != null)
+      metrics.recordReceived();
+    schedule();
+    return true;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int size()
+  {
+    return queue.size();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getProcessedCount()
+  {
+    return processedCount;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getProcessingNanos()
+  {
+    return processingNanos;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean isShutdown()
+  {
+    return closed;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void shutdown()
+  {
+    closed = true;
+    dispatcher.shutdown();
+  }
+
+  /**
+   * Processes a batch of queued messages. Must only be invoked by the dispatcher, after the mailbox has been scheduled.
+   */
+  @Override
+  public void run()
+  {
+    val start = System.nanoTime();
+    int processed = 0;
+    // messages sent while processing carry the actor as their sender
+    val previousActor = MessageContext.enterActor(actor.getUrl());
+    try
+    {
+      val deadline = start + throughputDeadlineNanos;
+      long previous = start;
+      while (processed < throughput)
+      {
+        val message = poll();
+        if (message == null)
+          break;
+
+        process(message);
+        processed++;
+
+        if (metrics != null)
+        {
+          // each message is timed from the end of the previous one, so that the clock is read once per message
+          val now = System.nanoTime();
+          metrics.recordProcessed(now - previous);
+          previous = now;
+        }
+
+        if (throughputDeadlineNanos > 0 && System.nanoTime() - deadline >= 0)
+          break;
+      }
+    }
+    finally
+    {
+      MessageContext.exitActor(previousActor);
+      processedCount += processed;
+      processingNanos += System.nanoTime() - start;
+      scheduled.set(false);
+
+      // messages may be left over from the batch, or a producer may have queued one after the last poll but before the flag was
+      // cleared
+      if (!isQueueEmpty())
+        schedule();
+    }
+  }
+
+  /**
+   * Takes a free slot of a bounded mailbox, applying the overflow policy if there is none. Returns false if the message should be
+   * discarded.
+   */
+  private boolean reserveSlot()
+  {
+    if (slots.tryAcquire())
+      return true;
+
+    switch(overflowPolicy)
+    {
+      case DROP_OLDEST:
+        return evictOldest();
+      case BLOCK:
+        try
+        {
+          return slots.tryAcquire(actorConfig.getTimeoutMillis(), TimeUnit.MILLISECONDS);
+        }
+        catch(InterruptedException e)
+        {
+          Thread.currentThread().interrupt();
+          return false;
+        }
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Discards the oldest queued message, or in a priority mailbox the oldest of the least urgent ones, whose slot the new message
+   * takes over. If there is none, as the slots are held by messages still being queued, the new message takes a slot freed in the
+   * meantime, if any. Returns false if the new message should be discarded instead.
+   */
+  private boolean evictOldest()
+  {
+    Serializable evicted;
+    synchronized(pollLock)
+    {
+      evicted = queue.evict();
+    }
+
+    if (evicted == null)
+      return slots.tryAcquire();
+
+    if (metrics != null)
+      metrics.recordRejected();
+    if (actorConfig.isLoggingEnabled())
+      logger.debug(this + " is full, discarding oldest message");
+    return true;
+  }
+
+  /**
+   * Polls the next message, freeing its slot if the mailbox is bounded
+   */
+  private Serializable poll()
+  {
+    Serializable message;
+    if (pollLock != null)
+    {
+      synchronized(pollLock)
+      {
+        message = queue.poll();
+      }
+    } else
+      message = queue.poll();
+
+    if (message != null && slots != null)
+      slots.release();
+    return message;
+  }
+
+  /**
+   * Returns true if no messages are queued
+   */
+  private boolean isQueueEmpty()
+  {
+    if (pollLock == null)
+      return queue.isEmpty();
+
+    synchronized(pollLock)
+    {
+      return queue.isEmpty();
+    }
+  }
+
+  /**
+   * Submits the mailbox to the dispatcher, unless it is already scheduled
+   */
+  private void schedule()
+  {
+    if (!scheduled.compareAndSet(false, true))
+      return;
+
+    try
+    {
+      dispatcher.execute(this);
+    }
+    catch(RejectedExecutionException e)
+    {
+      scheduled.set(false);
+      if (actorConfig.isLoggingEnabled())
+        logger.debug("Execution rejected, most likely due to shutdown: " + StackTraceLogging.format(e, StackTraceLevel.ABBREVIATED));
+    }
+  }
+
+  /**
+   * Passes a message to the actor, logging any failures. Enveloped messages are unwrapped, with the envelope made available to the
+   * actor through the message context.
+   */
+  private void process(final Serializable message)
+  {
+    if (!(message instanceof Envelope))
+    {
+      deliver(message);
+      return;
+    }
+
+    val envelope = (Envelope) message;
+    val previous = MessageContext.enter(envelope);
+    try
+    {
+      deliver(envelope.getMessage());
+    }
+    finally
+    {
+      MessageContext.exit(previous);
+    }
+  }
+
+  /**
+   * Passes a message to the actor, logging any failures
+   */
+  private void deliver(final Serializable message)
+  {
+    try
+    {
+      actor.onReceive(message);
+    }
+    catch(Exception e)
+    {
+      if (actorConfig.isLoggingEnabled())
+        logger.info(actor + " could not process a message: " + StackTraceLogging.format(e, StackTraceLevel.ABBREVIATED));
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + " (of " + actorConfig.getUrl() + ")";
+  }
+}
@@ -0,0 +1,58 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.mailbox;
+
+import java.io.Serializable;
+
+/**
+ * Message prioritizer with two levels: messages implementing IPriorityMessage are urgent, all others are normal
+ */
+public final class MarkerPrioritizer
+    implements IMessagePrioritizer
+{
+  private static final int URGENT = 0;
+  private static final int NORMAL = 1;
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getLevels()
+  {
+    return 2;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getPriority(final Serializable message)
+  {
+    return message instanceof IPriorityMessage ? URGENT : NORMAL;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName();
+  }
+}
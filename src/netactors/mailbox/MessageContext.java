@@ -0,0 +1,97 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.mailbox;
+
+import netactors.nexus.ActorURL;
+import netactors.nexus.Envelope;
+
+/**
+ * Holds the envelope of the message being processed by the current thread, if the message was sent as part of a request. Actors
+ * use it to reply to the request from within onReceive(). Also holds the URL of the actor processing the message, which messages
+ * sent from within onReceive() carry as their sender.
+ */
+public final class MessageContext
+{
+  private static final ThreadLocal<Envelope> CURRENT = new ThreadLocal<Envelope>();
+  private static final ThreadLocal<ActorURL> ACTOR = new ThreadLocal<ActorURL>();
+
+  private MessageContext()
+  {
+  }
+
+  /**
+   * Returns the envelope of the message being processed by the current thread, or null if the message was not enveloped
+   */
+  public static Envelope current()
+  {
+    return CURRENT.get();
+  }
+
+  /**
+   * Returns the URL of the actor processing a message on the current thread, or the given URL if called from outside an actor
+   */
+  public static ActorURL senderOr(final ActorURL fallback)
+  {
+    final ActorURL actor = ACTOR.get();
+    return actor != null ? actor : fallback;
+  }
+
+  /**
+   * Sets the actor processing messages on the current thread, returning the previous one so that it may be restored
+   */
+  static ActorURL enterActor(final ActorURL actor)
+  {
+    final ActorURL previous = ACTOR.get();
+    ACTOR.set(actor);
+    return previous;
+  }
+
+  /**
+   * Restores the actor returned by enterActor()
+   */
+  static void exitActor(final ActorURL previous)
+  {
+    if (previous == null)
+      ACTOR.remove();
+    else
+      ACTOR.set(previous);
+  }
+
+  /**
+   * Sets the envelope being processed, returning the previous one so that it may be restored, as a calling-thread dispatcher
+   * may process the messages of several actors on the same stack
+   */
+  static Envelope enter(final Envelope envelope)
+  {
+    final Envelope previous = CURRENT.get();
+    CURRENT.set(envelope);
+    return previous;
+  }
+
+  /**
+   * Restores the envelope returned by enter()
+   */
+  static void exit(final Envelope previous)
+  {
+    if (previous == null)
+      CURRENT.remove();
+    else
+      CURRENT.set(previous);
+  }
+}
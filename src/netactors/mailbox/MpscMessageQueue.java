@@ -0,0 +1,125 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.mailbox;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+import lombok.val;
+
+/**
+ * Unbounded, lock-free multiple-producer single-consumer queue. Producers only contend on a single atomic swap, while the consumer
+ * never uses any atomic read-modify-write operation on the linked nodes.
+ */
+public final class MpscMessageQueue
+    implements IMessageQueue
+{
+  // last inserted node, swapped by producers
+  private final AtomicReference<Node> last;
+  // stub node preceding the first message, only accessed by the consumer
+  private Node first;
+  private final AtomicInteger count = new AtomicInteger();
+
+  /**
+   * Default constructor
+   */
+  public MpscMessageQueue()
+  {
+    val stub = new Node(null);
+    last = new AtomicReference<Node>(stub);
+    first = stub;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public boolean offer(@NotNull final Serializable message)
+  {
+    val node = new Node(message);
+    count.incrementAndGet();
+
+    // link after the previous last node; the consumer will not see the node until the link is published
+    last.getAndSet(node).next = node;
+    return true;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Serializable poll()
+  {
+    val next = first.next;
+    if (next == null)
+      return null;
+
+    // the polled node becomes the new stub
+    val message = next.message;
+    next.message = null;
+    first = next;
+    count.decrementAndGet();
+
+    return message;
+  }
+
+  /**
+   * Removes and returns the oldest message, i.e. the one at the front of the queue
+   */
+  @Override
+  public Serializable evict()
+  {
+    return poll();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean isEmpty()
+  {
+    return first.next == null;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int size()
+  {
+    return count.get();
+  }
+
+  /**
+   * Linked queue node
+   */
+  private static final class Node
+  {
+    volatile Node next;
+    Serializable message;
+
+    Node(final Serializable message)
+    {
+      this.message = message;
+    }
+  }
+}
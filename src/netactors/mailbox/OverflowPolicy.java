@@ -0,0 +1,44 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.mailbox;
+
+/**
+ * Policy applied when a message is sent to a bounded mailbox that is full
+ */
+public enum OverflowPolicy
+{
+  /**
+   * The new message is discarded
+   */
+  DROP_NEWEST,
+  /**
+   * The oldest queued message is discarded, to make room for the new one. In a priority mailbox, this is the oldest message of the
+   * least urgent priority level, so that urgent messages are discarded last.
+   */
+  DROP_OLDEST,
+  /**
+   * The sender blocks until room is made, for up to the configured timeout, after which the new message is discarded
+   */
+  BLOCK,
+  /**
+   * The new message is discarded and the sender is notified straight away: send() throws a MailboxFullException, while trySend()
+   * returns false
+   */
+  FAIL;
+}
@@ -0,0 +1,125 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.mailbox;
+
+import java.io.Serializable;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+import lombok.val;
+import netactors.nexus.Envelope;
+
+/**
+ * Lock-free multiple-producer single-consumer priority queue. Messages are placed in one bucket per priority level, each being an
+ * MpscMessageQueue, so producers only contend with others of the same priority. The consumer polls buckets from the most urgent
+ * level down, and messages of the same priority keep their insertion order.
+ */
+public final class PriorityMessageQueue
+    implements IMessageQueue
+{
+  private final IMessagePrioritizer prioritizer;
+  private final MpscMessageQueue[] buckets;
+
+  /**
+   * Constructor
+   * 
+   * @throws NullPointerException An argument is null
+   * @throws IllegalArgumentException The prioritizer does not have any levels
+   */
+  @Validate
+  public PriorityMessageQueue(@NotNull final IMessagePrioritizer prioritizer)
+  {
+    val levels = prioritizer.getLevels();
+    if (levels <= 0)
+      throw new IllegalArgumentException("levels=" + levels);
+
+    this.prioritizer = prioritizer;
+    buckets = new MpscMessageQueue[levels];
+    for (int i = 0; i < levels; i++)
+      buckets[i] = new MpscMessageQueue();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public boolean offer(@NotNull final Serializable message)
+  {
+    val level = Math.min(Math.max(prioritizer.getPriority(Envelope.unwrap(message)), 0), buckets.length - 1);
+    return buckets[level].offer(message);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Serializable poll()
+  {
+    for (val bucket : buckets)
+    {
+      val message = bucket.poll();
+      if (message != null)
+        return message;
+    }
+
+    return null;
+  }
+
+  /**
+   * Removes and returns the oldest message of the least urgent level holding any, so that urgent messages are discarded last
+   */
+  @Override
+  public Serializable evict()
+  {
+    for (int i = buckets.length - 1; i >= 0; i--)
+    {
+      val message = buckets[i].poll();
+      if (message != null)
+        return message;
+    }
+
+    return null;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean isEmpty()
+  {
+    for (val bucket : buckets)
+      if (!bucket.isEmpty())
+        return false;
+
+    return true;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int size()
+  {
+    int result = 0;
+    for (val bucket : buckets)
+      result += bucket.size();
+
+    return result;
+  }
+}
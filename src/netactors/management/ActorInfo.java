@@ -0,0 +1,104 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.management;
+
+import java.beans.ConstructorProperties;
+import lombok.Getter;
+
+/**
+ * Immutable view of an actor context, as reported over JMX
+ */
+public final class ActorInfo
+{
+  @Getter
+  private final String url;
+  @Getter
+  private final String protocol;
+  /**
+   * Client for contexts of remote actors, server for local ones
+   */
+  @Getter
+  private final String type;
+  /**
+   * The connection state of remote actors, or whether local actors are open or closed
+   */
+  @Getter
+  private final String state;
+  /**
+   * The number of messages waiting to be processed, zero for remote actors
+   */
+  @Getter
+  private final int mailboxDepth;
+  /**
+   * The number of routees of a router or pool, zero for other actors
+   */
+  @Getter
+  private final int routees;
+  /**
+   * The number of threads dedicated to the actor, or zero if it runs on the shared worker pool
+   */
+  @Getter
+  private final int workerThreads;
+  @Getter
+  private final long received;
+  @Getter
+  private final long rejected;
+  @Getter
+  private final long processed;
+  @Getter
+  private final double receivedPerSecond;
+  @Getter
+  private final double meanProcessingMicros;
+  @Getter
+  private final long p99ProcessingMicros;
+
+  /**
+   * Constructor
+   */
+  @ConstructorProperties({"url", "protocol", "type", "state", "mailboxDepth", "routees", "workerThreads", "received", "rejected",
+                          "processed", "receivedPerSecond", "meanProcessingMicros", "p99ProcessingMicros"})
+  public ActorInfo(final String url, final String protocol, final String type, final String state, final int mailboxDepth,
+                   final int routees, final int workerThreads, final long received, final long rejected, final long processed,
+                   final double receivedPerSecond, final double meanProcessingMicros, final long p99ProcessingMicros)
+  {
+    this.url = url;
+    this.protocol = protocol;
+    this.type = type;
+    this.state = state;
+    this.mailboxDepth = mailboxDepth;
+    this.routees = routees;
+    this.workerThreads = workerThreads;
+    this.received = received;
+    this.rejected = rejected;
+    this.processed = processed;
+    this.receivedPerSecond = receivedPerSecond;
+    this.meanProcessingMicros = meanProcessingMicros;
+    this.p99ProcessingMicros = p99ProcessingMicros;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + " (" + url + ", " + type + ", " + state + ", mailbox depth: " + mailboxDepth + ", received: "
+        + received + ")";
+  }
+}
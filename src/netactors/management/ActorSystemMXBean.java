@@ -0,0 +1,90 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.management;
+
+import netactors.metrics.TransportSnapshot;
+
+/**
+ * Management interface of an actor system, registered with the platform MBean server under "netactors:type=ActorSystem" and the URL
+ * of the system as its name. Lists the actor contexts and adapters of the system, and allows shutting down or reconnecting a single
+ * context without restarting the JVM.
+ */
+public interface ActorSystemMXBean
+{
+  /**
+   * Returns the URL of the actor system
+   */
+  String getUrl();
+
+  /**
+   * Returns the number of actor contexts, local and remote
+   */
+  int getActorCount();
+
+  /**
+   * Returns the state and statistics of each actor context. Message rates are measured since the previous call.
+   */
+  ActorInfo[] getActors();
+
+  /**
+   * Returns the URLs of the registered client adapters
+   */
+  String[] getClientAdapters();
+
+  /**
+   * Returns the URLs of the registered server adapters
+   */
+  String[] getServerAdapters();
+
+  /**
+   * Returns the statistics of each link to a remote node and each local endpoint
+   */
+  TransportSnapshot[] getTransports();
+
+  /**
+   * Returns the number of threads of the shared worker pool
+   */
+  int getWorkerPoolSize();
+
+  /**
+   * Returns the number of threads of the shared worker pool currently processing messages
+   */
+  int getActiveWorkers();
+
+  /**
+   * Returns the number of tasks waiting for a thread of the shared worker pool
+   */
+  int getQueuedTasks();
+
+  /**
+   * Returns the number of requests awaiting a reply
+   */
+  int getPendingReplies();
+
+  /**
+   * Drops the connection of a remote actor context and reconnects it immediately. The connection is shared by all actors of the
+   * remote node. Returns false if there is no such remote context, or it is not connected over the network.
+   */
+  boolean reconnect(String url);
+
+  /**
+   * Shuts down and removes an actor context, local or remote. Returns false if there is no such context.
+   */
+  boolean shutdownActor(String url);
+}
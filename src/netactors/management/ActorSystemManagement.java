@@ -0,0 +1,332 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.management;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import lombok.Getter;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+import lombok.val;
+import netactors.context.IActorContext;
+import netactors.context.ISystemContext;
+import netactors.exception.StackTraceLogging;
+import netactors.metrics.ActorSnapshot;
+import netactors.metrics.TransportSnapshot;
+import netactors.nexus.ActorURL;
+import netactors.nexus.common.AbstractClientTcpUdpAdapter;
+import netactors.nexus.common.AbstractServerAdapter;
+import netactors.registry.AdapterType;
+import netactors.registry.IActorRegistry;
+import netactors.registry.IAdapterRegistry;
+import netactors.routing.Router;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import propel.core.common.StackTraceLevel;
+
+/**
+ * Implementation of the management interface of an actor system. Statistics are read from the registries and the metrics of the
+ * system when requested, so an idle management client costs nothing.
+ */
+public final class ActorSystemManagement
+    implements ActorSystemMXBean
+{
+  private static final double NANOS_PER_MICRO = TimeUnit.MICROSECONDS.toNanos(1);
+  private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private final ActorURL url;
+  private final IActorRegistry actorRegistry;
+  private final IAdapterRegistry adapterRegistry;
+  private final ISystemContext systemContext;
+  @Getter
+  private final ObjectName objectName;
+  // the messages received by each actor when last listed, for measuring rates, guarded by this
+  private Map<ActorURL, Long> lastReceived = new HashMap<ActorURL, Long>();
+  private long lastListedNanos;
+
+  /**
+   * Constructor
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public ActorSystemManagement(@NotNull final ActorURL url, @NotNull final IActorRegistry actorRegistry,
+                               @NotNull final IAdapterRegistry adapterRegistry, @NotNull final ISystemContext systemContext)
+  {
+    this.url = url;
+    this.actorRegistry = actorRegistry;
+    this.adapterRegistry = adapterRegistry;
+    this.systemContext = systemContext;
+    try
+    {
+      this.objectName = new ObjectName("netactors:type=ActorSystem,name=" + ObjectName.quote(url.toString()));
+    }
+    catch(MalformedObjectNameException e)
+    {
+      // quoting accepts any name
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Registers with the platform MBean server. Returns false if the registration failed, such as when another actor system of the
+   * same URL is registered already.
+   */
+  public boolean register()
+  {
+    try
+    {
+      ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+      return true;
+    }
+    catch(JMException e)
+    {
+      logger.warn("Could not register " + objectName + ": " + StackTraceLogging.format(e, StackTraceLevel.ABBREVIATED));
+      return false;
+    }
+  }
+
+  /**
+   * Unregisters from the platform MBean server, if registered
+   */
+  public void unregister()
+  {
+    try
+    {
+      val server = ManagementFactory.getPlatformMBeanServer();
+      if (server.isRegistered(objectName))
+        server.unregisterMBean(objectName);
+    }
+    catch(JMException e)
+    {
+      logger.warn("Could not unregister " + objectName + ": " + StackTraceLogging.format(e, StackTraceLevel.ABBREVIATED));
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String getUrl()
+  {
+    return url.toString();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getActorCount()
+  {
+    return actorRegistry.getAll().size();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized ActorInfo[] getActors()
+  {
+    val metrics = systemContext.getMetricsRegistry().snapshot();
+    val now = System.nanoTime();
+    val elapsedSeconds = lastListedNanos != 0 ? (now - lastListedNanos) / NANOS_PER_SECOND : 0;
+    val received = new HashMap<ActorURL, Long>();
+
+    val result = new ArrayList<ActorInfo>();
+    for (val context : actorRegistry.getAll())
+    {
+      val actor = metrics.getActor(context.getUrl());
+      if (actor != null)
+        received.put(context.getUrl(), actor.getReceived());
+
+      val previous = lastReceived.get(context.getUrl());
+      val rate = actor != null && previous != null && elapsedSeconds > 0 ? (actor.getReceived() - previous) / elapsedSeconds : 0;
+      result.add(describe(context, actor, rate));
+    }
+
+    lastReceived = received;
+    lastListedNanos = now;
+    return result.toArray(new ActorInfo[result.size()]);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String[] getClientAdapters()
+  {
+    return toStrings(adapterRegistry.getUrls(AdapterType.CLIENT));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String[] getServerAdapters()
+  {
+    return toStrings(adapterRegistry.getUrls(AdapterType.SERVER));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public TransportSnapshot[] getTransports()
+  {
+    val transports = systemContext.getMetricsRegistry().snapshot().getTransports().values();
+    return transports.toArray(new TransportSnapshot[transports.size()]);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getWorkerPoolSize()
+  {
+    val pool = getWorkerPool();
+    return pool != null ? pool.getPoolSize() : 0;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getActiveWorkers()
+  {
+    val pool = getWorkerPool();
+    return pool != null ? pool.getActiveCount() : 0;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getQueuedTasks()
+  {
+    val pool = getWorkerPool();
+    return pool != null ? pool.getQueue().size() : 0;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getPendingReplies()
+  {
+    return systemContext.getReplyRegistry().size();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean reconnect(final String url)
+  {
+    val context = actorRegistry.get(ActorURL.parse(url));
+    if (context == null || !(context.getConnector() instanceof AbstractClientTcpUdpAdapter))
+      return false;
+
+    val link = ((AbstractClientTcpUdpAdapter) context.getConnector()).getLink();
+    if (link == null)
+      return false;
+
+    logger.info("Reconnecting " + link + " on request");
+    link.forceReconnect();
+    return true;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean shutdownActor(final String url)
+  {
+    return actorRegistry.shutdown(ActorURL.parse(url));
+  }
+
+  /**
+   * Describes an actor context, given the metrics of the actor if it records any and its rate of received messages
+   */
+  private static ActorInfo describe(final IActorContext context, final ActorSnapshot actor, final double receivedPerSecond)
+  {
+    val connector = context.getConnector();
+    String state = "open";
+    int mailboxDepth = 0;
+    int routees = 0;
+    int workerThreads = 0;
+    if (connector instanceof AbstractClientTcpUdpAdapter)
+    {
+      val link = ((AbstractClientTcpUdpAdapter) connector).getLink();
+      state = link != null ? link.getState().toString() : "closed";
+    } else if (connector instanceof AbstractServerAdapter)
+    {
+      val server = (AbstractServerAdapter) connector;
+      val mailbox = server.getMailbox();
+      state = mailbox.isShutdown() ? "closed" : "open";
+      mailboxDepth = mailbox.size();
+      routees = mailbox instanceof Router ? ((Router) mailbox).getRoutees().length : 0;
+      workerThreads = server.getActorConfig().getWorkerThreads();
+    }
+
+    val processingTime = actor != null ? actor.getProcessingTime() : null;
+    return new ActorInfo(context.getUrl().toString(), context.getUrl().getProtocol().toString(), connector.getType().toString(),
+                         state, mailboxDepth, routees, workerThreads, actor != null ? actor.getReceived() : 0,
+                         actor != null ? actor.getRejected() : 0, actor != null ? actor.getProcessed() : 0, receivedPerSecond,
+                         processingTime != null ? processingTime.getMean() / NANOS_PER_MICRO : 0,
+                         processingTime != null ? TimeUnit.NANOSECONDS.toMicros(processingTime.getValueAtPercentile(99)) : 0);
+  }
+
+  /**
+   * Returns the shared worker pool, or null if it does not report its statistics
+   */
+  private ThreadPoolExecutor getWorkerPool()
+  {
+    val pool = systemContext.getWorkerPool();
+    return pool instanceof ThreadPoolExecutor ? (ThreadPoolExecutor) pool : null;
+  }
+
+  /**
+   * Converts URLs to strings
+   */
+  private static String[] toStrings(final Collection<ActorURL> urls)
+  {
+    val result = new String[urls.size()];
+    int i = 0;
+    for (val url : urls)
+      result[i++] = url.toString();
+    return result;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + " (of " + url + ")";
+  }
+}
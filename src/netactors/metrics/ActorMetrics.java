@@ -0,0 +1,108 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+import lombok.val;
+import netactors.mailbox.IMailbox;
+import netactors.nexus.ActorURL;
+
+/**
+ * Metrics of a local actor: messages accepted into its mailbox and rejected or evicted by it, and the time taken to process each
+ * message. The routees of a router share the metrics of the router. Recorded by the mailbox, on the threads sending and processing
+ * messages.
+ */
+public final class ActorMetrics
+{
+  @Getter
+  private final ActorURL url;
+  private final StripedCounter received = new StripedCounter();
+  // only recorded when a bounded mailbox is full
+  private final AtomicLong rejected = new AtomicLong();
+  private final LatencyHistogram processingTime = new LatencyHistogram();
+  // the mailbox whose depth is reported, if any
+  private volatile IMailbox mailbox;
+
+  /**
+   * Constructor
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public ActorMetrics(@NotNull final ActorURL url)
+  {
+    this.url = url;
+  }
+
+  /**
+   * Sets the mailbox whose depth is reported, e.g. a router standing for the mailboxes of its routees
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public void watch(@NotNull final IMailbox mailbox)
+  {
+    this.mailbox = mailbox;
+  }
+
+  /**
+   * Records a message accepted into the mailbox
+   */
+  public void recordReceived()
+  {
+    received.increment();
+  }
+
+  /**
+   * Records a message rejected by a full mailbox, or evicted from it to make room for a new one
+   */
+  public void recordRejected()
+  {
+    rejected.incrementAndGet();
+  }
+
+  /**
+   * Records a processed message and the time it took
+   */
+  public void recordProcessed(final long nanos)
+  {
+    processingTime.record(nanos);
+  }
+
+  /**
+   * Returns a copy of the current values
+   */
+  public ActorSnapshot snapshot()
+  {
+    val current = mailbox;
+    return new ActorSnapshot(url, received.sum(), rejected.get(), current != null ? current.size() : 0, processingTime.snapshot());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + " (of " + url + ")";
+  }
+}
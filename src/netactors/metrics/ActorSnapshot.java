@@ -0,0 +1,82 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.metrics;
+
+import lombok.Getter;
+import netactors.nexus.ActorURL;
+
+/**
+ * Immutable copy of the metrics of a local actor
+ */
+public final class ActorSnapshot
+{
+  @Getter
+  private final ActorURL url;
+  /**
+   * The number of messages accepted into the mailbox
+   */
+  @Getter
+  private final long received;
+  /**
+   * The number of messages rejected by a full mailbox, or evicted from it to make room for new ones
+   */
+  @Getter
+  private final long rejected;
+  /**
+   * The number of messages waiting in the mailbox
+   */
+  @Getter
+  private final int mailboxDepth;
+  /**
+   * The time taken to process each message, counting the processed messages
+   */
+  @Getter
+  private final HistogramSnapshot processingTime;
+
+  /**
+   * Constructor
+   */
+  ActorSnapshot(final ActorURL url, final long received, final long rejected, final int mailboxDepth,
+                final HistogramSnapshot processingTime)
+  {
+    this.url = url;
+    this.received = received;
+    this.rejected = rejected;
+    this.mailboxDepth = mailboxDepth;
+    this.processingTime = processingTime;
+  }
+
+  /**
+   * Returns the number of messages processed
+   */
+  public long getProcessed()
+  {
+    return processingTime.getCount();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + " (" + url + ": received: " + received + ", rejected: " + rejected + ", mailbox depth: "
+        + mailboxDepth + ", processing time: " + processingTime + ")";
+  }
+}
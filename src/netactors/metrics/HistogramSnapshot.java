@@ -0,0 +1,99 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.metrics;
+
+import lombok.Getter;
+import lombok.val;
+
+/**
+ * Immutable copy of a latency histogram, in nanoseconds
+ */
+public final class HistogramSnapshot
+{
+  private final long[] counts;
+  /**
+   * The number of recorded values
+   */
+  @Getter
+  private final long count;
+  /**
+   * The sum of the recorded values
+   */
+  @Getter
+  private final long sum;
+  /**
+   * The largest recorded value
+   */
+  @Getter
+  private final long max;
+
+  /**
+   * Constructor
+   */
+  HistogramSnapshot(final long[] counts, final long count, final long sum, final long max)
+  {
+    this.counts = counts;
+    this.count = count;
+    this.sum = sum;
+    this.max = max;
+  }
+
+  /**
+   * Returns the mean of the recorded values, or zero if there are none
+   */
+  public double getMean()
+  {
+    return count == 0 ? 0 : (double) sum / count;
+  }
+
+  /**
+   * Returns the value which the given percentage of recorded values are at or below, within the resolution of the histogram, or
+   * zero if there are none
+   * 
+   * @throws IllegalArgumentException The percentile is not within [0, 100]
+   */
+  public long getValueAtPercentile(final double percentile)
+  {
+    if (percentile < 0 || percentile > 100)
+      throw new IllegalArgumentException("percentile=" + percentile);
+    if (count == 0)
+      return 0;
+
+    val rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++)
+    {
+      seen += counts[i];
+      if (seen >= rank)
+        return Math.min(max, LatencyHistogram.highestValueOf(i));
+    }
+
+    return max;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + " (count: " + count + ", mean: " + (long) getMean() + "ns, p50: " + getValueAtPercentile(50)
+        + "ns, p99: " + getValueAtPercentile(99) + "ns, max: " + max + "ns)";
+  }
+}
@@ -0,0 +1,101 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import lombok.val;
+
+/**
+ * Histogram of durations in nanoseconds, with log-linear buckets in the manner of HdrHistogram: values below 32 have a bucket each,
+ * while each power of two above is split into 16 buckets, so that any recorded value is known within about 6%. Durations from a
+ * nanosecond to about 18 minutes are covered in under 5KB, larger ones are recorded as the maximum. Recording takes no lock.
+ */
+public final class LatencyHistogram
+{
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int LINEAR_BUCKETS = SUB_BUCKETS * 2;
+  /**
+   * The largest value distinguished, larger ones are recorded as this
+   */
+  public static final long MAX_VALUE = (1L << 40) - 1;
+  static final int BUCKETS = bucketOf(MAX_VALUE) + 1;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final AtomicLong sum = new AtomicLong();
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * Records a duration, negative ones as zero
+   */
+  public void record(final long nanos)
+  {
+    val value = Math.min(MAX_VALUE, Math.max(0, nanos));
+    counts.incrementAndGet(bucketOf(value));
+    sum.addAndGet(value);
+
+    long current;
+    while (value > (current = max.get()))
+      if (max.compareAndSet(current, value))
+        break;
+  }
+
+  /**
+   * Returns a copy of the recorded values. Values recorded while copying may or may not be included.
+   */
+  public HistogramSnapshot snapshot()
+  {
+    val copy = new long[BUCKETS];
+    long count = 0;
+    for (int i = 0; i < BUCKETS; i++)
+    {
+      copy[i] = counts.get(i);
+      count += copy[i];
+    }
+
+    return new HistogramSnapshot(copy, count, sum.get(), max.get());
+  }
+
+  /**
+   * Returns the bucket of a value within range
+   */
+  static int bucketOf(final long value)
+  {
+    if (value < LINEAR_BUCKETS)
+      return (int) value;
+
+    // the top bits of the value, below its highest one, pick one of the buckets of its power of two
+    val shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    return shift * SUB_BUCKETS + (int) (value >>> shift);
+  }
+
+  /**
+   * Returns the largest value of a bucket
+   */
+  static long highestValueOf(final int bucket)
+  {
+    if (bucket < LINEAR_BUCKETS)
+      return bucket;
+
+    val shift = bucket / SUB_BUCKETS - 1;
+    val top = (bucket & (SUB_BUCKETS - 1)) | SUB_BUCKETS;
+    return ((top + 1L) << shift) - 1;
+  }
+}
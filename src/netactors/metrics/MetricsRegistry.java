@@ -0,0 +1,121 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+import lombok.val;
+import netactors.nexus.ActorURL;
+
+/**
+ * Registry of the metrics of an actor system, shared by all its actors and adapters. Metrics are recorded by those holding them,
+ * without going through the registry, which is only used to find them when taking a snapshot.
+ */
+public final class MetricsRegistry
+{
+  private final ConcurrentHashMap<ActorURL, ActorMetrics> actors = new ConcurrentHashMap<ActorURL, ActorMetrics>();
+  private final ConcurrentHashMap<String, TransportMetrics> transports = new ConcurrentHashMap<String, TransportMetrics>();
+
+  /**
+   * Returns the metrics of the actor at the given URL, creating them if they do not exist yet
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public ActorMetrics actor(@NotNull final ActorURL url)
+  {
+    val existing = actors.get(url);
+    if (existing != null)
+      return existing;
+
+    val created = new ActorMetrics(url);
+    val raced = actors.putIfAbsent(url, created);
+    return raced != null ? raced : created;
+  }
+
+  /**
+   * Removes the metrics of the actor at the given URL, if any, e.g. once it is shut down, so that an actor created later at the same
+   * URL starts afresh
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public void remove(@NotNull final ActorURL url)
+  {
+    actors.remove(url);
+  }
+
+  /**
+   * Adds the metrics of a transport, replacing any registered under the same name
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public void register(@NotNull final TransportMetrics metrics)
+  {
+    transports.put(metrics.getName(), metrics);
+  }
+
+  /**
+   * Removes the metrics of a transport, if registered
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public void unregister(@NotNull final TransportMetrics metrics)
+  {
+    transports.remove(metrics.getName(), metrics);
+  }
+
+  /**
+   * Returns a copy of the current metrics of all actors and transports
+   */
+  public MetricsSnapshot snapshot()
+  {
+    val actorSnapshots = new LinkedHashMap<ActorURL, ActorSnapshot>();
+    for (val metrics : actors.values())
+      actorSnapshots.put(metrics.getUrl(), metrics.snapshot());
+
+    val transportSnapshots = new LinkedHashMap<String, TransportSnapshot>();
+    for (val metrics : transports.values())
+      transportSnapshots.put(metrics.getName(), metrics.snapshot());
+
+    return new MetricsSnapshot(System.currentTimeMillis(), actorSnapshots, transportSnapshots);
+  }
+
+  /**
+   * Removes all metrics, e.g. upon shutdown
+   */
+  public void clear()
+  {
+    actors.clear();
+    transports.clear();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + " (" + actors.size() + " actors, " + transports.size() + " transports)";
+  }
+}
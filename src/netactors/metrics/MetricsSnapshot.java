@@ -0,0 +1,74 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import lombok.Getter;
+import netactors.nexus.ActorURL;
+
+/**
+ * Immutable copy of the metrics of an actor system, taken at a point in time. Rates are obtained by comparing two snapshots.
+ */
+public final class MetricsSnapshot
+{
+  /**
+   * The time the snapshot was taken, in milliseconds since the epoch
+   */
+  @Getter
+  private final long timestampMillis;
+  /**
+   * The metrics of local actors, by URL
+   */
+  @Getter
+  private final Map<ActorURL, ActorSnapshot> actors;
+  /**
+   * The metrics of network transports, by name
+   */
+  @Getter
+  private final Map<String, TransportSnapshot> transports;
+
+  /**
+   * Constructor
+   */
+  MetricsSnapshot(final long timestampMillis, final Map<ActorURL, ActorSnapshot> actors,
+                  final Map<String, TransportSnapshot> transports)
+  {
+    this.timestampMillis = timestampMillis;
+    this.actors = Collections.unmodifiableMap(actors);
+    this.transports = Collections.unmodifiableMap(transports);
+  }
+
+  /**
+   * Returns the metrics of the actor at the given URL, or null if there are none
+   */
+  public ActorSnapshot getActor(final ActorURL url)
+  {
+    return actors.get(url);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + " (" + actors.size() + " actors, " + transports.size() + " transports)";
+  }
+}
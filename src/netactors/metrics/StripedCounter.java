@@ -0,0 +1,92 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import lombok.val;
+
+/**
+ * Counter spreading its updates over several cells, picked by thread, so that threads recording concurrently rarely contend for the
+ * same cache line. Reading the value sums the cells, and so is slower than updating it.
+ */
+public final class StripedCounter
+{
+  // cells are spaced this many longs apart, so that each one has a cache line to itself
+  private static final int PADDING = 8;
+  private static final int MAX_STRIPES = 16;
+  private static final int STRIPES = stripes();
+
+  private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+
+  /**
+   * Adds the given amount
+   */
+  public void add(final long delta)
+  {
+    cells.getAndAdd(index(), delta);
+  }
+
+  /**
+   * Adds one
+   */
+  public void increment()
+  {
+    add(1);
+  }
+
+  /**
+   * Returns the sum of all updates. Updates made while summing may or may not be included.
+   */
+  public long sum()
+  {
+    long result = 0;
+    for (int i = 0; i < STRIPES; i++)
+      result += cells.get(i * PADDING);
+
+    return result;
+  }
+
+  /**
+   * Returns the index of the cell of the calling thread
+   */
+  private static int index()
+  {
+    // spread sequential thread IDs over the cells
+    val hash = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+    return ((int) (hash >>> 32) & (STRIPES - 1)) * PADDING;
+  }
+
+  /**
+   * Returns the number of cells: a power of two, twice the number of processors, up to a maximum
+   */
+  private static int stripes()
+  {
+    val wanted = Math.min(MAX_STRIPES, Runtime.getRuntime().availableProcessors() * 2);
+    return Integer.highestOneBit(wanted - 1) << 1;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return Long.toString(sum());
+  }
+}
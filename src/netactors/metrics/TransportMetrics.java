@@ -0,0 +1,93 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+import lombok.val;
+import netactors.buffer.EncodingStats;
+import netactors.nexus.common.LinkStats;
+
+/**
+ * Metrics of a network transport, i.e. the link to a remote node or the endpoint of a local node, shared by the client or server
+ * adapters of all actors of that node: messages and bytes written, as counted by its encoding statistics, messages and bytes read,
+ * and messages which could not be decoded. Links report their reconnections as well.
+ */
+public final class TransportMetrics
+{
+  @Getter
+  private final String name;
+  private final EncodingStats encodingStats;
+  // null for endpoints
+  private final LinkStats linkStats;
+  private final StripedCounter messagesIn = new StripedCounter();
+  private final StripedCounter bytesIn = new StripedCounter();
+  private final AtomicLong decodeFailures = new AtomicLong();
+
+  /**
+   * Constructor, the link statistics are only given for links
+   * 
+   * @throws NullPointerException An argument is null, except for the link statistics
+   */
+  @Validate
+  public TransportMetrics(@NotNull final String name, @NotNull final EncodingStats encodingStats, final LinkStats linkStats)
+  {
+    this.name = name;
+    this.encodingStats = encodingStats;
+    this.linkStats = linkStats;
+  }
+
+  /**
+   * Records a message decoded from a frame of the given size, including its length prefix
+   */
+  public void recordDecoded(final int bytes)
+  {
+    messagesIn.increment();
+    bytesIn.add(bytes);
+  }
+
+  /**
+   * Records a frame which could not be decoded
+   */
+  public void recordDecodeFailure()
+  {
+    decodeFailures.incrementAndGet();
+  }
+
+  /**
+   * Returns a copy of the current values
+   */
+  public TransportSnapshot snapshot()
+  {
+    val reconnects = linkStats != null ? linkStats.getReconnects() : 0;
+    return new TransportSnapshot(name, encodingStats.getMessages(), encodingStats.getEncodedBytes(), messagesIn.sum(), bytesIn.sum(),
+                                 decodeFailures.get(), reconnects);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + " (of " + name + ")";
+  }
+}
@@ -0,0 +1,76 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.metrics;
+
+import lombok.Getter;
+
+/**
+ * Immutable copy of the metrics of a network transport
+ */
+public final class TransportSnapshot
+{
+  @Getter
+  private final String name;
+  @Getter
+  private final long messagesOut;
+  /**
+   * The number of bytes written, including length prefixes
+   */
+  @Getter
+  private final long bytesOut;
+  @Getter
+  private final long messagesIn;
+  /**
+   * The number of bytes read, including length prefixes
+   */
+  @Getter
+  private final long bytesIn;
+  @Getter
+  private final long decodeFailures;
+  /**
+   * The number of successful reconnections, always zero for endpoints
+   */
+  @Getter
+  private final long reconnects;
+
+  /**
+   * Constructor
+   */
+  TransportSnapshot(final String name, final long messagesOut, final long bytesOut, final long messagesIn, final long bytesIn,
+                    final long decodeFailures, final long reconnects)
+  {
+    this.name = name;
+    this.messagesOut = messagesOut;
+    this.bytesOut = bytesOut;
+    this.messagesIn = messagesIn;
+    this.bytesIn = bytesIn;
+    this.decodeFailures = decodeFailures;
+    this.reconnects = reconnects;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + " (" + name + ": out: " + messagesOut + " messages, " + bytesOut + " bytes, in: "
+        + messagesIn + " messages, " + bytesIn + " bytes, decode failures: " + decodeFailures + ", reconnects: " + reconnects + ")";
+  }
+}
@@ -18,16 +18,32 @@
 // /////////////////////////////////////////////////////////
 package netactors.nexus;
 
+import java.io.Serializable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.Getter;
 import lombok.Validate;
 import lombok.Validate.NotNull;
+import lombok.val;
 
 /**
- * POJO encapsulating an actor's URL
+ * POJO encapsulating an actor's URL, i.e. protocol://host:port for the actor of a node, or protocol://host:port/name for a named
+ * actor hosted under the node's endpoint.
+ * <p>
+ * URLs obtained through of() or intern() are canonical: there is one instance per URL, so comparing them takes a reference check,
+ * and each carries a compact numeric ID. The actor system canonicalizes the URLs of its own actors and of the remote actors it
+ * resolves, while URLs decoded from the network are only replaced by their canonical instance if there is one. Canonical URLs are
+ * never released, so applications should intern the URLs they address repeatedly rather than every URL they come across.
  */
 public final class ActorURL
-    implements Comparable<ActorURL>
+    implements Comparable<ActorURL>, Serializable
 {
+  private static final long serialVersionUID = -3216418305792730582L;
+  // ID of URLs that are not canonical
+  private static final int NOT_INTERNED = -1;
+  private static final ConcurrentHashMap<String, ActorURL> CANONICAL = new ConcurrentHashMap<String, ActorURL>();
+  private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
   @Getter
   private final ProtocolType protocol;
   @Getter
@@ -35,7 +51,13 @@ public final class ActorURL
   @Getter
   private final int port;
   @Getter
+  private final String path;
+  @Getter
   private final String url;
+  private final transient int hash;
+  private final transient int id;
+  // canonical URL of the node, set on first use
+  private transient volatile ActorURL node;
 
   /**
    * Constructor
@@ -43,11 +65,196 @@ public final class ActorURL
    * @throws NullPointerException An argument is null
    */
   public ActorURL(@NotNull final ProtocolType protocol, @NotNull final String host, final int port)
+  {
+    this(protocol, host, port, "");
+  }
+
+  /**
+   * Constructor, for an actor named by the given path under a node's endpoint. The path of the node's actor is empty.
+   * 
+   * @throws NullPointerException An argument is null
+   * @throws IllegalArgumentException The path contains a slash
+   */
+  @Validate
+  public ActorURL(@NotNull final ProtocolType protocol, @NotNull final String host, final int port, @NotNull final String path)
+  {
+    this(protocol, host, port, path, format(protocol, host, port, path), NOT_INTERNED);
+  }
+
+  /**
+   * Constructor, for an already formatted URL
+   */
+  private ActorURL(final ProtocolType protocol, final String host, final int port, final String path, final String url, final int id)
   {
     this.protocol = protocol;
     this.host = host;
     this.port = port;
-    this.url = (protocol + "://" + host + ":" + port).toLowerCase();
+    this.path = path;
+    this.url = url;
+    this.hash = 31 + url.hashCode();
+    this.id = id;
+  }
+
+  /**
+   * Returns the canonical URL of the actor of a node
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  public static ActorURL of(final ProtocolType protocol, final String host, final int port)
+  {
+    return of(protocol, host, port, "");
+  }
+
+  /**
+   * Returns the canonical URL of an actor named by the given path under a node's endpoint
+   * 
+   * @throws NullPointerException An argument is null
+   * @throws IllegalArgumentException The path contains a slash
+   */
+  @Validate
+  public static ActorURL of(@NotNull final ProtocolType protocol, @NotNull final String host, final int port,
+                            @NotNull final String path)
+  {
+    val url = format(protocol, host, port, path);
+    val existing = CANONICAL.get(url);
+    return existing != null ? existing : register(protocol, host, port, path, url);
+  }
+
+  /**
+   * Returns the canonical instance of the given URL if it has been interned, otherwise a new instance. Unlike of(), this never adds
+   * to the canonical URLs, so it suits URLs received from remote nodes.
+   * 
+   * @throws NullPointerException An argument is null
+   * @throws IllegalArgumentException The path contains a slash
+   */
+  @Validate
+  public static ActorURL valueOf(@NotNull final ProtocolType protocol, @NotNull final String host, final int port,
+                                 @NotNull final String path)
+  {
+    val url = format(protocol, host, port, path);
+    val existing = CANONICAL.get(url);
+    return existing != null ? existing : new ActorURL(protocol, host, port, path, url, NOT_INTERNED);
+  }
+
+  /**
+   * Returns the canonical instance of this URL, which is this instance if already canonical
+   */
+  public ActorURL intern()
+  {
+    if (id != NOT_INTERNED)
+      return this;
+
+    val existing = CANONICAL.get(url);
+    return existing != null ? existing : register(protocol, host, port, path, url);
+  }
+
+  /**
+   * Returns the compact numeric ID of the canonical instance of this URL, unique among the URLs interned by this JVM. IDs are
+   * assigned in interning order, starting from zero.
+   */
+  public int getId()
+  {
+    return id != NOT_INTERNED ? id : intern().id;
+  }
+
+  /**
+   * Returns true if this instance is canonical
+   */
+  public boolean isInterned()
+  {
+    return id != NOT_INTERNED;
+  }
+
+  /**
+   * Registers a canonical instance of the given URL, unless another thread has just done so
+   */
+  private static ActorURL register(final ProtocolType protocol, final String host, final int port, final String path,
+                                   final String url)
+  {
+    // an ID may be skipped if another thread wins the race, which keeps IDs unique
+    val candidate = new ActorURL(protocol, host, port, path, url, NEXT_ID.getAndIncrement());
+    val prev = CANONICAL.putIfAbsent(url, candidate);
+    return prev != null ? prev : candidate;
+  }
+
+  /**
+   * Formats and validates a URL
+   * 
+   * @throws IllegalArgumentException The path contains a slash
+   */
+  private static String format(final ProtocolType protocol, final String host, final int port, final String path)
+  {
+    if (path.indexOf('/') >= 0)
+      throw new IllegalArgumentException("path=" + path);
+
+    val node = (protocol + "://" + host + ":" + port).toLowerCase();
+    return path.isEmpty() ? node : node + "/" + path;
+  }
+
+  /**
+   * Parses a URL of the form protocol://host:port or protocol://host:port/path
+   * 
+   * @throws NullPointerException An argument is null
+   * @throws IllegalArgumentException The URL is malformed
+   */
+  @Validate
+  public static ActorURL parse(@NotNull final String url)
+  {
+    val protocolEnd = url.indexOf("://");
+    if (protocolEnd <= 0)
+      throw new IllegalArgumentException("No protocol: " + url);
+
+    val hostStart = protocolEnd + 3;
+    val pathStart = url.indexOf('/', hostStart);
+    val authority = pathStart < 0 ? url.substring(hostStart) : url.substring(hostStart, pathStart);
+    val portStart = authority.lastIndexOf(':');
+    if (portStart <= 0)
+      throw new IllegalArgumentException("No host and port: " + url);
+
+    try
+    {
+      val protocol = ProtocolType.valueOf(url.substring(0, protocolEnd).toUpperCase());
+      val port = Integer.parseInt(authority.substring(portStart + 1));
+      return of(protocol, authority.substring(0, portStart), port, pathStart < 0 ? "" : url.substring(pathStart + 1));
+    }
+    catch(IllegalArgumentException e)
+    {
+      throw new IllegalArgumentException("Malformed URL: " + url, e);
+    }
+  }
+
+  /**
+   * Returns true if this is the URL of a node's actor, rather than of a named actor
+   */
+  public boolean isNode()
+  {
+    return path.isEmpty();
+  }
+
+  /**
+   * Returns the canonical URL of the node hosting this actor, i.e. this URL without its path
+   */
+  public ActorURL getNode()
+  {
+    if (isNode())
+      return intern();
+
+    ActorURL result = node;
+    if (result == null)
+    {
+      result = of(protocol, host, port);
+      node = result;
+    }
+
+    return result;
+  }
+
+  /**
+   * Replaces deserialized URLs with their canonical instance, if interned, and restores the transient fields otherwise
+   */
+  private Object readResolve()
+  {
+    return valueOf(protocol, host, port, path);
   }
 
   /**
@@ -56,10 +263,7 @@ public final class ActorURL
   @Override
   public int hashCode()
   {
-    final int prime = 31;
-    int result = 1;
-    result = prime * result + ((url == null) ? 0 : url.hashCode());
-    return result;
+    return hash;
   }
 
   /**
@@ -70,18 +274,15 @@ public final class ActorURL
   {
     if (this == obj)
       return true;
-    if (obj == null)
-      return false;
-    if (getClass() != obj.getClass())
+    if (!(obj instanceof ActorURL))
       return false;
-    ActorURL other = (ActorURL) obj;
-    if (url == null)
-    {
-      if (other.url != null)
-        return false;
-    } else if (!url.equals(other.url))
+
+    // distinct canonical instances are different URLs
+    val other = (ActorURL) obj;
+    if (id != NOT_INTERNED && other.id != NOT_INTERNED)
       return false;
-    return true;
+
+    return hash == other.hash && url.equals(other.url);
   }
 
   /**
@@ -21,9 +21,10 @@ package netactors.nexus;
 import lombok.Getter;
 import lombok.Validate;
 import lombok.Validate.NotNull;
-import netactors.actor.IActor;
 import netactors.config.IActorConfiguration;
+import netactors.context.ISystemContext;
 import netactors.exception.UnsupportedProtocolException;
+import netactors.mailbox.IMailbox;
 import netactors.nexus.mem.InMemoryClientAdapter;
 import netactors.nexus.mem.InMemoryServerAdapter;
 import netactors.nexus.tcp.TcpClientAdapter;
@@ -66,16 +67,16 @@ public final class AdapterFactory
    */
   @Override
   @Validate
-  public IActorAdapter createClient(@NotNull final IActorConfiguration actorConfig)
+  public IActorAdapter createClient(@NotNull final IActorConfiguration actorConfig, @NotNull final ISystemContext systemContext)
   {
     switch(actorConfig.getUrl().getProtocol())
     {
       case MEM:
-        return new InMemoryClientAdapter(adapterRegistry, actorConfig);
+        return new InMemoryClientAdapter(adapterRegistry, actorConfig, systemContext);
       case TCP:
-        return new TcpClientAdapter(adapterRegistry, actorConfig);
+        return new TcpClientAdapter(adapterRegistry, actorConfig, systemContext);
       case UDP:
-        return new UdpClientAdapter(adapterRegistry, actorConfig);
+        return new UdpClientAdapter(adapterRegistry, actorConfig, systemContext);
       default:
         throw new UnsupportedProtocolException("Unsupported protocol: " + actorConfig.getUrl().getProtocol());
     }
@@ -86,16 +87,17 @@ public final class AdapterFactory
    */
   @Override
   @Validate
-  public IActorAdapter createServer(@NotNull final IActorConfiguration actorConfig, @NotNull final IActor actor)
+  public IActorAdapter createServer(@NotNull final IActorConfiguration actorConfig, @NotNull final ISystemContext systemContext,
+                                    @NotNull final IMailbox mailbox)
   {
     switch(actorConfig.getUrl().getProtocol())
     {
       case MEM:
-        return new InMemoryServerAdapter(adapterRegistry, actorConfig, actor);
+        return new InMemoryServerAdapter(adapterRegistry, actorConfig, systemContext, mailbox);
       case TCP:
-        return new TcpServerAdapter(adapterRegistry, actorConfig, actor);
+        return new TcpServerAdapter(adapterRegistry, actorConfig, systemContext, mailbox);
       case UDP:
-        return new UdpServerAdapter(adapterRegistry, actorConfig, actor);
+        return new UdpServerAdapter(adapterRegistry, actorConfig, systemContext, mailbox);
       default:
         throw new UnsupportedProtocolException("Unsupported protocol: " + actorConfig.getUrl().getProtocol());
     }
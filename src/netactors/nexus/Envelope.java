@@ -0,0 +1,140 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.nexus;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+
+/**
+ * Wraps a message with its metadata: the URL of the sending actor if known, or of the actor system if told from outside any actor,
+ * optional headers and, for request/response interactions, the correlation ID which pairs a reply with its request. Envelopes sent back over the connection a message arrived
+ * on also name their recipient. The return path of a message is attached by the receiving end and is never transmitted.
+ */
+public final class Envelope
+    implements Serializable
+{
+  private static final long serialVersionUID = 4630715934227361957L;
+
+  @Getter
+  private final long correlationId;
+  @Getter
+  private final boolean reply;
+  @Getter
+  private final ActorURL sender;
+  @Getter
+  private final ActorURL recipient;
+  @Getter
+  private final Map<String, String> headers;
+  @Getter
+  private final Serializable message;
+  @Getter
+  private transient IReturnPath returnPath;
+
+  /**
+   * Constructor. The sender, recipient and headers are optional.
+   * 
+   * @throws NullPointerException The message is null
+   */
+  @Validate
+  public Envelope(final long correlationId, final boolean reply, final ActorURL sender, final ActorURL recipient,
+                  final Map<String, String> headers, @NotNull final Serializable message)
+  {
+    this.correlationId = correlationId;
+    this.reply = reply;
+    this.sender = sender;
+    this.recipient = recipient;
+    this.headers = headers != null ? headers : Collections.<String, String>emptyMap();
+    this.message = message;
+  }
+
+  /**
+   * Creates the envelope of a one-way message
+   * 
+   * @throws NullPointerException The message is null
+   */
+  public static Envelope message(final ActorURL sender, final Map<String, String> headers, final Serializable message)
+  {
+    return new Envelope(0, false, sender, null, headers, message);
+  }
+
+  /**
+   * Creates a request envelope
+   * 
+   * @throws NullPointerException The message is null
+   */
+  public static Envelope request(final long correlationId, final ActorURL sender, final Serializable message)
+  {
+    return new Envelope(correlationId, false, sender, null, null, message);
+  }
+
+  /**
+   * Creates the envelope of a reply to the request with the given correlation ID
+   * 
+   * @throws NullPointerException The message is null
+   */
+  public static Envelope reply(final long correlationId, final Serializable message)
+  {
+    return new Envelope(correlationId, true, null, null, null, message);
+  }
+
+  /**
+   * Attaches the path back to the sender, on the receiving end
+   */
+  public void setReturnPath(final IReturnPath returnPath)
+  {
+    this.returnPath = returnPath;
+  }
+
+  /**
+   * Returns true if this is a request which can be replied to
+   */
+  public boolean isReplyable()
+  {
+    return !reply && correlationId != 0 && returnPath != null;
+  }
+
+  /**
+   * Returns the value of a header, or null if not present
+   */
+  public String getHeader(final String name)
+  {
+    return headers.get(name);
+  }
+
+  /**
+   * Returns the message wrapped by an envelope, or the message itself if it is not an envelope
+   */
+  public static Serializable unwrap(final Serializable message)
+  {
+    return message instanceof Envelope ? ((Envelope) message).message : message;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + " (" + (reply ? "reply to " + correlationId : "from " + sender) + ": " + message + ")";
+  }
+}
@@ -18,9 +18,11 @@
 // /////////////////////////////////////////////////////////
 package netactors.nexus;
 
+import java.io.Serializable;
 import netactors.actor.IActor;
 import netactors.exception.AdapterStartException;
 import netactors.registry.AdapterType;
+import netactors.threading.SettableFuture;
 
 /**
  * Interface of an actor adapter
@@ -34,11 +36,20 @@ public interface IActorAdapter
   AdapterType getType();
 
   /**
-   * Starts the adapter
+   * Passes a message on without failing: server adapters queue it in the actor's mailbox, while client adapters send it to the
+   * remote actor. Returns false if the message was not accepted, because the mailbox is full or the connection cannot take more data.
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  boolean offer(Serializable message);
+
+  /**
+   * Starts the adapter, returning a future completed once it is ready. Client adapters of network transports connect in the
+   * background, queuing messages sent in the meantime, and fail the future if the remote node cannot be reached.
    * 
    * @throws AdapterStartException The adapter failed to start
    */
-  void start()
+  SettableFuture<Void> start()
       throws AdapterStartException;
 
   /**
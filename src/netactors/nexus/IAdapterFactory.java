@@ -18,9 +18,10 @@
 // /////////////////////////////////////////////////////////
 package netactors.nexus;
 
-import netactors.actor.IActor;
 import netactors.config.IActorConfiguration;
+import netactors.context.ISystemContext;
 import netactors.exception.UnsupportedProtocolException;
+import netactors.mailbox.IMailbox;
 import netactors.registry.IAdapterRegistry;
 
 /**
@@ -34,15 +35,15 @@ public interface IAdapterFactory
    * @throws NullPointerException An argument is null
    * @throws UnsupportedProtocolException The specified protocol is unsupported
    */
-  IActorAdapter createClient(IActorConfiguration actorConfig);
+  IActorAdapter createClient(IActorConfiguration actorConfig, ISystemContext systemContext);
 
   /**
-   * Creates a server adapter based on the protocol required
+   * Creates a server adapter based on the protocol required, delivering received messages to the given mailbox
    * 
    * @throws NullPointerException An argument is null
    * @throws UnsupportedProtocolException The specified protocol is unsupported
    */
-  IActorAdapter createServer(IActorConfiguration actorConfig, IActor actor);
+  IActorAdapter createServer(IActorConfiguration actorConfig, ISystemContext systemContext, IMailbox mailbox);
 
   /**
    * Returns the adapter registry, holding created clients/servers
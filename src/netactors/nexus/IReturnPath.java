@@ -0,0 +1,34 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.nexus;
+
+/**
+ * Interface of the path back to the sender of a message, e.g. the connection the message arrived on. Replies and other messages
+ * sent back along it need no connection of their own.
+ */
+public interface IReturnPath
+{
+  /**
+   * Sends an envelope back to the sender. Returns false if the envelope cannot be carried by this path, e.g. because the connection
+   * has closed, in which case the caller should address the sender directly. Envelopes lost in transit are not reported.
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  boolean send(Envelope envelope);
+}
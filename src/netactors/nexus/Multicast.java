@@ -0,0 +1,62 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.nexus;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import lombok.Getter;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+
+/**
+ * Carries one envelope to several actors, so that it is encoded once and the same bytes are sent to every node hosting any of them.
+ * Each node passes the envelope to the recipients it hosts and ignores the others.
+ */
+public final class Multicast
+    implements Serializable
+{
+  private static final long serialVersionUID = -2871958341180266012L;
+
+  // not copied, multicast messages are immutable once created
+  @Getter
+  private final ActorURL[] recipients;
+  @Getter
+  private final Envelope envelope;
+
+  /**
+   * Constructor
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public Multicast(@NotNull final ActorURL[] recipients, @NotNull final Envelope envelope)
+  {
+    this.recipients = recipients;
+    this.envelope = envelope;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + " (to " + Arrays.toString(recipients) + ": " + envelope + ")";
+  }
+}
@@ -19,11 +19,10 @@
 package netactors.nexus.common;
 
 import java.io.Serializable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import lombok.Validate;
 import lombok.Validate.NotNull;
 import netactors.config.IActorConfiguration;
+import netactors.context.ISystemContext;
 import netactors.nexus.ActorURL;
 import netactors.nexus.IActorAdapter;
 import netactors.registry.AdapterType;
@@ -40,7 +39,7 @@ public abstract class AbstractClientAdapter
   protected final Logger logger = LoggerFactory.getLogger(getClass());
   protected final IAdapterRegistry adapterRegistry;
   protected final IActorConfiguration actorConfig;
-  protected final ExecutorService workerPool;
+  protected final ISystemContext systemContext;
 
   /**
    * Constructor
@@ -48,11 +47,12 @@ public abstract class AbstractClientAdapter
    * @throws NullPointerException An argument is null
    */
   @Validate
-  protected AbstractClientAdapter(@NotNull final IAdapterRegistry adapterRegistry, @NotNull final IActorConfiguration actorConfig)
+  protected AbstractClientAdapter(@NotNull final IAdapterRegistry adapterRegistry, @NotNull final IActorConfiguration actorConfig,
+                                  @NotNull final ISystemContext systemContext)
   {
     this.adapterRegistry = adapterRegistry;
     this.actorConfig = actorConfig;
-    this.workerPool = Executors.newCachedThreadPool(adapterRegistry.getThreadFactory());
+    this.systemContext = systemContext;
   }
 
   /**
@@ -83,6 +83,16 @@ public abstract class AbstractClientAdapter
     throw new IllegalStateException(this + " should never receive data: " + message);
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public boolean trySend(@NotNull final Serializable message)
+  {
+    return offer(message);
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -100,6 +110,5 @@ public abstract class AbstractClientAdapter
   public void shutdown()
   {
     adapterRegistry.removeClient(getUrl());
-    workerPool.shutdownNow();
   }
 }
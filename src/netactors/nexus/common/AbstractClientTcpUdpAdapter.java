@@ -19,163 +19,153 @@
 package netactors.nexus.common;
 
 import java.io.Serializable;
-import java.util.concurrent.RejectedExecutionException;
-import lombok.NoArgsConstructor;
 import lombok.Validate;
 import lombok.Validate.NotNull;
+import lombok.val;
+import netactors.buffer.EncodingStats;
 import netactors.config.IActorConfiguration;
-import netactors.exception.StackTraceLogging;
+import netactors.context.ISharedResourceFactory;
+import netactors.context.ISystemContext;
+import netactors.exception.AdapterStartException;
+import netactors.mailbox.MessageContext;
+import netactors.metrics.TransportMetrics;
+import netactors.nexus.Envelope;
 import netactors.registry.IAdapterRegistry;
-import org.jboss.netty.channel.Channel;
-import org.jboss.netty.channel.ChannelHandlerContext;
-import org.jboss.netty.channel.ExceptionEvent;
-import org.jboss.netty.channel.MessageEvent;
-import org.jboss.netty.channel.SimpleChannelHandler;
-import propel.core.common.StackTraceLevel;
+import netactors.threading.SettableFuture;
 
 /**
- * Abstract implementation containing structures and functionality common between TCP and UDP client adapters
+ * Abstract implementation containing structures and functionality common between TCP and UDP client adapters. Adapters of actors
+ * hosted by the same remote node share a single link to it, so messages are sent addressed to their recipient.
  */
 public abstract class AbstractClientTcpUdpAdapter
     extends AbstractClientAdapter
 {
-  protected static final int INITIAL_BUFFER_SIZE = 512;
-  protected volatile Channel channel;
+  private final String linkKey;
+  protected volatile AbstractNodeLink link;
 
   /**
    * Constructor
    * 
    * @throws NullPointerException An argument is null
    */
-  protected AbstractClientTcpUdpAdapter(final IAdapterRegistry adapterRegistry, final IActorConfiguration actorConfig)
+  protected AbstractClientTcpUdpAdapter(final IAdapterRegistry adapterRegistry, final IActorConfiguration actorConfig,
+                                        final ISystemContext systemContext)
   {
-    super(adapterRegistry, actorConfig);
+    super(adapterRegistry, actorConfig, systemContext);
+    this.linkKey = "link to " + actorConfig.getUrl().getNode();
   }
 
+  /**
+   * Creates the link to the remote node, when first needed by an adapter of the actor system
+   */
+  protected abstract AbstractNodeLink createLink(IActorConfiguration nodeConfig);
+
   /**
    * {@inheritDoc}
    */
   @Override
-  @Validate
-  public void send(@NotNull final Serializable message)
+  public synchronized SettableFuture<Void> start()
+      throws AdapterStartException
   {
-    try
-    {
-      channel.write(message);
-    }
-    catch(Exception e)
-    {
-      attemptReconnect(e);
-    }
+    // the link connects in the background, buffering messages until then
+    link = systemContext.acquire(linkKey, new ISharedResourceFactory<AbstractNodeLink>() {
+      public AbstractNodeLink create()
+      {
+        return createLink(actorConfig.cloneFor(getUrl().getNode()));
+      }
+    });
+    return link.getOpenFuture();
   }
 
   /**
-   * Attempts to re-open the communication channel with the server
+   * Returns the link to the remote node, shared with all other adapters addressing actors of that node, or null if not started
    */
-  private synchronized void attemptReconnect(final Throwable e)
+  public AbstractNodeLink getLink()
   {
-    try
-    {
-      // attempt to reconnect if channel not connected
-      workerPool.submit(new Runnable() {
-        public void run()
-        {
-          if (actorConfig.isLoggingEnabled())
-            logger.info(this + " failed to write message to channel: " + StackTraceLogging.format(e, StackTraceLevel.ABBREVIATED));
-
-          // shutdown channel
-          try
-          {
-            partialShutdown();
-          }
-          catch(Exception sde)
-          {
-            if (actorConfig.isLoggingEnabled())
-              logger.error(this + " has encountered an error while shutting down", sde);
-          }
+    return link;
+  }
 
-          // start channel
-          try
-          {
-            start();
-          }
-          catch(Exception ste)
-          {
-            // problem starting (server could be down)
-            if (actorConfig.isLoggingEnabled())
-              logger.info(this + " could not restart: " + StackTraceLogging.format(ste, StackTraceLevel.ABBREVIATED));
+  /**
+   * Returns the encoding statistics of the link to the remote node, shared with all other adapters using it, or null if not started
+   */
+  public EncodingStats getEncodingStats()
+  {
+    val current = link;
+    return current != null ? current.getEncodingStats() : null;
+  }
 
-            // clean up
-            try
-            {
-              partialShutdown();
-            }
-            catch(Exception e)
-            {
-              // this is OK at this stage
-            }
-          }
+  /**
+   * Returns the metrics of the link to the remote node, shared with all other adapters using it, or null if not started
+   */
+  public TransportMetrics getTransportMetrics()
+  {
+    val current = link;
+    return current != null ? current.getTransportMetrics() : null;
+  }
 
-        }
-      });
-    }
-    catch(RejectedExecutionException re)
-    {
-      if (actorConfig.isLoggingEnabled())
-        logger.debug("Execution rejected, most likely due to shutdown: " + StackTraceLogging.format(e, StackTraceLevel.ABBREVIATED));
-    }
+  /**
+   * Returns the statistics of the link to the remote node, shared with all other adapters using it, or null if not started
+   */
+  public LinkStats getLinkStats()
+  {
+    val current = link;
+    return current != null ? current.getLinkStats() : null;
   }
 
   /**
-   * Shuts everything exception threadpools down
+   * {@inheritDoc}
    */
-  private void partialShutdown()
+  @Override
+  @Validate
+  public void send(@NotNull final Serializable message)
   {
-    adapterRegistry.removeClient(getUrl());
-    if (channel != null)
-    {
-      channel.close().awaitUninterruptibly();
-      channel = null;
-    }
+    // null once shut down
+    val current = link;
+    if (current != null)
+      current.send(address(message));
   }
 
   /**
    * {@inheritDoc}
    */
   @Override
-  public void shutdown()
+  @Validate
+  public boolean offer(@NotNull final Serializable message)
   {
-    super.shutdown();
-    partialShutdown();
+    val current = link;
+    return current != null && current.offer(address(message));
   }
 
   /**
-   * Client-side message handler, does not expect any messages and attempts to reconnect upon failure
+   * Wraps a message in an envelope addressed to the remote actor, from the actor sending it if any, unless the actor system has
+   * already done so
    */
-  @NoArgsConstructor
-  protected class MessageHandler
-      extends SimpleChannelHandler
+  private Envelope address(final Serializable message)
   {
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public void messageReceived(final ChannelHandlerContext ctx, final MessageEvent e)
-        throws Exception
+    if (message instanceof Envelope)
     {
-      // forward to any further handlers
-      super.messageReceived(ctx, e);
+      final Envelope envelope = (Envelope) message;
+      if (envelope.getRecipient() != null)
+        return envelope;
+
+      return new Envelope(envelope.getCorrelationId(), envelope.isReply(), envelope.getSender(), getUrl(), envelope.getHeaders(),
+                          envelope.getMessage());
     }
 
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public void exceptionCaught(final ChannelHandlerContext ctx, final ExceptionEvent e)
-        throws Exception
+    return new Envelope(0, false, MessageContext.senderOr(null), getUrl(), null, message);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized void shutdown()
+  {
+    super.shutdown();
+    if (link != null)
     {
-      attemptReconnect(e.getCause());
+      systemContext.release(linkKey);
+      link = null;
     }
   }
-
 }
@@ -0,0 +1,722 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.nexus.common;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+import lombok.val;
+import netactors.buffer.BufferPool;
+import netactors.buffer.EncodingStats;
+import netactors.config.IActorConfiguration;
+import netactors.context.ISharedResource;
+import netactors.context.ISystemContext;
+import netactors.exception.AdapterStartException;
+import netactors.exception.StackTraceLogging;
+import netactors.metrics.TransportMetrics;
+import netactors.nexus.ActorURL;
+import netactors.nexus.Envelope;
+import netactors.registry.IAdapterRegistry;
+import netactors.threading.SettableFuture;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelFutureListener;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelPipeline;
+import org.jboss.netty.channel.ChannelStateEvent;
+import org.jboss.netty.channel.Channels;
+import org.jboss.netty.channel.ExceptionEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import propel.core.common.StackTraceLevel;
+
+/**
+ * Abstract implementation of the link to a remote node, multiplexing the messages of all client adapters addressing actors of that
+ * node over one channel. Each message names its recipient, and messages sent back over the channel are dispatched to local actors.
+ * If write batching is configured, messages are coalesced by a WriteBatcher before being written to the channel, and buffered
+ * frame by frame if the link is down by the time their batch is written.
+ * <p>
+ * The link connects in the background: messages sent before the first connection are buffered, and the link closes itself if that
+ * connection fails. Once the channel is lost, the link reconnects in the background, backing off exponentially with jitter
+ * between attempts. Senders never wait for it: messages sent in the meantime are kept in a bounded buffer, dropping the oldest
+ * once full, and replayed in order once reconnected. Messages already written to the lost channel are not replayed.
+ * <p>
+ * A message may also be encoded once into a frame, which is then sent as is over any number of links of the actor system, as they
+ * all share the same codec.
+ */
+public abstract class AbstractNodeLink
+    implements ISharedResource
+{
+  protected static final int INITIAL_BUFFER_SIZE = 512;
+  // keeps the backoff from overflowing, the delay is capped well before
+  private static final int MAX_BACKOFF_SHIFT = 20;
+  protected final Logger logger = LoggerFactory.getLogger(getClass());
+  protected final IAdapterRegistry adapterRegistry;
+  protected final IActorConfiguration nodeConfig;
+  protected final ISystemContext systemContext;
+  // taken upfront, as failures are reported on I/O threads which must not contend for the system context
+  private final ExecutorService workerPool;
+  private final ScheduledExecutorService scheduler;
+  private final BufferPool bufferPool;
+  private final boolean gathering;
+  @Getter
+  private final EncodingStats encodingStats = new EncodingStats();
+  @Getter
+  private final LinkStats linkStats = new LinkStats();
+  @Getter
+  private final TransportMetrics transportMetrics;
+  // null if messages are written one by one
+  private final WriteBatcher batcher;
+  // encodes the frames sent over several links
+  private final CodecEncoder frameEncoder;
+  // envelopes and encoded frames sent while the link is down, oldest first; also guards the connection state below
+  private final Deque<Object> outbound = new ArrayDeque<Object>();
+  // the connected channel, or null while the link is down
+  private volatile Channel channel;
+  private boolean closed;
+  private boolean connecting;
+  private int attempts;
+  private ScheduledFuture<?> reconnectTask;
+  // whether the channel has ever been connected, and the future completed when it first is
+  private boolean opened;
+  @Getter
+  private final SettableFuture<Void> openFuture = new SettableFuture<Void>();
+
+  /**
+   * Constructor, coalescing messages into batches of up to the given number of bytes, or writing them one by one if zero. Messages
+   * are written with gathering writes if requested, which only stream channels support.
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  protected AbstractNodeLink(@NotNull final IAdapterRegistry adapterRegistry, @NotNull final IActorConfiguration nodeConfig,
+                             @NotNull final ISystemContext systemContext, final int maxBatchBytes, final boolean gathering)
+  {
+    this.adapterRegistry = adapterRegistry;
+    this.nodeConfig = nodeConfig;
+    this.systemContext = systemContext;
+    this.workerPool = systemContext.getWorkerPool();
+    this.scheduler = systemContext.getScheduler();
+    this.bufferPool = systemContext.getBufferPool();
+    this.gathering = gathering;
+    this.frameEncoder = createEncoder();
+    this.transportMetrics = new TransportMetrics(toString(), encodingStats, linkStats);
+
+    if (maxBatchBytes > 0)
+      this.batcher = new WriteBatcher(this, nodeConfig, createEncoder(), maxBatchBytes, scheduler);
+    else
+      this.batcher = null;
+  }
+
+  /**
+   * Starts connecting a channel to the given address, without waiting for the connection to be established
+   * 
+   * @throws Exception The connection attempt could not be started
+   */
+  protected abstract ChannelFuture connect(SocketAddress address)
+      throws Exception;
+
+  /**
+   * Getter for the URL of the remote node
+   */
+  public ActorURL getUrl()
+  {
+    return nodeConfig.getUrl();
+  }
+
+  /**
+   * Starts connecting to the remote node, without waiting for the connection. The open future completes once connected, or fails if
+   * the remote node cannot be reached within the configured timeout. Later reconnections happen in the background.
+   */
+  @Override
+  public void open()
+  {
+    synchronized(outbound)
+    {
+      if (closed || connecting || opened)
+        return;
+
+      connecting = true;
+    }
+
+    systemContext.getMetricsRegistry().register(transportMetrics);
+    startConnect();
+  }
+
+  /**
+   * Closes the channel and stops reconnecting, discarding any buffered messages
+   */
+  @Override
+  public void close()
+  {
+    synchronized(outbound)
+    {
+      closed = true;
+      if (reconnectTask != null)
+      {
+        reconnectTask.cancel(false);
+        reconnectTask = null;
+      }
+
+      linkStats.recordDropped(outbound.size(), outbound.size());
+      outbound.clear();
+    }
+
+    openFuture.fail(new AdapterStartException(this + " was closed"));
+    systemContext.getMetricsRegistry().unregister(transportMetrics);
+    if (batcher != null)
+      batcher.flush();
+
+    Channel current;
+    synchronized(outbound)
+    {
+      current = channel;
+      channel = null;
+    }
+
+    // waited for outside the lock, as the I/O thread reports the closure
+    if (current != null)
+      current.close().awaitUninterruptibly();
+  }
+
+  /**
+   * Returns the current connection state of the link
+   */
+  public LinkState getState()
+  {
+    synchronized(outbound)
+    {
+      if (closed)
+        return LinkState.CLOSED;
+      if (channel != null)
+        return LinkState.CONNECTED;
+      return opened ? LinkState.RECONNECTING : LinkState.CONNECTING;
+    }
+  }
+
+  /**
+   * Drops the current channel and reconnects, without backing off. Has no effect until the link has first connected, or once closed.
+   * Messages written to the dropped channel are not replayed, like when the channel is lost.
+   */
+  public void forceReconnect()
+  {
+    Channel current;
+    synchronized(outbound)
+    {
+      if (closed || !opened)
+        return;
+
+      current = channel;
+      channel = null;
+      attempts = 0;
+      if (reconnectTask != null)
+      {
+        reconnectTask.cancel(false);
+        reconnectTask = null;
+      }
+    }
+
+    if (nodeConfig.isLoggingEnabled())
+      logger.info(this + " forced to reconnect");
+
+    // the closure is reported on an I/O thread, after the link has stopped using the channel
+    if (current != null)
+      current.close();
+    reconnect();
+  }
+
+  /**
+   * Sends a message over the channel, or adds it to the current batch. While the link is down the message is buffered instead.
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public void send(@NotNull final Envelope envelope)
+  {
+    // batched messages always go through the batcher, which keeps them in order with its pending batch while the link is down
+    if (batcher != null)
+      batcher.send(envelope);
+    else if (!bufferWhileDown(envelope))
+      write(envelope);
+  }
+
+  /**
+   * Encodes a message into a length-prefixed frame, which can be sent with sendFrame() over this or any other link of the actor
+   * system. The frame is accounted for in the encoding statistics of this link only.
+   * 
+   * @throws NullPointerException An argument is null
+   * @throws IOException The message could not be encoded
+   */
+  @Validate
+  public ChannelBuffer encode(@NotNull final Serializable message)
+      throws IOException
+  {
+    val frame = ChannelBuffers.dynamicBuffer(INITIAL_BUFFER_SIZE);
+    frameEncoder.encode(message, frame);
+    encodingStats.recordMessage(frame.readableBytes());
+    return frame;
+  }
+
+  /**
+   * Sends a frame returned by encode() like send() does a message, without consuming the frame, so that the same frame can be sent
+   * over several links
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public void sendFrame(@NotNull final ChannelBuffer frame)
+  {
+    // a view of its own for each write, as Netty consumes the buffers it writes
+    val view = frame.duplicate();
+    if (batcher != null)
+      batcher.sendFrame(view);
+    else if (!bufferWhileDown(view))
+      write(view);
+  }
+
+  /**
+   * Sends a message over the channel, unless it cannot take more data, or buffers it while the link is down, unless the buffer is
+   * full. Returns false if the message was not accepted.
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public boolean offer(@NotNull final Envelope envelope)
+  {
+    val current = channel;
+    if (current == null)
+    {
+      synchronized(outbound)
+      {
+        // while the buffer has room, batched messages are left to the batcher to buffer, like send() does
+        if (channel == null && (batcher == null || !hasRoom()))
+          return buffer(envelope, true);
+      }
+    }
+
+    // the channel is not writable while Netty's outbound buffer is above its high water mark
+    if (current != null && !current.isWritable())
+      return false;
+
+    send(envelope);
+    return true;
+  }
+
+  /**
+   * Writes a message, or a batch of encoded messages, to the channel. If the link has gone down since the message was sent, it is
+   * buffered instead, and a batch frame by frame, as if sent while down. Returns the future of the write, or null if buffered.
+   */
+  ChannelFuture write(final Object message)
+  {
+    val current = channel;
+    if (current != null)
+      return current.write(message);
+
+    synchronized(outbound)
+    {
+      // reconnected in the meantime
+      if (channel != null)
+        return channel.write(message);
+
+      if (message instanceof ChannelBuffer)
+        bufferFrames((ChannelBuffer) message);
+      else
+        buffer(message, false);
+      return null;
+    }
+  }
+
+  /**
+   * Getter for the pool that messages are encoded into
+   */
+  BufferPool getBufferPool()
+  {
+    return bufferPool;
+  }
+
+  /**
+   * Returns true if buffers may be written with gathering writes
+   */
+  boolean isGathering()
+  {
+    return gathering;
+  }
+
+  /**
+   * Creates the pipeline of the channel: messages are encoded on the way out, while replies and messages sent back are framed and
+   * decoded on the way in
+   */
+  protected ChannelPipeline createPipeline()
+  {
+    return Channels.pipeline(createEncoder(), new CodecDecoder(nodeConfig.getMessageCodec(), transportMetrics), new MessageHandler());
+  }
+
+  /**
+   * Creates an encoder recording its statistics into those of the link
+   */
+  private CodecEncoder createEncoder()
+  {
+    return new CodecEncoder(nodeConfig.getMessageCodec(), bufferPool, encodingStats, INITIAL_BUFFER_SIZE, gathering);
+  }
+
+  /**
+   * Returns the address of the remote node
+   */
+  private SocketAddress getAddress()
+  {
+    return new InetSocketAddress(getUrl().getHost(), getUrl().getPort());
+  }
+
+  /**
+   * Buffers a message if the link is down. Returns true if the link was down, whether the message could be buffered or not.
+   */
+  private boolean bufferWhileDown(final Object message)
+  {
+    if (channel != null)
+      return false;
+
+    synchronized(outbound)
+    {
+      // checked again, as buffered messages must go out before any sent directly
+      if (channel != null)
+        return false;
+
+      buffer(message, false);
+      return true;
+    }
+  }
+
+  /**
+   * Buffers a message while the link is down, dropping the oldest buffered message if full, or rejecting the new one if requested.
+   * Returns false if the message was dropped. Must be called holding the outbound lock.
+   */
+  private boolean buffer(final Object message, final boolean rejectIfFull)
+  {
+    scheduleReconnect();
+
+    val capacity = nodeConfig.getOutboundBufferCapacity();
+    if (closed || capacity == 0 || (rejectIfFull && outbound.size() >= capacity))
+    {
+      linkStats.recordDropped(1, 0);
+      return false;
+    }
+
+    if (outbound.size() >= capacity)
+    {
+      outbound.pollFirst();
+      linkStats.recordDropped(1, 1);
+    }
+
+    outbound.addLast(message);
+    linkStats.recordBuffered();
+    return true;
+  }
+
+  /**
+   * Buffers each length-prefixed frame of an encoded message or batch as a message of its own. Frames are copied, as pooled batches
+   * are released once written or buffered. Must be called holding the outbound lock.
+   */
+  private void bufferFrames(final ChannelBuffer frames)
+  {
+    int index = frames.readerIndex();
+    while (index < frames.writerIndex())
+    {
+      val length = 4 + frames.getInt(index);
+      buffer(ChannelBuffers.copiedBuffer(frames.slice(index, length)), false);
+      index += length;
+    }
+  }
+
+  /**
+   * Returns true if the outbound buffer can take another message without dropping one. Must be called holding the outbound lock.
+   */
+  private boolean hasRoom()
+  {
+    return !closed && outbound.size() < nodeConfig.getOutboundBufferCapacity();
+  }
+
+  /**
+   * Schedules the next reconnection attempt, unless one is already pending or the link is closed. Must be called holding the
+   * outbound lock.
+   */
+  private void scheduleReconnect()
+  {
+    if (closed || connecting || reconnectTask != null)
+      return;
+
+    try
+    {
+      reconnectTask = scheduler.schedule(new Runnable() {
+        public void run()
+        {
+          reconnect();
+        }
+      }, getBackoffMillis(), TimeUnit.MILLISECONDS);
+    }
+    catch(RejectedExecutionException e)
+    {
+      if (nodeConfig.isLoggingEnabled())
+        logger.debug("Execution rejected, most likely due to shutdown: " + StackTraceLogging.format(e, StackTraceLevel.ABBREVIATED));
+    }
+  }
+
+  /**
+   * Returns the delay before the next reconnection attempt: doubling with each failed attempt up to the maximum, of which a random
+   * amount up to half is taken off, so that links to a restarted node do not all reconnect at once. Must be called holding the
+   * outbound lock.
+   */
+  private long getBackoffMillis()
+  {
+    val max = nodeConfig.getMaxReconnectBackoffMillis();
+    val delay = Math.min(max, (long) nodeConfig.getMinReconnectBackoffMillis() << Math.min(attempts, MAX_BACKOFF_SHIFT));
+    return delay - ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+  }
+
+  /**
+   * Starts a reconnection attempt, completed on an I/O thread
+   */
+  private void reconnect()
+  {
+    synchronized(outbound)
+    {
+      reconnectTask = null;
+      if (closed || connecting || channel != null)
+        return;
+
+      connecting = true;
+      attempts++;
+    }
+
+    linkStats.recordReconnectAttempt();
+    startConnect();
+  }
+
+  /**
+   * Starts a connection attempt, completed on an I/O thread. Must be called after marking the link as connecting.
+   */
+  private void startConnect()
+  {
+    try
+    {
+      connect(getAddress()).addListener(new ChannelFutureListener() {
+        public void operationComplete(final ChannelFuture future)
+        {
+          if (future.isSuccess())
+            onConnected(future.getChannel());
+          else
+            onConnectFailed(future.getChannel(), future.getCause());
+        }
+      });
+    }
+    catch(Exception e)
+    {
+      onConnectFailed(null, e);
+    }
+  }
+
+  /**
+   * Replays the buffered messages over the new channel, in order, before letting senders write to it
+   */
+  private void onConnected(final Channel connected)
+  {
+    // the pending batch is buffered behind the older messages, so that all are replayed in order as one queue
+    if (batcher != null)
+      batcher.flush();
+
+    int replayed = 0;
+    boolean first;
+    synchronized(outbound)
+    {
+      connecting = false;
+      if (closed)
+      {
+        connected.close();
+        return;
+      }
+
+      Object message;
+      while ((message = outbound.pollFirst()) != null)
+      {
+        connected.write(message);
+        replayed++;
+      }
+
+      first = !opened;
+      opened = true;
+      attempts = 0;
+      if (connected.isConnected())
+        channel = connected;
+      else
+        scheduleReconnect();
+    }
+
+    if (first)
+    {
+      linkStats.recordConnect(replayed);
+      completeOpen(null);
+      return;
+    }
+
+    linkStats.recordReconnect(replayed);
+    if (nodeConfig.isLoggingEnabled())
+      logger.info(this + " reconnected, replayed " + replayed + " buffered messages");
+  }
+
+  /**
+   * Schedules another attempt after a failed one, or closes the link if it has never been connected
+   */
+  private void onConnectFailed(final Channel failed, final Throwable cause)
+  {
+    if (failed != null)
+      failed.close();
+
+    boolean reconnecting;
+    synchronized(outbound)
+    {
+      connecting = false;
+      reconnecting = opened;
+      if (reconnecting)
+        scheduleReconnect();
+      else
+      {
+        closed = true;
+        linkStats.recordDropped(outbound.size(), outbound.size());
+        outbound.clear();
+      }
+    }
+
+    if (nodeConfig.isLoggingEnabled())
+      logger.info(this + " could not " + (reconnecting ? "reconnect: " : "connect: ")
+          + StackTraceLogging.format(cause, StackTraceLevel.ABBREVIATED));
+
+    if (!reconnecting)
+      completeOpen(new AdapterStartException(this + " could not connect to remote node", cause));
+  }
+
+  /**
+   * Completes the open future on the worker pool, or fails it if a cause is given, as its listeners may shut down adapters, which
+   * must not happen on I/O threads
+   */
+  private void completeOpen(final Throwable cause)
+  {
+    val task = new Runnable() {
+      public void run()
+      {
+        if (cause != null)
+          openFuture.fail(cause);
+        else
+          openFuture.complete(null);
+      }
+    };
+
+    try
+    {
+      workerPool.execute(task);
+    }
+    catch(RejectedExecutionException e)
+    {
+      task.run();
+    }
+  }
+
+  /**
+   * Marks the link as down once its channel is lost, and starts reconnecting
+   */
+  private void onDisconnected(final Channel lost)
+  {
+    synchronized(outbound)
+    {
+      if (channel != lost)
+        return;
+
+      channel = null;
+      scheduleReconnect();
+    }
+
+    if (nodeConfig.isLoggingEnabled())
+      logger.info(this + " lost its connection, reconnecting");
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + " (to " + getUrl() + ")";
+  }
+
+  /**
+   * Client-side message handler, completes requests with the replies arriving over the channel, passes messages sent back over it
+   * to their local recipient and reconnects once the channel is lost
+   */
+  protected class MessageHandler
+      extends DispatchingHandler
+  {
+    /**
+     * Constructor
+     */
+    public MessageHandler()
+    {
+      super(adapterRegistry, nodeConfig, systemContext, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void channelClosed(final ChannelHandlerContext ctx, final ChannelStateEvent e)
+        throws Exception
+    {
+      onDisconnected(ctx.getChannel());
+      super.channelClosed(ctx, e);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void exceptionCaught(final ChannelHandlerContext ctx, final ExceptionEvent e)
+        throws Exception
+    {
+      // failed connection attempts are reported by their future, the link reconnects once the channel is closed
+      if (ctx.getChannel() != channel)
+        return;
+
+      if (nodeConfig.isLoggingEnabled())
+        logger.info(this + " failed to write message to channel: "
+            + StackTraceLogging.format(e.getCause(), StackTraceLevel.ABBREVIATED));
+      ctx.getChannel().close();
+    }
+  }
+}
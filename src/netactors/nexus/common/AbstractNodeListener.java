@@ -0,0 +1,269 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.nexus.common;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import lombok.Getter;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+import lombok.val;
+import netactors.buffer.BufferPool;
+import netactors.buffer.EncodingStats;
+import netactors.config.IActorConfiguration;
+import netactors.context.ISharedResource;
+import netactors.context.ISystemContext;
+import netactors.exception.AdapterStartException;
+import netactors.exception.StackTraceLogging;
+import netactors.metrics.TransportMetrics;
+import netactors.nexus.ActorURL;
+import netactors.registry.IAdapterRegistry;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelPipeline;
+import org.jboss.netty.channel.ChannelStateEvent;
+import org.jboss.netty.channel.Channels;
+import org.jboss.netty.channel.ExceptionEvent;
+import org.jboss.netty.channel.group.ChannelGroup;
+import org.jboss.netty.channel.group.DefaultChannelGroup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import propel.core.common.StackTraceLevel;
+
+/**
+ * Abstract implementation of the endpoint of a node, listening on behalf of all local actors addressed under the node's URL. Each
+ * actor system binds one endpoint per node, shared by the server adapters of its actors, and incoming messages are dispatched to
+ * their recipient.
+ */
+public abstract class AbstractNodeListener
+    implements ISharedResource
+{
+  protected static final int INITIAL_BUFFER_SIZE = 512;
+  protected final Logger logger = LoggerFactory.getLogger(getClass());
+  protected final IAdapterRegistry adapterRegistry;
+  protected final IActorConfiguration nodeConfig;
+  protected final ISystemContext systemContext;
+  // taken upfront, as failures are reported on I/O threads which must not contend for the system context
+  private final ExecutorService workerPool;
+  private final BufferPool bufferPool;
+  private final boolean gathering;
+  @Getter
+  private final EncodingStats encodingStats = new EncodingStats();
+  @Getter
+  private final TransportMetrics transportMetrics;
+  protected final ChannelGroup group;
+  private volatile Channel boundChannel;
+
+  /**
+   * Constructor, replies are written with gathering writes if requested, which only stream channels support
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  protected AbstractNodeListener(@NotNull final IAdapterRegistry adapterRegistry, @NotNull final IActorConfiguration nodeConfig,
+                                 @NotNull final ISystemContext systemContext, final boolean gathering)
+  {
+    this.adapterRegistry = adapterRegistry;
+    this.nodeConfig = nodeConfig;
+    this.systemContext = systemContext;
+    this.workerPool = systemContext.getWorkerPool();
+    this.bufferPool = systemContext.getBufferPool();
+    this.gathering = gathering;
+
+    this.transportMetrics = new TransportMetrics(toString(), encodingStats, null);
+
+    // create channel group
+    group = new DefaultChannelGroup("NodeListener (" + nodeConfig.getUrl() + ")");
+  }
+
+  /**
+   * Binds the listening channel to the given address
+   * 
+   * @throws Exception The channel could not be bound
+   */
+  protected abstract Channel bind(SocketAddress address)
+      throws Exception;
+
+  /**
+   * Getter for the URL of the node
+   */
+  public ActorURL getUrl()
+  {
+    return nodeConfig.getUrl();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized void open()
+      throws AdapterStartException
+  {
+    try
+    {
+      // bind and start to accept incoming connections
+      boundChannel = bind(new InetSocketAddress(getUrl().getHost(), getUrl().getPort()));
+      // add the server socket to the group (of all sockets)
+      group.add(boundChannel);
+      systemContext.getMetricsRegistry().register(transportMetrics);
+    }
+    catch(Exception e)
+    {
+      throw new AdapterStartException("Could not start " + this, e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized void close()
+  {
+    boundChannel = null;
+    systemContext.getMetricsRegistry().unregister(transportMetrics);
+    if (!group.isEmpty())
+    {
+      group.close().awaitUninterruptibly();
+      group.clear();
+    }
+  }
+
+  /**
+   * Creates the pipeline of a channel: messages are framed and decoded on the way in, while replies are encoded on the way out. The
+   * encoding statistics are shared by all channels of the listener.
+   */
+  protected ChannelPipeline createPipeline()
+  {
+    val codec = nodeConfig.getMessageCodec();
+    val encoder = new CodecEncoder(codec, bufferPool, encodingStats, INITIAL_BUFFER_SIZE, gathering);
+    return Channels.pipeline(new CodecDecoder(codec, transportMetrics), encoder, new MessageHandler());
+  }
+
+  /**
+   * Re-binds the listening channel, off the I/O thread which reported the failure
+   */
+  private void attemptRestart(final Throwable e)
+  {
+    if (nodeConfig.isLoggingEnabled())
+      logger.info(this + " message handler encountered an exception: " + StackTraceLogging.format(e, StackTraceLevel.ABBREVIATED));
+
+    try
+    {
+      workerPool.execute(new Runnable() {
+        public void run()
+        {
+          restart();
+        }
+      });
+    }
+    catch(RejectedExecutionException re)
+    {
+      if (nodeConfig.isLoggingEnabled())
+        logger.debug("Execution rejected, most likely due to shutdown: " + StackTraceLogging.format(re, StackTraceLevel.ABBREVIATED));
+    }
+  }
+
+  /**
+   * Closes and re-opens the listener, unless it has been closed in the meantime
+   */
+  private synchronized void restart()
+  {
+    if (boundChannel == null)
+      return;
+
+    // shutdown group
+    try
+    {
+      close();
+    }
+    catch(Exception sde)
+    {
+      if (nodeConfig.isLoggingEnabled())
+        logger.error(this + " has encountered an error while shutting down", sde);
+    }
+
+    // start listening
+    try
+    {
+      open();
+    }
+    catch(Exception ste)
+    {
+      // problem starting
+      if (nodeConfig.isLoggingEnabled())
+        logger.info(this + " could not restart: " + StackTraceLogging.format(ste, StackTraceLevel.ABBREVIATED));
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + " (of " + getUrl() + ")";
+  }
+
+  /**
+   * Server-side message handler, dispatches incoming messages to the actors of the node. Messages not naming their recipient are
+   * passed to the node's actor.
+   */
+  protected class MessageHandler
+      extends DispatchingHandler
+  {
+    /**
+     * Constructor
+     */
+    public MessageHandler()
+    {
+      super(adapterRegistry, nodeConfig, systemContext, getUrl());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void channelOpen(final ChannelHandlerContext ctx, final ChannelStateEvent e)
+    {
+      // add opened connections to the group
+      group.add(ctx.getChannel());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void exceptionCaught(final ChannelHandlerContext ctx, final ExceptionEvent evt)
+        throws Exception
+    {
+      // a failed connection is dropped, as others share the endpoint, while a failure of the endpoint itself restarts it
+      if (ctx.getChannel() == boundChannel)
+        attemptRestart(evt.getCause());
+      else
+      {
+        if (nodeConfig.isLoggingEnabled())
+          logger.info(AbstractNodeListener.this + " closing a failed connection: "
+              + StackTraceLogging.format(evt.getCause(), StackTraceLevel.ABBREVIATED));
+        ctx.getChannel().close();
+      }
+    }
+  }
+}
@@ -19,12 +19,12 @@
 package netactors.nexus.common;
 
 import java.io.Serializable;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import lombok.Validate;
 import lombok.Validate.NotNull;
 import netactors.actor.IActor;
 import netactors.config.IActorConfiguration;
+import netactors.context.ISystemContext;
+import netactors.mailbox.IMailbox;
 import netactors.nexus.ActorURL;
 import netactors.nexus.IActorAdapter;
 import netactors.registry.AdapterType;
@@ -42,7 +42,8 @@ public abstract class AbstractServerAdapter
   protected final IAdapterRegistry adapterRegistry;
   protected final IActorConfiguration actorConfig;
   protected final IActor actor;
-  protected final ExecutorService workerPool;
+  protected final ISystemContext systemContext;
+  protected final IMailbox mailbox;
 
   /**
    * Constructor
@@ -51,14 +52,13 @@ public abstract class AbstractServerAdapter
    */
   @Validate
   protected AbstractServerAdapter(@NotNull final IAdapterRegistry adapterRegistry, @NotNull final IActorConfiguration actorConfig,
-                                  @NotNull final IActor actor)
+                                  @NotNull final ISystemContext systemContext, @NotNull final IMailbox mailbox)
   {
     this.adapterRegistry = adapterRegistry;
     this.actorConfig = actorConfig;
-    this.actor = actor;
-
-    // create pool
-    workerPool = Executors.newCachedThreadPool(adapterRegistry.getThreadFactory());
+    this.systemContext = systemContext;
+    this.mailbox = mailbox;
+    this.actor = mailbox.getActor();
   }
 
   /**
@@ -70,6 +70,22 @@ public abstract class AbstractServerAdapter
     return AdapterType.SERVER;
   }
 
+  /**
+   * Getter for the configuration of the actor
+   */
+  public IActorConfiguration getActorConfig()
+  {
+    return actorConfig;
+  }
+
+  /**
+   * Getter for the mailbox of the actor, which in-memory clients queue messages into directly
+   */
+  public IMailbox getMailbox()
+  {
+    return mailbox;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -79,6 +95,26 @@ public abstract class AbstractServerAdapter
     return actorConfig.getUrl();
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public void onReceive(@NotNull final Serializable message)
+  {
+    mailbox.enqueue(message);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public boolean offer(@NotNull final Serializable message)
+  {
+    return mailbox.offer(message);
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -89,6 +125,16 @@ public abstract class AbstractServerAdapter
     throw new IllegalStateException(this + " should never send data: " + message);
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public boolean trySend(@NotNull final Serializable message)
+  {
+    throw new IllegalStateException(this + " should never send data: " + message);
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -105,6 +151,7 @@ public abstract class AbstractServerAdapter
   public void shutdown()
   {
     adapterRegistry.removeServer(getUrl());
-    workerPool.shutdownNow();
+    mailbox.shutdown();
+    systemContext.getMetricsRegistry().remove(getUrl());
   }
 }
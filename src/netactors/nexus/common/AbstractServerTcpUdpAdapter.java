@@ -18,169 +18,91 @@
 // /////////////////////////////////////////////////////////
 package netactors.nexus.common;
 
-import java.io.Serializable;
-import lombok.NoArgsConstructor;
-import lombok.Validate;
-import lombok.Validate.NotNull;
-import netactors.actor.IActor;
+import lombok.val;
 import netactors.config.IActorConfiguration;
-import netactors.exception.StackTraceLogging;
+import netactors.context.ISharedResourceFactory;
+import netactors.context.ISystemContext;
+import netactors.exception.AdapterStartException;
+import netactors.mailbox.IMailbox;
+import netactors.metrics.TransportMetrics;
 import netactors.registry.IAdapterRegistry;
-import org.jboss.netty.channel.ChannelHandlerContext;
-import org.jboss.netty.channel.ChannelStateEvent;
-import org.jboss.netty.channel.ExceptionEvent;
-import org.jboss.netty.channel.MessageEvent;
-import org.jboss.netty.channel.SimpleChannelHandler;
-import org.jboss.netty.channel.group.ChannelGroup;
-import org.jboss.netty.channel.group.DefaultChannelGroup;
-import propel.core.common.StackTraceLevel;
+import netactors.threading.SettableFuture;
 
 /**
- * Abstract implementation containing structures and functionality common between TCP and UDP client adapters
+ * Abstract implementation containing structures and functionality common between TCP and UDP server adapters. Actors of the same
+ * node share its endpoint, which passes incoming messages to the adapter registered under their recipient's URL.
  */
 public abstract class AbstractServerTcpUdpAdapter
     extends AbstractServerAdapter
 {
-  protected final ChannelGroup group;
+  private final String listenerKey;
+  protected volatile AbstractNodeListener listener;
 
   /**
    * Constructor
    * 
    * @throws NullPointerException An argument is null
    */
-  protected AbstractServerTcpUdpAdapter(final IAdapterRegistry adapterRegistry, final IActorConfiguration actorConfig, final IActor actor)
+  protected AbstractServerTcpUdpAdapter(final IAdapterRegistry adapterRegistry, final IActorConfiguration actorConfig,
+                                        final ISystemContext systemContext, final IMailbox mailbox)
   {
-    super(adapterRegistry, actorConfig, actor);
-
-    // create channel group
-    group = new DefaultChannelGroup("ActorServer (" + actorConfig.getUrl() + ")");
+    super(adapterRegistry, actorConfig, systemContext, mailbox);
+    this.listenerKey = "listener of " + actorConfig.getUrl().getNode();
   }
 
   /**
-   * {@inheritDoc}
+   * Creates the endpoint of the node, when first needed by an actor of the actor system
    */
-  @Override
-  @Validate
-  public void onReceive(@NotNull final Serializable message)
+  protected abstract AbstractNodeListener createListener(IActorConfiguration nodeConfig);
+
+  /**
+   * Returns the metrics of the endpoint of the node, shared with all other adapters of its actors, or null if not started
+   */
+  public TransportMetrics getTransportMetrics()
   {
-    workerPool.submit(new Runnable() {
-      public void run()
-      {
-        try
-        {
-          actor.onReceive(message);
-        }
-        catch(Exception e)
-        {
-          if (actorConfig.isLoggingEnabled())
-            logger.info(actor + " could not process a message: " + StackTraceLogging.format(e, StackTraceLevel.ABBREVIATED));
-        }
-      }
-    });
+    val current = listener;
+    return current != null ? current.getTransportMetrics() : null;
   }
 
-  private synchronized void attemptRestart(final Throwable e)
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized SettableFuture<Void> start()
+      throws AdapterStartException
   {
-    if (actorConfig.isLoggingEnabled())
-      logger.info(this + " message handler encountered an exception: " + StackTraceLogging.format(e, StackTraceLevel.ABBREVIATED));
+    if (!adapterRegistry.addServer(getUrl(), this))
+      throw new AdapterStartException(this + " already exists");
 
-    // shutdown group
     try
     {
-      partialShutdown();
-    }
-    catch(Exception sde)
-    {
-      if (actorConfig.isLoggingEnabled())
-        logger.error(this + " has encountered an error while shutting down", sde);
-    }
-
-    // start server
-    try
-    {
-      start();
+      listener = systemContext.acquire(listenerKey, new ISharedResourceFactory<AbstractNodeListener>() {
+        public AbstractNodeListener create()
+        {
+          return createListener(actorConfig.cloneFor(getUrl().getNode()));
+        }
+      });
     }
-    catch(Exception ste)
+    catch(AdapterStartException e)
     {
-      // problem starting
-      if (actorConfig.isLoggingEnabled())
-        logger.info(this + " could not restart: " + StackTraceLogging.format(ste, StackTraceLevel.ABBREVIATED));
-
-      // clean up
-      try
-      {
-        partialShutdown();
-      }
-      catch(Exception ex)
-      {
-        // this is OK at this stage
-      }
+      adapterRegistry.removeServer(getUrl());
+      throw e;
     }
-  }
 
-  /**
-   * Shuts everything but the thread pools down
-   */
-  private void partialShutdown()
-  {
-    adapterRegistry.removeServer(getUrl());
-    if (!group.isEmpty())
-    {
-      group.close().awaitUninterruptibly();
-      group.clear();
-    }
+    return SettableFuture.completed(null);
   }
 
   /**
    * {@inheritDoc}
    */
   @Override
-  public void shutdown()
-  {
-    partialShutdown();
-    super.shutdown();
-  }
-
-  /**
-   * Server-side message handler, handles incoming messages by forwarding them to the actor
-   */
-  @NoArgsConstructor
-  protected class MessageHandler
-      extends SimpleChannelHandler
+  public synchronized void shutdown()
   {
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public void channelOpen(final ChannelHandlerContext ctx, final ChannelStateEvent e)
-    {
-      // add opened connections to the group
-      group.add(ctx.getChannel());
-    }
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public void messageReceived(final ChannelHandlerContext ctx, final MessageEvent e)
-        throws Exception
+    if (listener != null)
     {
-      // handle with actor
-      onReceive((Serializable) e.getMessage());
-
-      // forward to any further handlers
-      super.messageReceived(ctx, e);
-    }
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public void exceptionCaught(final ChannelHandlerContext ctx, final ExceptionEvent evt)
-        throws Exception
-    {
-      attemptRestart(evt.getCause());
+      systemContext.release(listenerKey);
+      listener = null;
     }
+    super.shutdown();
   }
-
 }
@@ -0,0 +1,73 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.nexus.common;
+
+import java.net.SocketAddress;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+import netactors.nexus.Envelope;
+import netactors.nexus.IReturnPath;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.socket.DatagramChannel;
+
+/**
+ * Return path writing envelopes back over the channel a message arrived on. Datagrams are addressed to the sender of the message,
+ * while connection-oriented channels already lead back to it.
+ */
+public final class ChannelReturnPath
+    implements IReturnPath
+{
+  private final Channel channel;
+  private final SocketAddress remoteAddress;
+
+  /**
+   * Constructor
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public ChannelReturnPath(@NotNull final Channel channel, final SocketAddress remoteAddress)
+  {
+    this.channel = channel;
+    this.remoteAddress = channel instanceof DatagramChannel ? remoteAddress : null;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public boolean send(@NotNull final Envelope envelope)
+  {
+    if (!channel.isOpen())
+      return false;
+
+    channel.write(envelope, remoteAddress);
+    return true;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + " (" + (remoteAddress != null ? remoteAddress : channel.getRemoteAddress()) + ")";
+  }
+}
@@ -0,0 +1,118 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.nexus.common;
+
+import lombok.Validate;
+import lombok.Validate.NotNull;
+import lombok.val;
+import netactors.codec.IMessageCodec;
+import netactors.exception.StackTraceLogging;
+import netactors.metrics.TransportMetrics;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBufferInputStream;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.handler.codec.frame.LengthFieldBasedFrameDecoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import propel.core.common.StackTraceLevel;
+
+/**
+ * Frames length-prefixed messages written by CodecEncoder, and decodes them with a message codec. A frame which cannot be decoded
+ * is skipped, as it has been framed already, so that one bad message does not close a channel shared by many actors. Decoded
+ * messages and frames which cannot be decoded are recorded into the metrics of the transport, if given.
+ */
+public final class CodecDecoder
+    extends LengthFieldBasedFrameDecoder
+{
+  /**
+   * The maximum length of a frame, in bytes
+   */
+  public static final int MAX_FRAME_LENGTH = 1048576;
+
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private final IMessageCodec codec;
+  // null if not recorded
+  private final TransportMetrics metrics;
+
+  /**
+   * Constructor
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public CodecDecoder(@NotNull final IMessageCodec codec)
+  {
+    this(codec, null);
+  }
+
+  /**
+   * Constructor, recording into the given metrics unless null
+   * 
+   * @throws NullPointerException The codec is null
+   */
+  @Validate
+  public CodecDecoder(@NotNull final IMessageCodec codec, final TransportMetrics metrics)
+  {
+    super(MAX_FRAME_LENGTH, 0, 4, 0, 4);
+    this.codec = codec;
+    this.metrics = metrics;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected Object decode(final ChannelHandlerContext ctx, final Channel channel, final ChannelBuffer buffer)
+      throws Exception
+  {
+    val frame = (ChannelBuffer) super.decode(ctx, channel, buffer);
+    if (frame == null)
+      return null;
+
+    val length = frame.readableBytes();
+    try
+    {
+      val message = codec.decode(new ChannelBufferInputStream(frame));
+      if (metrics != null)
+        metrics.recordDecoded(length + 4);
+      return message;
+    }
+    catch(Exception e)
+    {
+      if (metrics != null)
+        metrics.recordDecodeFailure();
+      logger.debug("Skipping message from " + channel.getRemoteAddress() + " which could not be decoded: "
+          + StackTraceLogging.format(e, StackTraceLevel.ABBREVIATED));
+
+      // the frame has been consumed, so the next one is decoded
+      return null;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected ChannelBuffer extractFrame(final ChannelBuffer buffer, final int index, final int length)
+  {
+    // the frame is decoded straight away, so there is no need to copy it
+    return buffer.slice(index, length);
+  }
+}
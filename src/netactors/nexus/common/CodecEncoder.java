@@ -0,0 +1,137 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.nexus.common;
+
+import java.io.IOException;
+import java.io.Serializable;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+import lombok.val;
+import netactors.buffer.BufferPool;
+import netactors.buffer.EncodingStats;
+import netactors.buffer.PooledBufferOutputStream;
+import netactors.codec.IMessageCodec;
+import netactors.exception.StackTraceLogging;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBufferOutputStream;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.Channels;
+import org.jboss.netty.channel.MessageEvent;
+import org.jboss.netty.channel.SimpleChannelDownstreamHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import propel.core.common.StackTraceLevel;
+
+/**
+ * Encodes messages with a message codec, prefixing each with its length (4 bytes) so that CodecDecoder can frame it. Messages are
+ * encoded into direct buffers taken from a pool, which are returned to it once written out. Buffers are passed through as they are,
+ * as they hold messages already framed by a WriteBatcher. A message which cannot be encoded only fails its own write, leaving the
+ * channel open for the other actors sharing it.
+ */
+public final class CodecEncoder
+    extends SimpleChannelDownstreamHandler
+{
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private final IMessageCodec codec;
+  private final BufferPool pool;
+  private final EncodingStats stats;
+  private final int initialBufferSize;
+  private final boolean gathering;
+
+  /**
+   * Constructor. Gathering writes must only be enabled for stream channels, see PooledBufferOutputStream.toBuffer().
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public CodecEncoder(@NotNull final IMessageCodec codec, @NotNull final BufferPool pool, @NotNull final EncodingStats stats,
+                      final int initialBufferSize, final boolean gathering)
+  {
+    this.codec = codec;
+    this.pool = pool;
+    this.stats = stats;
+    this.initialBufferSize = initialBufferSize;
+    this.gathering = gathering;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void writeRequested(final ChannelHandlerContext ctx, final MessageEvent e)
+      throws Exception
+  {
+    if (e.getMessage() instanceof ChannelBuffer)
+    {
+      ctx.sendDownstream(e);
+      return;
+    }
+
+    val out = new PooledBufferOutputStream(pool, stats, initialBufferSize);
+    try
+    {
+      // reserve the length field, filled in once the message is written
+      out.writeInt(0);
+      codec.encode((Serializable) e.getMessage(), out);
+      out.setInt(0, out.size() - 4);
+    }
+    catch(Exception ex)
+    {
+      out.release();
+      logger.debug("Could not encode message for " + ctx.getChannel().getRemoteAddress() + ": "
+          + StackTraceLogging.format(ex, StackTraceLevel.ABBREVIATED));
+      e.getFuture().setFailure(ex);
+      return;
+    }
+
+    stats.recordMessage(out.size());
+    out.releaseOnCompletion(e.getFuture());
+    Channels.write(ctx, e.getFuture(), out.toBuffer(gathering), e.getRemoteAddress());
+  }
+
+  /**
+   * Appends a length-prefixed message to the buffer. If the message cannot be encoded, the buffer is left as it was.
+   * 
+   * @throws NullPointerException An argument is null
+   * @throws IOException The message could not be encoded
+   */
+  @Validate
+  public void encode(@NotNull final Serializable message, @NotNull final ChannelBuffer buffer)
+      throws IOException
+  {
+    val start = buffer.writerIndex();
+    try
+    {
+      // reserve the length field, filled in once the message is written
+      buffer.writeInt(0);
+      codec.encode(message, new ChannelBufferOutputStream(buffer));
+      buffer.setInt(start, buffer.writerIndex() - start - 4);
+    }
+    catch(IOException e)
+    {
+      buffer.writerIndex(start);
+      throw e;
+    }
+    catch(RuntimeException e)
+    {
+      buffer.writerIndex(start);
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,134 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.nexus.common;
+
+import java.io.Serializable;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+import lombok.val;
+import netactors.config.IActorConfiguration;
+import netactors.context.ISystemContext;
+import netactors.nexus.ActorURL;
+import netactors.nexus.Envelope;
+import netactors.nexus.Multicast;
+import netactors.registry.AdapterType;
+import netactors.registry.IAdapterRegistry;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.MessageEvent;
+import org.jboss.netty.channel.SimpleChannelHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Message handler passing the messages arriving over a channel to the local actors they are addressed to, as several actors share
+ * each channel. Replies complete their pending requests instead. The return path of each message leads back over the channel.
+ * Multicast messages are passed to each of their recipients hosted by the node the channel leads to.
+ */
+public abstract class DispatchingHandler
+    extends SimpleChannelHandler
+{
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private final IAdapterRegistry adapterRegistry;
+  private final IActorConfiguration config;
+  private final ISystemContext systemContext;
+  private final ActorURL defaultRecipient;
+  // the node whose actors multicast messages are passed to, or null if unknown
+  private final ActorURL node;
+
+  /**
+   * Constructor. Messages not naming their recipient are passed to the default recipient, if given.
+   * 
+   * @throws NullPointerException An argument is null, except for the default recipient
+   */
+  @Validate
+  protected DispatchingHandler(@NotNull final IAdapterRegistry adapterRegistry, @NotNull final IActorConfiguration config,
+                               @NotNull final ISystemContext systemContext, final ActorURL defaultRecipient)
+  {
+    this.adapterRegistry = adapterRegistry;
+    this.config = config;
+    this.systemContext = systemContext;
+    this.defaultRecipient = defaultRecipient;
+    this.node = defaultRecipient != null ? defaultRecipient.getNode() : null;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void messageReceived(final ChannelHandlerContext ctx, final MessageEvent e)
+      throws Exception
+  {
+    val message = (Serializable) e.getMessage();
+    if (message instanceof Envelope && ((Envelope) message).isReply())
+      systemContext.getReplyRegistry().send((Envelope) message);
+    else if (message instanceof Multicast)
+      dispatch((Multicast) message, ctx, e);
+    else
+      dispatch(message, ctx, e);
+
+    // forward to any further handlers
+    super.messageReceived(ctx, e);
+  }
+
+  /**
+   * Queues a message for its recipient, a message not accepted by a full mailbox is discarded
+   */
+  private void dispatch(final Serializable message, final ChannelHandlerContext ctx, final MessageEvent e)
+  {
+    ActorURL recipient = defaultRecipient;
+    if (message instanceof Envelope)
+    {
+      val envelope = (Envelope) message;
+      if (envelope.getRecipient() != null)
+        recipient = envelope.getRecipient();
+      envelope.setReturnPath(new ChannelReturnPath(ctx.getChannel(), e.getRemoteAddress()));
+    }
+
+    val server = recipient != null ? adapterRegistry.get(AdapterType.SERVER, recipient) : null;
+    if (server == null)
+    {
+      if (config.isLoggingEnabled())
+        logger.debug("Discarding message for unknown recipient " + recipient);
+      return;
+    }
+
+    server.offer(message);
+  }
+
+  /**
+   * Queues the envelope of a multicast message for each recipient hosted by the node of this handler, sharing it among them.
+   * Recipients of other nodes are skipped, as the message is sent to their own node as well, even if it is registered in the same
+   * adapter registry.
+   */
+  private void dispatch(final Multicast multicast, final ChannelHandlerContext ctx, final MessageEvent e)
+  {
+    val envelope = multicast.getEnvelope();
+    envelope.setReturnPath(new ChannelReturnPath(ctx.getChannel(), e.getRemoteAddress()));
+
+    for (ActorURL recipient : multicast.getRecipients())
+    {
+      if (node != null && !node.equals(recipient.getNode()))
+        continue;
+
+      val server = adapterRegistry.get(AdapterType.SERVER, recipient);
+      if (server != null)
+        server.offer(envelope);
+    }
+  }
+}
@@ -0,0 +1,50 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.nexus.common;
+
+/**
+ * Enumeration of the connection states of a link to a remote node
+ */
+public enum LinkState
+{
+  /**
+   * Connecting for the first time, buffering messages until then
+   */
+  CONNECTING,
+  /**
+   * Connected, sending messages over the channel
+   */
+  CONNECTED,
+  /**
+   * The channel was lost, reconnecting in the background while buffering messages
+   */
+  RECONNECTING,
+  /**
+   * Closed, either explicitly or because the first connection attempt failed
+   */
+  CLOSED;
+
+  /**
+   * {@inheritDoc}
+   */
+  public String toString()
+  {
+    return super.toString().toLowerCase();
+  }
+}
@@ -0,0 +1,139 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.nexus.common;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of the link to a remote node: messages buffered while the connection was down, dropped because the buffer was full or the
+ * link was closed, and replayed once reconnected, as well as reconnection attempts and successful reconnections
+ */
+public final class LinkStats
+{
+  private final AtomicInteger buffered = new AtomicInteger();
+  private final AtomicLong totalBuffered = new AtomicLong();
+  private final AtomicLong dropped = new AtomicLong();
+  private final AtomicLong replayed = new AtomicLong();
+  private final AtomicLong reconnectAttempts = new AtomicLong();
+  private final AtomicLong reconnects = new AtomicLong();
+
+  /**
+   * Records a message added to the outbound buffer
+   */
+  void recordBuffered()
+  {
+    buffered.incrementAndGet();
+    totalBuffered.incrementAndGet();
+  }
+
+  /**
+   * Records messages dropped, the given number of which were taken from the outbound buffer
+   */
+  void recordDropped(final int count, final int fromBuffer)
+  {
+    dropped.addAndGet(count);
+    buffered.addAndGet(-fromBuffer);
+  }
+
+  /**
+   * Records a reconnection attempt
+   */
+  void recordReconnectAttempt()
+  {
+    reconnectAttempts.incrementAndGet();
+  }
+
+  /**
+   * Records the first connection of the link, after which the given number of messages buffered while connecting were sent
+   */
+  void recordConnect(final int replayedCount)
+  {
+    replayed.addAndGet(replayedCount);
+    buffered.addAndGet(-replayedCount);
+  }
+
+  /**
+   * Records a successful reconnection, after which the given number of buffered messages were replayed
+   */
+  void recordReconnect(final int replayedCount)
+  {
+    reconnects.incrementAndGet();
+    replayed.addAndGet(replayedCount);
+    buffered.addAndGet(-replayedCount);
+  }
+
+  /**
+   * Returns the number of messages currently buffered
+   */
+  public int getBuffered()
+  {
+    return buffered.get();
+  }
+
+  /**
+   * Returns the number of messages ever buffered
+   */
+  public long getTotalBuffered()
+  {
+    return totalBuffered.get();
+  }
+
+  /**
+   * Returns the number of messages dropped
+   */
+  public long getDropped()
+  {
+    return dropped.get();
+  }
+
+  /**
+   * Returns the number of buffered messages replayed once connected or reconnected
+   */
+  public long getReplayed()
+  {
+    return replayed.get();
+  }
+
+  /**
+   * Returns the number of reconnection attempts
+   */
+  public long getReconnectAttempts()
+  {
+    return reconnectAttempts.get();
+  }
+
+  /**
+   * Returns the number of successful reconnections
+   */
+  public long getReconnects()
+  {
+    return reconnects.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + " (buffered: " + getBuffered() + ", dropped: " + getDropped() + ", replayed: "
+        + getReplayed() + ", reconnect attempts: " + getReconnectAttempts() + ", reconnects: " + getReconnects() + ")";
+  }
+}
@@ -0,0 +1,207 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.nexus.common;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+import lombok.val;
+import netactors.buffer.BufferPool;
+import netactors.buffer.PooledBufferOutputStream;
+import netactors.config.IActorConfiguration;
+import netactors.exception.StackTraceLogging;
+import netactors.nexus.Envelope;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import propel.core.common.StackTraceLevel;
+
+/**
+ * Coalesces the messages sent over a node link into batches of length-prefixed frames, so that many small messages cost one write
+ * rather than one each. Senders encode their messages in parallel into scratch buffers of their own, and copy them into the
+ * current batch, held in pooled buffers. The batch is written out once full. Otherwise the batch is written by a flush task
+ * submitted when it is started, which takes the messages sent until it runs, straight away or after the linger time if one is
+ * configured. Flush tasks run on the scheduler of the actor system rather than on the worker pool, so that they never wait behind
+ * actors, however busy.
+ */
+final class WriteBatcher
+    implements Runnable
+{
+  // scratch buffers grown beyond this size by a large message are not kept
+  private static final int MAX_SCRATCH_CAPACITY = 65536;
+  private static final ThreadLocal<ChannelBuffer> SCRATCH = new ThreadLocal<ChannelBuffer>();
+
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private final AbstractNodeLink link;
+  private final IActorConfiguration nodeConfig;
+  private final CodecEncoder encoder;
+  private final int maxBatchBytes;
+  private final long maxLingerMicros;
+  private final ScheduledExecutorService scheduler;
+  // guarded by this
+  private PooledBufferOutputStream batch;
+  private boolean flushScheduled;
+
+  /**
+   * Constructor, running flush tasks on the given scheduler
+   * 
+   * @throws NullPointerException An argument is null
+   * @throws IllegalArgumentException The maximum batch size is not positive
+   */
+  @Validate
+  WriteBatcher(@NotNull final AbstractNodeLink link, @NotNull final IActorConfiguration nodeConfig,
+               @NotNull final CodecEncoder encoder, final int maxBatchBytes, @NotNull final ScheduledExecutorService scheduler)
+  {
+    if (maxBatchBytes <= 0)
+      throw new IllegalArgumentException("maxBatchBytes=" + maxBatchBytes);
+
+    this.link = link;
+    this.nodeConfig = nodeConfig;
+    this.encoder = encoder;
+    this.maxBatchBytes = maxBatchBytes;
+    this.maxLingerMicros = nodeConfig.getMaxLingerMicros();
+    this.scheduler = scheduler;
+  }
+
+  /**
+   * Adds a message to the current batch, writing the batch out if it cannot take the message. Messages which cannot be encoded are
+   * discarded.
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public void send(@NotNull final Envelope envelope)
+  {
+    val frame = scratch();
+    try
+    {
+      encoder.encode(envelope, frame);
+    }
+    catch(Exception e)
+    {
+      if (nodeConfig.isLoggingEnabled())
+        logger.info(link + " could not encode message: " + StackTraceLogging.format(e, StackTraceLevel.ABBREVIATED));
+      return;
+    }
+
+    link.getEncodingStats().recordMessage(frame.readableBytes());
+    append(frame);
+
+    if (frame.capacity() > MAX_SCRATCH_CAPACITY)
+      SCRATCH.remove();
+  }
+
+  /**
+   * Adds a frame encoded by a node link to the current batch, like send() does a message. The frame itself is left untouched.
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public void sendFrame(@NotNull final ChannelBuffer frame)
+  {
+    append(frame);
+  }
+
+  /**
+   * Writes out the current batch, if any
+   */
+  public synchronized void flush()
+  {
+    if (batch == null || batch.size() == 0)
+      return;
+
+    val full = batch;
+    batch = null;
+
+    // written under the lock, so that batches go out in order; the link copies the frames of the batch if it buffers them instead
+    val future = link.write(full.toBuffer(link.isGathering()));
+    if (future != null)
+      full.releaseOnCompletion(future);
+    else
+      full.release();
+  }
+
+  /**
+   * Flush task, writes out whatever the current batch holds
+   */
+  @Override
+  public synchronized void run()
+  {
+    flushScheduled = false;
+    flush();
+  }
+
+  /**
+   * Appends an encoded message to the current batch, keeping batches within the maximum size unless a single message exceeds it
+   */
+  private synchronized void append(final ChannelBuffer frame)
+  {
+    if (batch != null && batch.size() + frame.readableBytes() > maxBatchBytes)
+      flush();
+
+    if (batch == null)
+      batch = new PooledBufferOutputStream(link.getBufferPool(), link.getEncodingStats(), BufferPool.sizeClassOf(maxBatchBytes));
+    batch.write(frame);
+    link.getEncodingStats().recordCopy(frame.readableBytes());
+
+    if (batch.size() >= maxBatchBytes)
+      flush();
+    else if (!flushScheduled)
+      scheduleFlush();
+  }
+
+  /**
+   * Submits the flush task, or flushes straight away if it is rejected, most likely due to shutdown
+   */
+  private void scheduleFlush()
+  {
+    try
+    {
+      if (maxLingerMicros > 0)
+        scheduler.schedule(this, maxLingerMicros, TimeUnit.MICROSECONDS);
+      else
+        scheduler.execute(this);
+
+      flushScheduled = true;
+    }
+    catch(RejectedExecutionException e)
+    {
+      flush();
+    }
+  }
+
+  /**
+   * Returns the calling thread's scratch buffer, emptied
+   */
+  private static ChannelBuffer scratch()
+  {
+    ChannelBuffer result = SCRATCH.get();
+    if (result == null)
+    {
+      result = ChannelBuffers.dynamicBuffer(AbstractNodeLink.INITIAL_BUFFER_SIZE);
+      SCRATCH.set(result);
+    }
+
+    result.clear();
+    return result;
+  }
+}
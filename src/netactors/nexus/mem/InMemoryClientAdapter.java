@@ -23,41 +23,54 @@ import lombok.Validate;
 import lombok.Validate.NotNull;
 import lombok.val;
 import netactors.config.IActorConfiguration;
+import netactors.context.ISystemContext;
 import netactors.exception.AdapterStartException;
 import netactors.exception.StackTraceLogging;
+import netactors.mailbox.IMailbox;
+import netactors.mailbox.MessageContext;
+import netactors.nexus.Envelope;
 import netactors.nexus.common.AbstractClientAdapter;
 import netactors.registry.AdapterType;
 import netactors.registry.IAdapterRegistry;
+import netactors.threading.SettableFuture;
 import propel.core.common.StackTraceLevel;
 
 /**
- * Implementation of an in-memory actor client, for interacting with a remote actor's server
+ * Implementation of an in-memory actor client, for interacting with a remote actor's server. The client binds to the mailbox of the
+ * server's actor when started, so messages are queued in a single step. Should the server be shut down, e.g. because its actor
+ * system was, the client binds to the server registered at the same URL next, if any.
  */
 public final class InMemoryClientAdapter
     extends AbstractClientAdapter
 {
+  // mailbox of the server's actor, or null while no server is registered
+  private volatile IMailbox mailbox;
+
   /**
    * Constructor
    * 
    * @throws NullPointerException An argument is null
    */
-  public InMemoryClientAdapter(final IAdapterRegistry adapterRegistry, final IActorConfiguration actorConfig)
+  public InMemoryClientAdapter(final IAdapterRegistry adapterRegistry, final IActorConfiguration actorConfig,
+                               final ISystemContext systemContext)
   {
-    super(adapterRegistry, actorConfig);
+    super(adapterRegistry, actorConfig, systemContext);
   }
 
   /**
    * {@inheritDoc}
    */
   @Override
-  public void start()
+  public SettableFuture<Void> start()
       throws AdapterStartException
   {
-    if (!adapterRegistry.exists(AdapterType.SERVER, getUrl()))
+    if (bind() == null)
       throw new AdapterStartException("Could not find an active server for " + this + " to connect to");
 
     if (!adapterRegistry.addClient(getUrl(), this))
       throw new AdapterStartException(this + " already exists");
+
+    return SettableFuture.completed(null);
   }
 
   /**
@@ -66,25 +79,56 @@ public final class InMemoryClientAdapter
   @Override
   @Validate
   public void send(@NotNull final Serializable message)
+  {
+    val target = bound();
+    if (target != null)
+      target.enqueue(envelope(message));
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public boolean offer(@NotNull final Serializable message)
+  {
+    val target = bound();
+    return target != null && target.offer(envelope(message));
+  }
+
+  /**
+   * Wraps a message in an envelope from the actor sending it if any, like network clients do, unless the actor system has already
+   * done so
+   */
+  private static Envelope envelope(final Serializable message)
+  {
+    if (message instanceof Envelope)
+      return (Envelope) message;
+
+    return Envelope.message(MessageContext.senderOr(null), null, message);
+  }
+
+  /**
+   * Returns the mailbox the client is bound to, binding again if the server it was bound to has been shut down
+   */
+  private IMailbox bound()
+  {
+    val current = mailbox;
+    if (current != null && !current.isShutdown())
+      return current;
+
+    return bind();
+  }
+
+  /**
+   * Binds the client to the mailbox of the server currently registered at its URL. Returns the mailbox, or null if there is none.
+   */
+  private IMailbox bind()
   {
     val server = adapterRegistry.get(AdapterType.SERVER, getUrl());
-    if (server != null)
-    {
-      workerPool.submit(new Runnable() {
-        public void run()
-        {
-          try
-          {
-            server.onReceive(message);
-          }
-          catch(Exception e)
-          {
-            if (actorConfig.isLoggingEnabled())
-              logger.info(server + " could not process a message: " + StackTraceLogging.format(e, StackTraceLevel.ABBREVIATED));
-          }
-        }
-      });
-    }
+    val found = server instanceof InMemoryServerAdapter ? ((InMemoryServerAdapter) server).getMailbox() : null;
+    mailbox = found;
+    return found;
   }
 
   /**
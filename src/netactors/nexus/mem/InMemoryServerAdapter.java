@@ -18,15 +18,14 @@
 // /////////////////////////////////////////////////////////
 package netactors.nexus.mem;
 
-import java.io.Serializable;
-import lombok.Validate;
-import lombok.Validate.NotNull;
-import netactors.actor.IActor;
 import netactors.config.IActorConfiguration;
+import netactors.context.ISystemContext;
 import netactors.exception.AdapterStartException;
 import netactors.exception.StackTraceLogging;
+import netactors.mailbox.IMailbox;
 import netactors.nexus.common.AbstractServerAdapter;
 import netactors.registry.IAdapterRegistry;
+import netactors.threading.SettableFuture;
 import propel.core.common.StackTraceLevel;
 
 /**
@@ -40,43 +39,23 @@ public final class InMemoryServerAdapter
    * 
    * @throws NullPointerException An argument is null
    */
-  public InMemoryServerAdapter(final IAdapterRegistry adapterRegistry, final IActorConfiguration actorConfig, final IActor actor)
+  public InMemoryServerAdapter(final IAdapterRegistry adapterRegistry, final IActorConfiguration actorConfig,
+                               final ISystemContext systemContext, final IMailbox mailbox)
   {
-    super(adapterRegistry, actorConfig, actor);
+    super(adapterRegistry, actorConfig, systemContext, mailbox);
   }
 
   /**
    * {@inheritDoc}
    */
   @Override
-  public void start()
+  public SettableFuture<Void> start()
       throws AdapterStartException
   {
     if (!adapterRegistry.addServer(getUrl(), this))
       throw new AdapterStartException(this + " already exists");
-  }
 
-  /**
-   * {@inheritDoc}
-   */
-  @Override
-  @Validate
-  public void onReceive(@NotNull final Serializable message)
-  {
-    workerPool.submit(new Runnable() {
-      public void run()
-      {
-        try
-        {
-          actor.onReceive(message);
-        }
-        catch(Exception e)
-        {
-          if (actorConfig.isLoggingEnabled())
-            logger.info(actor + " could not process a message: " + StackTraceLogging.format(e, StackTraceLevel.ABBREVIATED));
-        }
-      }
-    });
+    return SettableFuture.completed(null);
   }
 
   /**
@@ -18,84 +18,38 @@
 // /////////////////////////////////////////////////////////
 package netactors.nexus.tcp;
 
-import java.net.InetSocketAddress;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
-import lombok.val;
 import netactors.config.IActorConfiguration;
-import netactors.exception.AdapterStartException;
+import netactors.context.ISystemContext;
 import netactors.exception.StackTraceLogging;
 import netactors.nexus.common.AbstractClientTcpUdpAdapter;
+import netactors.nexus.common.AbstractNodeLink;
 import netactors.registry.IAdapterRegistry;
-import org.jboss.netty.bootstrap.ClientBootstrap;
-import org.jboss.netty.channel.ChannelPipeline;
-import org.jboss.netty.channel.ChannelPipelineFactory;
-import org.jboss.netty.channel.Channels;
-import org.jboss.netty.channel.socket.nio.NioClientSocketChannelFactory;
-import org.jboss.netty.handler.codec.serialization.ObjectEncoder;
 import propel.core.common.StackTraceLevel;
 
 /**
- * Implementation of a TCP actor client, for interacting with a remote actor's TCP server
+ * Implementation of a Tcp actor client, for interacting with a remote actor's Tcp server
  */
 public final class TcpClientAdapter
     extends AbstractClientTcpUdpAdapter
 {
-  protected final ExecutorService bossPool;
-  protected final ClientBootstrap bootstrap;
-
   /**
    * Constructor
    * 
    * @throws NullPointerException An argument is null
    */
-  public TcpClientAdapter(final IAdapterRegistry adapterRegistry, final IActorConfiguration actorConfig)
+  public TcpClientAdapter(final IAdapterRegistry adapterRegistry, final IActorConfiguration actorConfig,
+                          final ISystemContext systemContext)
   {
-    super(adapterRegistry, actorConfig);
-
-    // pool creation
-    bossPool = Executors.newCachedThreadPool(adapterRegistry.getThreadFactory());
-
-    // client setup
-    val channelFactory = new NioClientSocketChannelFactory(bossPool, workerPool);
-    val pipelineFactory = new ChannelPipelineFactory() {
-      public ChannelPipeline getPipeline()
-          throws Exception
-      {
-        return Channels.pipeline(new ObjectEncoder(INITIAL_BUFFER_SIZE), new MessageHandler());
-      }
-    };
-
-    bootstrap = new ClientBootstrap(channelFactory);
-    // client socket oriented bootstrap
-    bootstrap.setPipelineFactory(pipelineFactory);
+    super(adapterRegistry, actorConfig, systemContext);
   }
 
   /**
    * {@inheritDoc}
    */
   @Override
-  public void start()
-      throws AdapterStartException
+  protected AbstractNodeLink createLink(final IActorConfiguration nodeConfig)
   {
-    try
-    {
-      // attempt to establish connection
-      val addressToConnectTo = new InetSocketAddress(getUrl().getHost(), getUrl().getPort());
-      val future = bootstrap.connect(addressToConnectTo);
-
-      // wait interruptibly with a timeout
-      future.await(actorConfig.getTimeoutMillis(), TimeUnit.MILLISECONDS);
-
-      channel = future.getChannel();
-      if (!channel.isConnected())
-        throw new AdapterStartException(this + " channel not connected");
-    }
-    catch(Exception e)
-    {
-      throw new AdapterStartException(this + " could not connect to remote server", e);
-    }
+    return new TcpNodeLink(adapterRegistry, nodeConfig, systemContext);
   }
 
   /**
@@ -107,8 +61,6 @@ public final class TcpClientAdapter
     try
     {
       super.shutdown();
-      bossPool.shutdownNow();
-      bootstrap.releaseExternalResources();
     }
     catch(Exception e)
     {
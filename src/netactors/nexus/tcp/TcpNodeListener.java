@@ -0,0 +1,71 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.nexus.tcp;
+
+import java.net.SocketAddress;
+import netactors.config.IActorConfiguration;
+import netactors.context.ISystemContext;
+import netactors.nexus.common.AbstractNodeListener;
+import netactors.registry.IAdapterRegistry;
+import org.jboss.netty.bootstrap.ServerBootstrap;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelPipeline;
+import org.jboss.netty.channel.ChannelPipelineFactory;
+
+/**
+ * Implementation of the Tcp endpoint of a node
+ */
+public final class TcpNodeListener
+    extends AbstractNodeListener
+{
+  private final ServerBootstrap bootstrap;
+
+  /**
+   * Constructor
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  public TcpNodeListener(final IAdapterRegistry adapterRegistry, final IActorConfiguration nodeConfig,
+                         final ISystemContext systemContext)
+  {
+    super(adapterRegistry, nodeConfig, systemContext, true);
+
+    // the channel factory is shared across the actor system
+    bootstrap = new ServerBootstrap(systemContext.getTcpServerChannelFactory());
+
+    // setup the pipeline factory
+    bootstrap.setPipelineFactory(new ChannelPipelineFactory() {
+      public ChannelPipeline getPipeline()
+          throws Exception
+      {
+        return createPipeline();
+      }
+    });
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected Channel bind(final SocketAddress address)
+      throws Exception
+  {
+    return bootstrap.bind(address);
+  }
+}
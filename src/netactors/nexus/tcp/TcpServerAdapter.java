@@ -18,77 +18,39 @@
 // /////////////////////////////////////////////////////////
 package netactors.nexus.tcp;
 
-import java.net.InetSocketAddress;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import lombok.val;
-import netactors.actor.IActor;
 import netactors.config.IActorConfiguration;
-import netactors.exception.AdapterStartException;
+import netactors.context.ISystemContext;
 import netactors.exception.StackTraceLogging;
+import netactors.mailbox.IMailbox;
+import netactors.nexus.common.AbstractNodeListener;
 import netactors.nexus.common.AbstractServerTcpUdpAdapter;
 import netactors.registry.IAdapterRegistry;
-import org.jboss.netty.bootstrap.ServerBootstrap;
-import org.jboss.netty.channel.ChannelPipeline;
-import org.jboss.netty.channel.ChannelPipelineFactory;
-import org.jboss.netty.channel.Channels;
-import org.jboss.netty.channel.socket.nio.NioServerSocketChannelFactory;
-import org.jboss.netty.handler.codec.serialization.ClassResolvers;
-import org.jboss.netty.handler.codec.serialization.ObjectDecoder;
 import propel.core.common.StackTraceLevel;
 
 /**
- * Implementation of a TCP actor server
+ * Implementation of a Tcp actor server
  */
 public final class TcpServerAdapter
     extends AbstractServerTcpUdpAdapter
 {
-  private final ExecutorService bossPool;
-  private ServerBootstrap bootstrap;
-
   /**
    * Constructor
    * 
    * @throws NullPointerException An argument is null
    */
-  public TcpServerAdapter(final IAdapterRegistry adapterRegistry, final IActorConfiguration config, final IActor actor)
+  public TcpServerAdapter(final IAdapterRegistry adapterRegistry, final IActorConfiguration config, final ISystemContext systemContext,
+                          final IMailbox mailbox)
   {
-    super(adapterRegistry, config, actor);
-
-    // pool creation
-    val threadFactory = adapterRegistry.getThreadFactory();
-    bossPool = Executors.newCachedThreadPool(threadFactory);
-
-    bootstrap = new ServerBootstrap(new NioServerSocketChannelFactory(bossPool, workerPool));
-
-    // setup the pipeline factory
-    bootstrap.setPipelineFactory(new ChannelPipelineFactory() {
-      public ChannelPipeline getPipeline()
-          throws Exception
-      {
-        return Channels.pipeline(new ObjectDecoder(ClassResolvers.cacheDisabled(getClass().getClassLoader())), new MessageHandler());
-      };
-    });
+    super(adapterRegistry, config, systemContext, mailbox);
   }
 
   /**
    * {@inheritDoc}
    */
   @Override
-  public void start()
-      throws AdapterStartException
+  protected AbstractNodeListener createListener(final IActorConfiguration nodeConfig)
   {
-    try
-    {
-      // bind and start to accept incoming connections
-      val channel = bootstrap.bind(new InetSocketAddress(getUrl().getHost(), getUrl().getPort()));
-      // add the server socket to the group (of all sockets)
-      group.add(channel);
-    }
-    catch(Exception e)
-    {
-      throw new AdapterStartException("Could not start " + this, e);
-    }
+    return new TcpNodeListener(adapterRegistry, nodeConfig, systemContext);
   }
 
   /**
@@ -100,8 +62,6 @@ public final class TcpServerAdapter
     try
     {
       super.shutdown();
-      bossPool.shutdownNow();
-      bootstrap.releaseExternalResources();
     }
     catch(Exception e)
     {
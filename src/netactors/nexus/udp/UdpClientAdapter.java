@@ -18,78 +18,38 @@
 // /////////////////////////////////////////////////////////
 package netactors.nexus.udp;
 
-import java.net.InetSocketAddress;
-import java.util.concurrent.TimeUnit;
-import lombok.val;
 import netactors.config.IActorConfiguration;
-import netactors.exception.AdapterStartException;
+import netactors.context.ISystemContext;
 import netactors.exception.StackTraceLogging;
 import netactors.nexus.common.AbstractClientTcpUdpAdapter;
+import netactors.nexus.common.AbstractNodeLink;
 import netactors.registry.IAdapterRegistry;
-import org.jboss.netty.bootstrap.ConnectionlessBootstrap;
-import org.jboss.netty.channel.ChannelPipeline;
-import org.jboss.netty.channel.ChannelPipelineFactory;
-import org.jboss.netty.channel.Channels;
-import org.jboss.netty.channel.socket.nio.NioDatagramChannelFactory;
-import org.jboss.netty.handler.codec.serialization.ObjectEncoder;
 import propel.core.common.StackTraceLevel;
 
 /**
- * Implementation of a UDP actor client, for interacting with a remote actor's TCP server
+ * Implementation of a Udp actor client, for interacting with a remote actor's Udp server
  */
 public final class UdpClientAdapter
     extends AbstractClientTcpUdpAdapter
 {
-  private final ConnectionlessBootstrap bootstrap;
-
   /**
    * Constructor
    * 
    * @throws NullPointerException An argument is null
    */
-  public UdpClientAdapter(final IAdapterRegistry adapterRegistry, final IActorConfiguration actorConfig)
+  public UdpClientAdapter(final IAdapterRegistry adapterRegistry, final IActorConfiguration actorConfig,
+                          final ISystemContext systemContext)
   {
-    super(adapterRegistry, actorConfig);
-
-    // client setup
-    val channelFactory = new NioDatagramChannelFactory(workerPool);
-    val pipelineFactory = new ChannelPipelineFactory() {
-      public ChannelPipeline getPipeline()
-          throws Exception
-      {
-        return Channels.pipeline(new ObjectEncoder(INITIAL_BUFFER_SIZE), new MessageHandler());
-      }
-    };
-
-    // connection-less bootstrap
-    bootstrap = new ConnectionlessBootstrap(channelFactory);
-    bootstrap.setPipelineFactory(pipelineFactory);
+    super(adapterRegistry, actorConfig, systemContext);
   }
 
   /**
    * {@inheritDoc}
    */
   @Override
-  public void start()
-      throws AdapterStartException
+  protected AbstractNodeLink createLink(final IActorConfiguration nodeConfig)
   {
-    try
-    {
-      // attempt to establish connection
-      val addressToConnectTo = new InetSocketAddress(getUrl().getHost(), getUrl().getPort());
-      val future = bootstrap.connect(addressToConnectTo);
-
-      // wait interruptibly with a timeout
-      future.await(actorConfig.getTimeoutMillis(), TimeUnit.MILLISECONDS);
-
-      channel = future.getChannel();
-      if (!channel.isConnected())
-        throw new AdapterStartException(this + " channel not connected");
-    }
-    catch(Exception e)
-    {
-      throw new AdapterStartException(this + " could not connect to remote server", e);
-    }
+    return new UdpNodeLink(adapterRegistry, nodeConfig, systemContext);
   }
 
   /**
@@ -101,12 +61,10 @@ public final class UdpClientAdapter
     try
     {
       super.shutdown();
-      bootstrap.releaseExternalResources();
     }
     catch(Exception e)
     {
       logger.warn(this + " shutdown caught an exception: " + StackTraceLogging.format(e, StackTraceLevel.ABBREVIATED));
     }
   }
-
 }
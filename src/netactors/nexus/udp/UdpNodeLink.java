@@ -0,0 +1,71 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.nexus.udp;
+
+import java.net.SocketAddress;
+import netactors.config.IActorConfiguration;
+import netactors.context.ISystemContext;
+import netactors.nexus.common.AbstractNodeLink;
+import netactors.registry.IAdapterRegistry;
+import org.jboss.netty.bootstrap.ConnectionlessBootstrap;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelPipeline;
+import org.jboss.netty.channel.ChannelPipelineFactory;
+
+/**
+ * Implementation of the Udp link to a remote node
+ */
+public final class UdpNodeLink
+    extends AbstractNodeLink
+{
+  // batches must fit in the default receive buffer of Netty's datagram channels, or they are truncated
+  private static final int MAX_DATAGRAM_BATCH_BYTES = 768;
+
+  private final ConnectionlessBootstrap bootstrap;
+
+  /**
+   * Constructor
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  public UdpNodeLink(final IAdapterRegistry adapterRegistry, final IActorConfiguration nodeConfig, final ISystemContext systemContext)
+  {
+    super(adapterRegistry, nodeConfig, systemContext, Math.min(nodeConfig.getMaxBatchBytes(), MAX_DATAGRAM_BATCH_BYTES), false);
+
+    // connection-less bootstrap, the channel factory is shared across the actor system
+    bootstrap = new ConnectionlessBootstrap(systemContext.getUdpChannelFactory());
+    bootstrap.setPipelineFactory(new ChannelPipelineFactory() {
+      public ChannelPipeline getPipeline()
+          throws Exception
+      {
+        return createPipeline();
+      }
+    });
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected ChannelFuture connect(final SocketAddress address)
+      throws Exception
+  {
+    return bootstrap.connect(address);
+  }
+}
@@ -18,6 +18,8 @@
 // /////////////////////////////////////////////////////////
 package netactors.registry;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.concurrent.ConcurrentHashMap;
 import lombok.Validate;
 import lombok.Validate.NotNull;
@@ -26,6 +28,8 @@ import netactors.context.IActorContext;
 import netactors.exception.ActorAlreadyExistsException;
 import netactors.exception.AdapterStartException;
 import netactors.nexus.ActorURL;
+import netactors.threading.IFutureListener;
+import netactors.threading.SettableFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -51,7 +55,7 @@ public final class ActorRegistry
    */
   @Override
   @Validate
-  public void addAndStart(@NotNull final IActorContext context)
+  public SettableFuture<Void> addAndStart(@NotNull final IActorContext context)
       throws ActorAlreadyExistsException, AdapterStartException
   {
     // attempt to insert
@@ -63,9 +67,10 @@ public final class ActorRegistry
       throw new ActorAlreadyExistsException("Actor URL already present: " + url);
 
     logger.info("Starting actor context " + context.getUrl() + " (" + context.getConnector().getType() + ")");   
+    SettableFuture<Void> started;
     try
     {
-      context.getConnector().start();
+      started = context.getConnector().start();
     }
     catch(AdapterStartException e)
     {
@@ -74,6 +79,20 @@ public final class ActorRegistry
       
       throw e;
     }
+
+    // adapters connecting in the background may still fail
+    started.addListener(new IFutureListener<Void>() {
+      public void onSuccess(final Void value)
+      {
+      }
+
+      public void onFailure(final Throwable cause)
+      {
+        if (actors.remove(url, context))
+          context.getConnector().shutdown();
+      }
+    });
+    return started;
   }
 
   /**
@@ -86,6 +105,31 @@ public final class ActorRegistry
     return actors.get(url);
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Collection<IActorContext> getAll()
+  {
+    return new ArrayList<IActorContext>(actors.values());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public boolean shutdown(@NotNull final ActorURL url)
+  {
+    val context = actors.remove(url);
+    if (context == null)
+      return false;
+
+    logger.info("Shutting down actor context " + url + " (" + context.getConnector().getType() + ")");
+    context.getConnector().shutdown();
+    return true;
+  }
+
   /**
    * {@inheritDoc}
    */
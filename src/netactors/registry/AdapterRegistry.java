@@ -18,9 +18,12 @@
 // /////////////////////////////////////////////////////////
 package netactors.registry;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.concurrent.ThreadFactory;
 import lombok.Validate;
 import lombok.Validate.NotNull;
+import lombok.val;
 import netactors.nexus.ActorURL;
 import netactors.nexus.IActorAdapter;
 import netactors.threading.ActorThreadFactory;
@@ -96,6 +99,17 @@ public final class AdapterRegistry
     return map.get(type, url);
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public Collection<ActorURL> getUrls(@NotNull final AdapterType type)
+  {
+    val adapters = map.getKey(type);
+    return adapters != null ? new ArrayList<ActorURL>(adapters.keySet()) : new ArrayList<ActorURL>();
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -18,10 +18,12 @@
 // /////////////////////////////////////////////////////////
 package netactors.registry;
 
+import java.util.Collection;
 import netactors.context.IActorContext;
 import netactors.exception.ActorAlreadyExistsException;
 import netactors.exception.AdapterStartException;
 import netactors.nexus.ActorURL;
+import netactors.threading.SettableFuture;
 
 /**
  * Interface of an actor registry, responsible for maintaining and managing the life cycle of actors
@@ -36,15 +38,28 @@ public interface IActorRegistry
   IActorContext get(ActorURL url);
 
   /**
-   * Adds a new actor context, which if successfully added is started
+   * Adds a new actor context, which if successfully added is started. Returns the future of the adapter becoming ready; if it fails,
+   * the context is removed and shut down.
    * 
    * @throws NullPointerException An argument is null
    * @throws ActorAlreadyExistsException An actor with the given URL already exists
    * @throws AdapterStartException The actor's adapter could not be started 
    */
-  void addAndStart(IActorContext context)
+  SettableFuture<Void> addAndStart(IActorContext context)
       throws ActorAlreadyExistsException, AdapterStartException;
 
+  /**
+   * Returns the contexts currently registered, local and remote
+   */
+  Collection<IActorContext> getAll();
+
+  /**
+   * Removes an actor's context and shuts it down. Returns false if no context is registered under the given URL.
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  boolean shutdown(ActorURL url);
+
   /**
    * Shuts down all actors and clears the registry
    */
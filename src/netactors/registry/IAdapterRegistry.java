@@ -18,6 +18,7 @@
 // /////////////////////////////////////////////////////////
 package netactors.registry;
 
+import java.util.Collection;
 import java.util.concurrent.ThreadFactory;
 import netactors.nexus.ActorURL;
 import netactors.nexus.IActorAdapter;
@@ -69,6 +70,13 @@ public interface IAdapterRegistry
    */
   IActorAdapter get(AdapterType type, ActorURL url);
 
+  /**
+   * Returns the URLs of the adapters of the given type currently registered
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  Collection<ActorURL> getUrls(AdapterType type);
+
   /**
    * Getter for the adapter worker thread factory
    */
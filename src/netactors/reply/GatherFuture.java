@@ -0,0 +1,114 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.reply;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+import lombok.Getter;
+import netactors.threading.SettableFuture;
+
+/**
+ * The replies gathered from a request sent to several actors. The future completes with the replies in order of arrival, once the
+ * expected number of replies has arrived, or with those that arrived in time once the deadline passes, which may be none.
+ */
+public final class GatherFuture
+    extends SettableFuture<List<Serializable>>
+{
+  /**
+   * The number of replies completing the future
+   */
+  @Getter
+  private final int expected;
+  private final List<Serializable> replies;
+
+  /**
+   * Constructor, a future expecting no replies is completed straight away
+   * 
+   * @throws IllegalArgumentException The number of expected replies is negative
+   */
+  public GatherFuture(final int expected)
+  {
+    if (expected < 0)
+      throw new IllegalArgumentException("expected=" + expected);
+
+    this.expected = expected;
+    this.replies = new ArrayList<Serializable>(expected);
+    if (expected == 0)
+      complete(Collections.<Serializable>emptyList());
+  }
+
+  /**
+   * Returns the number of replies gathered so far
+   */
+  public int getReceived()
+  {
+    synchronized(replies)
+    {
+      return replies.size();
+    }
+  }
+
+  /**
+   * Adds a reply, completing the future once the expected number of replies has arrived. Returns false if no more replies are
+   * expected.
+   */
+  boolean add(final Serializable reply)
+  {
+    List<Serializable> gathered;
+    synchronized(replies)
+    {
+      if (replies.size() >= expected)
+        return false;
+
+      replies.add(reply);
+      if (replies.size() < expected)
+        return true;
+
+      gathered = Collections.unmodifiableList(new ArrayList<Serializable>(replies));
+    }
+
+    complete(gathered);
+    return true;
+  }
+
+  /**
+   * Completes the future with the replies gathered so far, once the deadline has passed
+   */
+  void expire()
+  {
+    List<Serializable> gathered;
+    synchronized(replies)
+    {
+      gathered = Collections.unmodifiableList(new ArrayList<Serializable>(replies));
+    }
+
+    complete(gathered);
+  }
+
+  /**
+   * Sets the task completing this future on timeout
+   */
+  void setTimeout(final Future<?> timeout)
+  {
+    setTimeoutTask(timeout);
+  }
+}
@@ -0,0 +1,72 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.reply;
+
+import java.io.Serializable;
+import netactors.nexus.IReturnPath;
+
+/**
+ * Interface of the table of requests awaiting a reply, keyed by correlation ID. Replies sent to the registry complete the future
+ * of the matching request, while other envelopes are not accepted.
+ */
+public interface IReplyRegistry
+    extends IReturnPath
+{
+  /**
+   * Registers a future awaiting a reply and returns its correlation ID. The future fails with a TimeoutException if no reply
+   * arrives within the given timeout.
+   * 
+   * @throws NullPointerException An argument is null
+   * @throws IllegalArgumentException The timeout is not positive
+   */
+  long register(ReplyFuture future, long timeoutMillis);
+
+  /**
+   * Registers a future gathering the replies to a request sent to several actors and returns its correlation ID. The future
+   * completes with the replies that arrived in time, if fewer than expected arrive within the given timeout.
+   * 
+   * @throws NullPointerException An argument is null
+   * @throws IllegalArgumentException The timeout is not positive
+   */
+  long register(GatherFuture future, long timeoutMillis);
+
+  /**
+   * Completes the request with the given correlation ID. Returns false if there is no such request, e.g. because it timed out.
+   */
+  boolean complete(long correlationId, Serializable reply);
+
+  /**
+   * Fails the request with the given correlation ID. Returns false if there is no such request.
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  boolean fail(long correlationId, Throwable cause);
+
+  /**
+   * Fails all pending requests, e.g. upon shutdown
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  void failAll(Throwable cause);
+
+  /**
+   * Returns the number of requests awaiting a reply, counting requests sent to several actors once
+   */
+  int size();
+}
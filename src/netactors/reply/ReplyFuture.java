@@ -0,0 +1,63 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.reply;
+
+import java.io.Serializable;
+import java.util.concurrent.Future;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+import netactors.threading.IFutureListener;
+import netactors.threading.SettableFuture;
+
+/**
+ * The pending reply to a request. The future is completed once, either with the reply or with a failure, after which any
+ * listeners are notified on the completing thread.
+ */
+public final class ReplyFuture
+    extends SettableFuture<Serializable>
+{
+  /**
+   * Registers a listener, which is notified immediately if the future has already completed
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public void addListener(@NotNull final IReplyListener listener)
+  {
+    addListener(new IFutureListener<Serializable>() {
+      public void onSuccess(final Serializable reply)
+      {
+        listener.onReply(reply);
+      }
+
+      public void onFailure(final Throwable cause)
+      {
+        listener.onFailure(cause);
+      }
+    });
+  }
+
+  /**
+   * Sets the task failing this future on timeout
+   */
+  void setTimeout(final Future<?> timeout)
+  {
+    setTimeoutTask(timeout);
+  }
+}
@@ -0,0 +1,205 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.reply;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+import lombok.val;
+import netactors.context.ISystemContext;
+import netactors.nexus.Envelope;
+import netactors.threading.IFutureListener;
+
+/**
+ * Implementation of the reply registry. Correlation IDs are taken from a counter, so that many requests may be in flight over the
+ * same connection without allocating an actor per request. Timeouts are scheduled on the scheduler of the actor system. Requests
+ * sent to several actors share one correlation ID, and stay registered until all expected replies have arrived.
+ */
+public final class ReplyRegistry
+    implements IReplyRegistry
+{
+  private final ISystemContext systemContext;
+  private final AtomicLong nextCorrelationId = new AtomicLong();
+  private final ConcurrentHashMap<Long, ReplyFuture> pending = new ConcurrentHashMap<Long, ReplyFuture>();
+  private final ConcurrentHashMap<Long, GatherFuture> gathers = new ConcurrentHashMap<Long, GatherFuture>();
+
+  /**
+   * Constructor
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public ReplyRegistry(@NotNull final ISystemContext systemContext)
+  {
+    this.systemContext = systemContext;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public long register(@NotNull final ReplyFuture future, final long timeoutMillis)
+  {
+    if (timeoutMillis <= 0)
+      throw new IllegalArgumentException("timeoutMillis=" + timeoutMillis);
+
+    val correlationId = nextCorrelationId.incrementAndGet();
+    pending.put(correlationId, future);
+
+    // a future cancelled by the caller is no longer awaited either
+    future.addListener(new IFutureListener<Serializable>() {
+      public void onSuccess(final Serializable reply)
+      {
+        pending.remove(correlationId, future);
+      }
+
+      public void onFailure(final Throwable cause)
+      {
+        pending.remove(correlationId, future);
+      }
+    });
+
+    future.setTimeout(systemContext.getScheduler().schedule(new Runnable() {
+      @Override
+      public void run()
+      {
+        fail(correlationId, new TimeoutException("No reply within " + timeoutMillis + "ms"));
+      }
+    }, timeoutMillis, TimeUnit.MILLISECONDS));
+
+    return correlationId;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public long register(@NotNull final GatherFuture future, final long timeoutMillis)
+  {
+    if (timeoutMillis <= 0)
+      throw new IllegalArgumentException("timeoutMillis=" + timeoutMillis);
+
+    val correlationId = nextCorrelationId.incrementAndGet();
+    gathers.put(correlationId, future);
+
+    // however it completes, the future takes no more replies
+    future.addListener(new IFutureListener<List<Serializable>>() {
+      public void onSuccess(final List<Serializable> replies)
+      {
+        gathers.remove(correlationId, future);
+      }
+
+      public void onFailure(final Throwable cause)
+      {
+        gathers.remove(correlationId, future);
+      }
+    });
+
+    future.setTimeout(systemContext.getScheduler().schedule(new Runnable() {
+      @Override
+      public void run()
+      {
+        future.expire();
+      }
+    }, timeoutMillis, TimeUnit.MILLISECONDS));
+
+    return correlationId;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean complete(final long correlationId, final Serializable reply)
+  {
+    val future = pending.remove(correlationId);
+    if (future != null)
+      return future.complete(reply);
+
+    val gather = gathers.get(correlationId);
+    return gather != null && gather.add(reply);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public boolean fail(final long correlationId, @NotNull final Throwable cause)
+  {
+    val future = pending.remove(correlationId);
+    if (future != null)
+      return future.fail(cause);
+
+    val gather = gathers.remove(correlationId);
+    return gather != null && gather.fail(cause);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public void failAll(@NotNull final Throwable cause)
+  {
+    for (val correlationId : pending.keySet())
+      fail(correlationId, cause);
+    for (val correlationId : gathers.keySet())
+      fail(correlationId, cause);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public boolean send(@NotNull final Envelope envelope)
+  {
+    if (!envelope.isReply())
+      return false;
+
+    complete(envelope.getCorrelationId(), envelope.getMessage());
+    return true;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int size()
+  {
+    return pending.size() + gathers.size();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + " (" + size() + " pending)";
+  }
+}
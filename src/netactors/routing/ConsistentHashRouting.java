@@ -0,0 +1,158 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.routing;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+import lombok.val;
+import netactors.mailbox.IMailbox;
+
+/**
+ * Routing logic passing messages with equal keys to the same routee. Routees own points on a hash ring, several each so that keys
+ * spread evenly, and a message goes to the owner of the first point at or after the hash of its key. The points of a routee do not
+ * depend on the number of routees, so adding or removing one only moves the keys of the points it gains or loses.
+ */
+public final class ConsistentHashRouting
+    implements IRoutingLogic
+{
+  public static final int DEFAULT_VIRTUAL_NODES = 128;
+  private final IHashKeyExtractor extractor;
+  private final int virtualNodes;
+  // ring of the current number of routees, rebuilt if it changes
+  private volatile Ring ring;
+
+  /**
+   * Constructor, hashing messages by themselves
+   */
+  public ConsistentHashRouting()
+  {
+    this(new IHashKeyExtractor() {
+      public Object getHashKey(final Serializable message)
+      {
+        return message;
+      }
+    }, DEFAULT_VIRTUAL_NODES);
+  }
+
+  /**
+   * Constructor, hashing messages by the keys extracted from them, with the given number of points per routee
+   * 
+   * @throws NullPointerException An argument is null
+   * @throws IllegalArgumentException The number of points is not positive
+   */
+  @Validate
+  public ConsistentHashRouting(@NotNull final IHashKeyExtractor extractor, final int virtualNodes)
+  {
+    if (virtualNodes <= 0)
+      throw new IllegalArgumentException("virtualNodes=" + virtualNodes);
+
+    this.extractor = extractor;
+    this.virtualNodes = virtualNodes;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int select(final Serializable message, final IMailbox[] routees)
+  {
+    Ring current = ring;
+    if (current == null || current.routees != routees.length)
+    {
+      // racing senders may build the same ring twice, which is harmless
+      current = new Ring(routees.length, virtualNodes);
+      ring = current;
+    }
+
+    val key = extractor.getHashKey(message);
+    return current.owner(mix((key != null ? key : message).hashCode()));
+  }
+
+  /**
+   * Spreads the bits of a hash code, so that similar keys land far apart on the ring (the finalizer of MurmurHash3)
+   */
+  static int mix(int hash)
+  {
+    hash ^= hash >>> 16;
+    hash *= 0x85ebca6b;
+    hash ^= hash >>> 13;
+    hash *= 0xc2b2ae35;
+    hash ^= hash >>> 16;
+    return hash;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + " (" + virtualNodes + " points per routee)";
+  }
+
+  /**
+   * Immutable hash ring of a given number of routees
+   */
+  private static final class Ring
+  {
+    final int routees;
+    // sorted points, and the routee owning each
+    private final int[] points;
+    private final int[] owners;
+
+    Ring(final int routees, final int virtualNodes)
+    {
+      this.routees = routees;
+
+      // points sort by their high half, ties broken by owner
+      val entries = new long[routees * virtualNodes];
+      for (int routee = 0; routee < routees; routee++)
+        for (int node = 0; node < virtualNodes; node++)
+        {
+          val point = mix(routee * 0x9e3779b9 + mix(node + 1));
+          entries[routee * virtualNodes + node] = ((long) point << 32) | routee;
+        }
+      Arrays.sort(entries);
+
+      points = new int[entries.length];
+      owners = new int[entries.length];
+      for (int i = 0; i < entries.length; i++)
+      {
+        points[i] = (int) (entries[i] >> 32);
+        owners[i] = (int) entries[i];
+      }
+    }
+
+    /**
+     * Returns the owner of the first point at or after the given hash, wrapping around the ring
+     */
+    int owner(final int hash)
+    {
+      int index = Arrays.binarySearch(points, hash);
+      if (index < 0)
+        index = -index - 1;
+      if (index == points.length)
+        index = 0;
+
+      return owners[index];
+    }
+  }
+}
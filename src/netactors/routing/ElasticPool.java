@@ -0,0 +1,226 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.routing;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+import lombok.val;
+import netactors.config.IActorConfiguration;
+import netactors.exception.ActorCreationException;
+import netactors.exception.StackTraceLogging;
+import netactors.mailbox.IMailbox;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import propel.core.common.StackTraceLevel;
+
+/**
+ * Resizes the routees of a router periodically, as decided by a resizer. Routees are created by a routee factory as the pool grows.
+ * As it shrinks, routees are removed from the router first, and only shut down once they have processed the messages already
+ * queued for them. The pool stops resizing once the router is shut down.
+ */
+public final class ElasticPool
+    implements Runnable
+{
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+  private final IActorConfiguration config;
+  @Getter
+  private final Router router;
+  @Getter
+  private final Resizer resizer;
+  private final IRouteeFactory factory;
+  // guarded by this
+  private final List<IMailbox> retired = new ArrayList<IMailbox>();
+  private ScheduledFuture<?> task;
+  private long lastProcessed;
+  private long lastProcessingNanos;
+  private long lastNanos;
+
+  /**
+   * Constructor
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public ElasticPool(@NotNull final IActorConfiguration config, @NotNull final Router router, @NotNull final Resizer resizer,
+                     @NotNull final IRouteeFactory factory)
+  {
+    this.config = config;
+    this.router = router;
+    this.resizer = resizer;
+    this.factory = factory;
+  }
+
+  /**
+   * Starts resizing the pool periodically on the given scheduler
+   * 
+   * @throws NullPointerException An argument is null
+   * @throws IllegalStateException The pool was already started
+   */
+  @Validate
+  public synchronized void start(@NotNull final ScheduledExecutorService scheduler)
+  {
+    if (task != null)
+      throw new IllegalStateException(this + " was already started");
+
+    sample();
+    val interval = resizer.getIntervalMillis();
+    task = scheduler.scheduleWithFixedDelay(this, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Resizes the pool if needed, and shuts down the retired routees which are done with their messages
+   */
+  @Override
+  public synchronized void run()
+  {
+    if (router.isShutdown())
+    {
+      stop();
+      return;
+    }
+
+    shutdownIdleRetirees();
+
+    val routees = router.getRoutees();
+    int queued = 0;
+    long processed = 0;
+    long processingNanos = 0;
+    for (IMailbox routee : routees)
+    {
+      queued += routee.size();
+      processed += routee.getProcessedCount();
+      processingNanos += routee.getProcessingNanos();
+    }
+
+    val now = System.nanoTime();
+    val delta = resizer.resize(routees.length, queued, processed - lastProcessed, processingNanos - lastProcessingNanos,
+                               now - lastNanos);
+    if (delta > 0)
+      grow(delta);
+    else if (delta < 0)
+      shrink(-delta);
+
+    sample();
+  }
+
+  /**
+   * Adds the given number of routees, stopping at the first one which cannot be created
+   */
+  private void grow(final int count)
+  {
+    for (int i = 0; i < count; i++)
+    {
+      try
+      {
+        if (!router.addRoutee(factory.create()))
+          return;
+      }
+      catch(ActorCreationException e)
+      {
+        if (config.isLoggingEnabled())
+          logger.info(this + " could not create a routee: " + StackTraceLogging.format(e, StackTraceLevel.ABBREVIATED));
+        return;
+      }
+    }
+
+    if (config.isLoggingEnabled())
+      logger.info(this + " grew to " + router.getRouteeCount() + " routees");
+  }
+
+  /**
+   * Removes the given number of routees, retiring them until their queued messages are processed
+   */
+  private void shrink(final int count)
+  {
+    for (int i = 0; i < count; i++)
+    {
+      val removed = router.removeRoutee();
+      if (removed == null)
+        break;
+      retired.add(removed);
+    }
+
+    if (config.isLoggingEnabled())
+      logger.info(this + " shrank to " + router.getRouteeCount() + " routees");
+  }
+
+  /**
+   * Shuts down the retired routees with no messages left. Checked on the next run after retiring, so that senders which picked a
+   * routee just before it was removed have queued their message by then.
+   */
+  private void shutdownIdleRetirees()
+  {
+    for (Iterator<IMailbox> it = retired.iterator(); it.hasNext();)
+    {
+      val routee = it.next();
+      if (routee.size() == 0)
+      {
+        routee.shutdown();
+        it.remove();
+      }
+    }
+  }
+
+  /**
+   * Records the counters of the current routees, against which the next run measures their activity
+   */
+  private void sample()
+  {
+    long processed = 0;
+    long processingNanos = 0;
+    for (IMailbox routee : router.getRoutees())
+    {
+      processed += routee.getProcessedCount();
+      processingNanos += routee.getProcessingNanos();
+    }
+
+    lastProcessed = processed;
+    lastProcessingNanos = processingNanos;
+    lastNanos = System.nanoTime();
+  }
+
+  /**
+   * Stops resizing and shuts down the retired routees
+   */
+  private void stop()
+  {
+    if (task != null)
+      task.cancel(false);
+
+    for (IMailbox routee : retired)
+      routee.shutdown();
+    retired.clear();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + " (of " + router.getUrl() + ", " + resizer + ")";
+  }
+}
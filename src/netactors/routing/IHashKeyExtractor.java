@@ -0,0 +1,34 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.routing;
+
+import java.io.Serializable;
+
+/**
+ * Interface of an extractor of the key that consistent-hash routing hashes messages by. Messages with equal keys are passed to the
+ * same routee, as long as the number of routees does not change.
+ */
+public interface IHashKeyExtractor
+{
+  /**
+   * Returns the key of a message, whose hashCode() must be stable across JVMs if routing should agree between nodes. Null keys are
+   * routed like the message itself.
+   */
+  Object getHashKey(Serializable message);
+}
@@ -0,0 +1,35 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.routing;
+
+import java.io.Serializable;
+import netactors.mailbox.IMailbox;
+
+/**
+ * Interface of a routing logic, choosing which routee of a router processes a message. Routing runs on the sending thread,
+ * concurrently with other senders, so implementations must be thread-safe and should not lock.
+ */
+public interface IRoutingLogic
+{
+  /**
+   * Returns the index of the routee to pass the message to. Messages sent in envelopes are given unwrapped. Values out of range
+   * are wrapped around.
+   */
+  int select(Serializable message, IMailbox[] routees);
+}
@@ -0,0 +1,121 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.routing;
+
+import lombok.Getter;
+import lombok.val;
+
+/**
+ * Decides how a pool of routees is resized, within its bounds. The pool grows by half its size, at least one routee, when its
+ * routees are under pressure: either the average number of messages queued per routee reaches the pressure threshold, or the
+ * average processing time per message exceeds the latency threshold, if any. It shrinks by one routee when idle: nothing is queued
+ * and its routees were busy less than the idle threshold, a fraction of the time elapsed. Growing fast and shrinking slowly lets a
+ * pool follow bursts without thrashing.
+ */
+public final class Resizer
+{
+  public static final int DEFAULT_PRESSURE_THRESHOLD = 10;
+  public static final double DEFAULT_IDLE_THRESHOLD = 0.1;
+  public static final long DEFAULT_INTERVAL_MILLIS = 1000;
+
+  @Getter
+  private final int lowerBound;
+  @Getter
+  private final int upperBound;
+  @Getter
+  private final int pressureThreshold;
+  @Getter
+  private final long latencyThresholdMicros;
+  @Getter
+  private final double idleThreshold;
+  @Getter
+  private final long intervalMillis;
+
+  /**
+   * Constructor, growing under the default pressure, without a latency threshold, and checking the pool every second
+   * 
+   * @throws IllegalArgumentException The bounds are invalid
+   */
+  public Resizer(final int lowerBound, final int upperBound)
+  {
+    this(lowerBound, upperBound, DEFAULT_PRESSURE_THRESHOLD, 0, DEFAULT_IDLE_THRESHOLD, DEFAULT_INTERVAL_MILLIS);
+  }
+
+  /**
+   * Constructor. A latency threshold of zero disables growing on latency.
+   * 
+   * @throws IllegalArgumentException The lower bound is not positive, the upper bound is below the lower one, the pressure
+   *           threshold or interval is not positive, the latency threshold is negative or the idle threshold is not within [0, 1)
+   */
+  public Resizer(final int lowerBound, final int upperBound, final int pressureThreshold, final long latencyThresholdMicros,
+                 final double idleThreshold, final long intervalMillis)
+  {
+    if (lowerBound <= 0)
+      throw new IllegalArgumentException("lowerBound=" + lowerBound);
+    if (upperBound < lowerBound)
+      throw new IllegalArgumentException("upperBound=" + upperBound);
+    if (pressureThreshold <= 0)
+      throw new IllegalArgumentException("pressureThreshold=" + pressureThreshold);
+    if (latencyThresholdMicros < 0)
+      throw new IllegalArgumentException("latencyThresholdMicros=" + latencyThresholdMicros);
+    if (idleThreshold < 0 || idleThreshold >= 1)
+      throw new IllegalArgumentException("idleThreshold=" + idleThreshold);
+    if (intervalMillis <= 0)
+      throw new IllegalArgumentException("intervalMillis=" + intervalMillis);
+
+    this.lowerBound = lowerBound;
+    this.upperBound = upperBound;
+    this.pressureThreshold = pressureThreshold;
+    this.latencyThresholdMicros = latencyThresholdMicros;
+    this.idleThreshold = idleThreshold;
+    this.intervalMillis = intervalMillis;
+  }
+
+  /**
+   * Returns the number of routees to add to a pool, or to remove if negative, given the number of messages queued for its routees
+   * and the number of messages they processed, and the time they spent doing so, since the pool was last checked
+   */
+  public int resize(final int routees, final int queued, final long processed, final long processingNanos, final long elapsedNanos)
+  {
+    if (routees < lowerBound)
+      return lowerBound - routees;
+    if (routees > upperBound)
+      return upperBound - routees;
+
+    val pressured = queued >= (long) pressureThreshold * routees
+        || (latencyThresholdMicros > 0 && processed > 0 && processingNanos / processed > latencyThresholdMicros * 1000);
+    if (pressured)
+      return Math.min(upperBound - routees, Math.max(1, routees / 2));
+
+    val idle = queued == 0 && processingNanos < idleThreshold * elapsedNanos * routees;
+    if (idle && routees > lowerBound)
+      return -1;
+
+    return 0;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + " (" + lowerBound + " to " + upperBound + " routees)";
+  }
+}
@@ -0,0 +1,51 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.routing;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicInteger;
+import netactors.mailbox.IMailbox;
+
+/**
+ * Routing logic passing messages to each routee in turn
+ */
+public final class RoundRobinRouting
+    implements IRoutingLogic
+{
+  private final AtomicInteger next = new AtomicInteger();
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int select(final Serializable message, final IMailbox[] routees)
+  {
+    // the counter may overflow, which the router wraps around
+    return next.getAndIncrement();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName();
+  }
+}
@@ -0,0 +1,270 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.routing;
+
+import java.io.Serializable;
+import lombok.Getter;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+import lombok.val;
+import netactors.actor.IActor;
+import netactors.config.IActorConfiguration;
+import netactors.mailbox.IMailbox;
+import netactors.nexus.ActorURL;
+import netactors.nexus.Envelope;
+
+/**
+ * Implementation of a router, fronting a set of routees under a single URL. The router takes the place of an actor's mailbox, so
+ * that messages arriving over any adapter are passed straight to the mailbox of the routee chosen by the routing logic, on the
+ * sending thread. Routing takes no lock, so routees process messages in parallel, each one at a time like any actor.
+ * <p>
+ * Routees may be added and removed while messages are routed: the set of routees is replaced as a whole on each change, so routing
+ * always sees a consistent one.
+ */
+public final class Router
+    implements IActor, IMailbox
+{
+  private final IActorConfiguration config;
+  @Getter
+  private final IRoutingLogic logic;
+  // replaced on each change, guarded by this
+  private volatile IMailbox[] routees;
+  private volatile boolean closed;
+
+  /**
+   * Constructor
+   * 
+   * @throws NullPointerException An argument is null
+   * @throws IllegalArgumentException There are no routees
+   */
+  @Validate
+  public Router(@NotNull final IActorConfiguration config, @NotNull final IMailbox[] routees, @NotNull final IRoutingLogic logic)
+  {
+    if (routees.length == 0)
+      throw new IllegalArgumentException("No routees");
+
+    this.config = config;
+    this.routees = routees.clone();
+    this.logic = logic;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public ActorURL getUrl()
+  {
+    return config.getUrl();
+  }
+
+  /**
+   * Returns the router itself, which stands in for the actors of its routees
+   */
+  @Override
+  public IActor getActor()
+  {
+    return this;
+  }
+
+  /**
+   * Returns the number of routees
+   */
+  public int getRouteeCount()
+  {
+    return routees.length;
+  }
+
+  /**
+   * Returns the mailboxes of the routees
+   */
+  public IMailbox[] getRoutees()
+  {
+    return routees.clone();
+  }
+
+  /**
+   * Adds a routee, which starts receiving messages straight away. Returns false if the router is shut down, in which case the
+   * routee is shut down as well.
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public synchronized boolean addRoutee(@NotNull final IMailbox routee)
+  {
+    if (closed)
+    {
+      routee.shutdown();
+      return false;
+    }
+
+    val current = routees;
+    val result = new IMailbox[current.length + 1];
+    System.arraycopy(current, 0, result, 0, current.length);
+    result[current.length] = routee;
+    routees = result;
+    return true;
+  }
+
+  /**
+   * Removes the most recently added routee, unless it is the only one left, and returns it, or null if none was removed. The routee
+   * is not shut down, as messages may still be queued for it.
+   */
+  public synchronized IMailbox removeRoutee()
+  {
+    val current = routees;
+    if (closed || current.length <= 1)
+      return null;
+
+    val result = new IMailbox[current.length - 1];
+    System.arraycopy(current, 0, result, 0, result.length);
+    routees = result;
+    return current[result.length];
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public void onReceive(@NotNull final Serializable message)
+  {
+    enqueue(message);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public void send(@NotNull final Serializable message)
+  {
+    enqueue(message);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public boolean trySend(@NotNull final Serializable message)
+  {
+    return offer(message);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public void enqueue(@NotNull final Serializable message)
+  {
+    if (!closed)
+      route(message).enqueue(message);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  @Validate
+  public boolean offer(@NotNull final Serializable message)
+  {
+    return !closed && route(message).offer(message);
+  }
+
+  /**
+   * Returns the number of messages waiting to be processed by all routees
+   */
+  @Override
+  public int size()
+  {
+    int result = 0;
+    for (IMailbox routee : routees)
+      result += routee.size();
+
+    return result;
+  }
+
+  /**
+   * Returns the number of messages processed by the current routees
+   */
+  @Override
+  public long getProcessedCount()
+  {
+    long result = 0;
+    for (IMailbox routee : routees)
+      result += routee.getProcessedCount();
+
+    return result;
+  }
+
+  /**
+   * Returns the time the current routees spent processing messages, in nanoseconds
+   */
+  @Override
+  public long getProcessingNanos()
+  {
+    long result = 0;
+    for (IMailbox routee : routees)
+      result += routee.getProcessingNanos();
+
+    return result;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean isShutdown()
+  {
+    return closed;
+  }
+
+  /**
+   * Shuts down the mailboxes of all routees
+   */
+  @Override
+  public synchronized void shutdown()
+  {
+    closed = true;
+    for (IMailbox routee : routees)
+      routee.shutdown();
+  }
+
+  /**
+   * Returns the mailbox of the routee chosen for a message
+   */
+  private IMailbox route(final Serializable message)
+  {
+    val key = message instanceof Envelope ? ((Envelope) message).getMessage() : message;
+    val current = routees;
+    val count = current.length;
+    val index = logic.select(key, current) % count;
+    return current[index < 0 ? index + count : index];
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + " (of " + getUrl() + ", " + routees.length + " routees, " + logic + ")";
+  }
+}
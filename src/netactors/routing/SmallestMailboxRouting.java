@@ -0,0 +1,68 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.routing;
+
+import java.io.Serializable;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.val;
+import netactors.mailbox.IMailbox;
+
+/**
+ * Routing logic passing messages to the routee with the fewest messages waiting. Mailbox sizes are read without locking, so
+ * concurrent senders may pick the same routee. The scan starts at a random routee, so that idle routees share the load.
+ */
+public final class SmallestMailboxRouting
+    implements IRoutingLogic
+{
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int select(final Serializable message, final IMailbox[] routees)
+  {
+    val count = routees.length;
+    val start = ThreadLocalRandom.current().nextInt(count);
+    int best = start;
+    int smallest = Integer.MAX_VALUE;
+    for (int i = 0; i < count; i++)
+    {
+      val index = (start + i) % count;
+      val size = routees[index].size();
+      if (size < smallest)
+      {
+        smallest = size;
+        best = index;
+        // cannot do better than an empty mailbox
+        if (size == 0)
+          break;
+      }
+    }
+
+    return best;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName();
+  }
+}
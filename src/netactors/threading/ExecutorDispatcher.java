@@ -0,0 +1,73 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.threading;
+
+import java.util.concurrent.ExecutorService;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+
+/**
+ * Dispatcher running mailboxes on a thread pool, which is either shared or owned by the dispatcher
+ */
+public final class ExecutorDispatcher
+    implements IDispatcher
+{
+  private final ExecutorService pool;
+  private final boolean owned;
+
+  /**
+   * Constructor
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public ExecutorDispatcher(@NotNull final ExecutorService pool, final boolean owned)
+  {
+    this.pool = pool;
+    this.owned = owned;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void execute(final Runnable task)
+  {
+    pool.execute(task);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void shutdown()
+  {
+    if (owned)
+      pool.shutdownNow();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + (owned ? " (dedicated)" : " (shared)");
+  }
+}
@@ -0,0 +1,76 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.threading;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Work-stealing dispatcher, for throughput-oriented actors. Mailboxes are run in FIFO (asynchronous) mode, which suits event-style
+ * tasks that are never joined.
+ */
+public final class ForkJoinDispatcher
+    implements IDispatcher
+{
+  private final ForkJoinPool pool;
+
+  /**
+   * Default constructor, with a parallelism equal to the number of available processors
+   */
+  public ForkJoinDispatcher()
+  {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Constructor
+   * 
+   * @throws IllegalArgumentException The parallelism is not positive
+   */
+  public ForkJoinDispatcher(final int parallelism)
+  {
+    pool = new ForkJoinPool(parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void execute(final Runnable task)
+  {
+    pool.execute(task);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void shutdown()
+  {
+    pool.shutdownNow();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName() + " (parallelism " + pool.getParallelism() + ")";
+  }
+}
@@ -0,0 +1,34 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.threading;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Interface of a dispatcher, responsible for running actor mailboxes. A dispatcher is owned by the actor it has been given to, and is
+ * shut down along with it.
+ */
+public interface IDispatcher
+    extends Executor
+{
+  /**
+   * Releases any threads owned by this dispatcher. Dispatchers backed by pools shared across the actor system leave them running.
+   */
+  void shutdown();
+}
@@ -0,0 +1,80 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.threading;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+
+/**
+ * Dispatcher dedicating a single thread to an actor, for latency-critical actors that must not queue behind others
+ */
+public final class PinnedDispatcher
+    implements IDispatcher
+{
+  private final ExecutorService thread;
+
+  /**
+   * Default constructor
+   */
+  public PinnedDispatcher()
+  {
+    this(new ActorThreadFactory());
+  }
+
+  /**
+   * Constructor
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public PinnedDispatcher(@NotNull final ThreadFactory threadFactory)
+  {
+    thread = Executors.newSingleThreadExecutor(threadFactory);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void execute(final Runnable task)
+  {
+    thread.execute(task);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void shutdown()
+  {
+    thread.shutdownNow();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString()
+  {
+    return getClass().getSimpleName();
+  }
+}
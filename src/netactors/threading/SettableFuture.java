@@ -0,0 +1,261 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.threading;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.Validate;
+import lombok.Validate.NotNull;
+import lombok.val;
+
+/**
+ * A future completed explicitly, once, either with a value or with a failure, after which any listeners are notified on the
+ * completing thread
+ */
+public class SettableFuture<T>
+    implements Future<T>
+{
+  private boolean done;
+  private boolean cancelled;
+  private T value;
+  private Throwable failure;
+  private List<IFutureListener<? super T>> listeners;
+  // task failing the future on timeout, cancelled when completed earlier
+  private Future<?> timeout;
+
+  /**
+   * Returns a future already completed with the given value
+   */
+  public static <T> SettableFuture<T> completed(final T value)
+  {
+    val result = new SettableFuture<T>();
+    result.complete(value);
+    return result;
+  }
+
+  /**
+   * Returns a future already failed with the given cause
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  public static <T> SettableFuture<T> failed(final Throwable cause)
+  {
+    val result = new SettableFuture<T>();
+    result.fail(cause);
+    return result;
+  }
+
+  /**
+   * Completes the future with a value. Returns false if it was already completed.
+   */
+  public boolean complete(final T value)
+  {
+    List<IFutureListener<? super T>> toNotify;
+    synchronized(this)
+    {
+      if (done)
+        return false;
+
+      this.value = value;
+      toNotify = finish();
+    }
+
+    if (toNotify != null)
+      for (val listener : toNotify)
+        listener.onSuccess(value);
+
+    return true;
+  }
+
+  /**
+   * Completes the future with a failure. Returns false if it was already completed.
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public boolean fail(@NotNull final Throwable cause)
+  {
+    return fail(cause, false);
+  }
+
+  /**
+   * Completes the future with a failure, marking it as cancelled if requested. Returns false if it was already completed.
+   */
+  private boolean fail(final Throwable cause, final boolean cancel)
+  {
+    List<IFutureListener<? super T>> toNotify;
+    synchronized(this)
+    {
+      if (done)
+        return false;
+
+      this.cancelled = cancel;
+      this.failure = cause;
+      toNotify = finish();
+    }
+
+    if (toNotify != null)
+      for (val listener : toNotify)
+        listener.onFailure(cause);
+
+    return true;
+  }
+
+  /**
+   * Registers a listener, which is notified immediately if the future has already completed
+   * 
+   * @throws NullPointerException An argument is null
+   */
+  @Validate
+  public void addListener(@NotNull final IFutureListener<? super T> listener)
+  {
+    synchronized(this)
+    {
+      if (!done)
+      {
+        if (listeners == null)
+          listeners = new ArrayList<IFutureListener<? super T>>(1);
+        listeners.add(listener);
+        return;
+      }
+    }
+
+    if (failure != null)
+      listener.onFailure(failure);
+    else
+      listener.onSuccess(value);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean cancel(final boolean mayInterruptIfRunning)
+  {
+    return fail(new CancellationException("Cancelled"), true);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized boolean isCancelled()
+  {
+    return cancelled;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized boolean isDone()
+  {
+    return done;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized T get()
+      throws InterruptedException, ExecutionException
+  {
+    while (!done)
+      wait();
+
+    return result();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized T get(final long timeout, final TimeUnit unit)
+      throws InterruptedException, ExecutionException, TimeoutException
+  {
+    val deadline = System.nanoTime() + unit.toNanos(timeout);
+    while (!done)
+    {
+      val remaining = deadline - System.nanoTime();
+      if (remaining <= 0)
+        throw new TimeoutException("Not completed within " + timeout + " " + unit);
+      TimeUnit.NANOSECONDS.timedWait(this, remaining);
+    }
+
+    return result();
+  }
+
+  /**
+   * Sets the task failing this future on timeout, which is cancelled once the future completes
+   */
+  protected synchronized void setTimeoutTask(final Future<?> timeout)
+  {
+    if (done)
+      timeout.cancel(false);
+    else
+      this.timeout = timeout;
+  }
+
+  /**
+   * Marks the future as done, wakes up any waiters and returns the listeners to notify. Must be called while holding the lock.
+   */
+  private List<IFutureListener<? super T>> finish()
+  {
+    done = true;
+    notifyAll();
+
+    if (timeout != null)
+    {
+      timeout.cancel(false);
+      timeout = null;
+    }
+
+    val result = listeners;
+    listeners = null;
+    return result;
+  }
+
+  /**
+   * Returns the value or throws the failure of a completed future. Must be called while holding the lock.
+   */
+  private T result()
+      throws ExecutionException
+  {
+    if (cancelled)
+      throw (CancellationException) failure;
+    if (failure != null)
+      throw new ExecutionException(failure);
+
+    return value;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public synchronized String toString()
+  {
+    return getClass().getSimpleName() + " (" + (done ? (failure != null ? "failed" : "completed") : "pending") + ")";
+  }
+}
@@ -0,0 +1,86 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.threading;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.val;
+
+/**
+ * Provides virtual-thread executors on JVMs that support them (Java 21 onwards). Looked up reflectively, so that the library still
+ * builds and runs on older JVMs.
+ */
+public final class VirtualThreads
+{
+  private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findFactoryMethod();
+
+  /**
+   * Private constructor prevents instantiation
+   */
+  private VirtualThreads()
+  {
+  }
+
+  /**
+   * Returns true if the running JVM supports virtual threads
+   */
+  public static boolean isSupported()
+  {
+    return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+  }
+
+  /**
+   * Creates an executor that starts a new virtual thread for each task
+   * 
+   * @throws UnsupportedOperationException The running JVM does not support virtual threads
+   */
+  public static ExecutorService newVirtualThreadPerTaskExecutor()
+  {
+    if (!isSupported())
+      throw new UnsupportedOperationException("Virtual threads are not supported by this JVM: " + System.getProperty("java.version"));
+
+    try
+    {
+      return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+    }
+    catch(Exception e)
+    {
+      throw new UnsupportedOperationException("Could not create a virtual thread executor", e);
+    }
+  }
+
+  /**
+   * Returns the virtual-thread executor factory method, or null if not available. The method is invoked once, because on some JVMs
+   * it exists but fails unless preview features are enabled.
+   */
+  private static Method findFactoryMethod()
+  {
+    try
+    {
+      val method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      ((ExecutorService) method.invoke(null)).shutdown();
+      return method;
+    }
+    catch(Exception e)
+    {
+      return null;
+    }
+  }
+}
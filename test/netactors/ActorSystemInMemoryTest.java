@@ -19,19 +19,44 @@
 package netactors;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.util.ArrayList;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import lombok.val;
 import netactors.actor.CachingActor;
 import netactors.actor.CachingPingPongActor;
 import netactors.actor.FailingActor;
 import netactors.actor.InvalidConstructorProtectedActor;
 import netactors.actor.InvalidNoArgConstructorActor;
+import netactors.actor.RelayActor;
+import netactors.actor.ReplyingActor;
+import netactors.actor.RouteeActor;
+import netactors.actor.SenderEchoActor;
+import netactors.actor.SleepingActor;
 import netactors.config.ActorConfiguration;
 import netactors.exception.ActorCreationException;
+import netactors.exception.ActorNotFoundException;
+import netactors.mailbox.OverflowPolicy;
 import netactors.nexus.ActorURL;
 import netactors.nexus.AdapterFactory;
 import netactors.nexus.IAdapterFactory;
 import netactors.nexus.ProtocolType;
 import netactors.registry.AdapterRegistry;
+import netactors.reply.ReplyFuture;
+import netactors.routing.RandomRouting;
+import netactors.routing.Resizer;
+import netactors.routing.RoundRobinRouting;
+import netactors.threading.IDispatcher;
 import org.junit.Test;
 import propel.core.functional.tuples.Pair;
 import common.TestAspectDecorator;
@@ -135,6 +160,61 @@ public class ActorSystemInMemoryTest
     }
   }
 
+  @Test
+  public void givenActorWithMetrics_whenShutDownAndCreatedAgain_thenMetricsStartAfresh()
+      throws Exception
+  {
+    val as = createSystem1();
+    try
+    {
+      val actor = as.actorOf(CachingActor.class);
+      for (int i = 0; i < 3; i++)
+        actor.send(i);
+      Thread.sleep(getDelayMillis());
+      assertEquals(3, as.getMetrics().getActor(getUrl1()).getReceived());
+
+      assertTrue(((ActorSystem) as).getActorRegistry().shutdown(getUrl1()));
+      assertNull(as.getMetrics().getActor(getUrl1()));
+
+      as.actorOf(CachingActor.class);
+      assertEquals(0, as.getMetrics().getActor(getUrl1()).getReceived());
+    }
+    finally
+    {
+      as.shutdown();
+    }
+  }
+
+  @Test
+  public void givenBoundedMailbox_whenMessagesTriedBeyondCapacity_thenNotAccepted()
+      throws Exception
+  {
+    val as = new ActorSystem(new ActorConfiguration(getUrl1()).withMailboxCapacity(2, OverflowPolicy.DROP_NEWEST));
+    try
+    {
+      // the dispatcher never runs the actor, so its mailbox fills up
+      val actor = as.actorOf(CachingActor.class, new Object[0], new IDispatcher() {
+        public void execute(final Runnable task)
+        {
+        }
+
+        public void shutdown()
+        {
+        }
+      });
+
+      assertTrue(actor.trySend("1"));
+      assertTrue(as.tryTell(getUrl1(), "2"));
+      assertFalse(actor.trySend("3"));
+      assertFalse(as.tryTell(getUrl1(), "4"));
+      assertFalse(as.tryTell(getUrl2(), "5"));
+    }
+    finally
+    {
+      as.shutdown();
+    }
+  }
+
   @Test
   public void givenTwoActors_whenDataExchangedBetweenActorRefs_thenDataReceived()
       throws Exception
@@ -189,6 +269,46 @@ public class ActorSystemInMemoryTest
     }
   }
 
+  @Test
+  public void givenRemoteSystemRestarted_whenSentThroughSameRef_thenNewActorReceives()
+      throws Exception
+  {
+    val adapterFactory = new AdapterFactory(new AdapterRegistry());
+    val as1 = createSystem1(adapterFactory);
+    try
+    {
+      IActorSystem as2 = createSystem2(adapterFactory);
+      try
+      {
+        val act2 = as2.actorOf(CachingActor.class);
+        val act2Ref = as1.actorFor(getUrl2());
+        act2Ref.send("before");
+        Thread.sleep(getDelayMillis());
+        assertEquals(Arrays.asList("before"), act2.getCache());
+
+        as2.shutdown();
+        as2 = createSystem2(adapterFactory);
+        val restarted = as2.actorOf(CachingActor.class);
+        for (int i = 0; i < 20 && restarted.getCache().isEmpty(); i++)
+        {
+          act2Ref.send("after");
+          Thread.sleep(getDelayMillis());
+        }
+
+        assertEquals("after", restarted.getCache().get(0));
+        assertEquals(Arrays.asList("before"), act2.getCache());
+      }
+      finally
+      {
+        as2.shutdown();
+      }
+    }
+    finally
+    {
+      as1.shutdown();
+    }
+  }
+
   @Test
   public void givenTwoPingPongActors_whenDataExchangedBetweenActorRefs_thenDataReceivedAndSent()
       throws Exception
@@ -296,6 +416,472 @@ public class ActorSystemInMemoryTest
     }
   }
 
+  @Test
+  public void givenTwoSystems_whenManyRequestsAsked_thenEachFutureCompletedWithItsReply()
+      throws Exception
+  {
+    val as = createTwoSystems();
+
+    val as1 = as.getFirst();
+    try
+    {
+      val as2 = as.getSecond();
+      try
+      {
+        as2.actorOf(ReplyingActor.class);
+        as1.actorOf(ReplyingActor.class);
+        as1.actorFor(getUrl2());
+
+        // pipeline requests to the remote actor, then one to the local actor
+        val futures = new ArrayList<ReplyFuture>();
+        for (int i = 0; i < 100; i++)
+          futures.add(as1.ask(getUrl2(), "request" + i, 5000));
+        val local = as1.ask(getUrl1(), "local", 5000);
+
+        for (int i = 0; i < futures.size(); i++)
+          assertEquals(ReplyingActor.PREFIX + "request" + i, futures.get(i).get(5, TimeUnit.SECONDS));
+        assertEquals(ReplyingActor.PREFIX + "local", local.get(5, TimeUnit.SECONDS));
+      }
+      finally
+      {
+        as2.shutdown();
+      }
+    }
+    finally
+    {
+      as1.shutdown();
+    }
+  }
+
+  @Test
+  public void givenRequestNeverReplied_whenAsked_thenFutureTimesOut()
+      throws Exception
+  {
+    val as = createTwoSystems();
+
+    val as1 = as.getFirst();
+    try
+    {
+      val as2 = as.getSecond();
+      try
+      {
+        as2.actorOf(ReplyingActor.class);
+        as1.actorFor(getUrl2());
+
+        val future = as1.ask(getUrl2(), ReplyingActor.IGNORED, getDelayMillis());
+        try
+        {
+          future.get(5, TimeUnit.SECONDS);
+          fail("Expected a timeout");
+        }
+        catch(ExecutionException e)
+        {
+          assertTrue(e.getCause() instanceof TimeoutException);
+        }
+      }
+      finally
+      {
+        as2.shutdown();
+      }
+    }
+    finally
+    {
+      as1.shutdown();
+    }
+  }
+
+  @Test
+  public void givenRequestNeverReplied_whenAskCancelled_thenNoLongerPending()
+      throws Exception
+  {
+    val as = createTwoSystems();
+
+    val as1 = as.getFirst();
+    try
+    {
+      val as2 = as.getSecond();
+      try
+      {
+        as2.actorOf(ReplyingActor.class);
+        as1.actorFor(getUrl2());
+
+        val replyRegistry = ((ActorSystem) as1).getSystemContext().getReplyRegistry();
+        val future = as1.ask(getUrl2(), ReplyingActor.IGNORED, 60000);
+        assertEquals(1, replyRegistry.size());
+
+        assertTrue(future.cancel(false));
+        assertEquals(0, replyRegistry.size());
+      }
+      finally
+      {
+        as2.shutdown();
+      }
+    }
+    finally
+    {
+      as1.shutdown();
+    }
+  }
+
+  @Test
+  public void givenNoActor_whenAsked_thenFutureFailsImmediately()
+      throws Exception
+  {
+    val as = createSystem1();
+    try
+    {
+      val future = as.ask(getUrl2(), "request", 5000);
+      assertTrue(future.isDone());
+      try
+      {
+        future.get();
+        fail("Expected a failure");
+      }
+      catch(ExecutionException e)
+      {
+        assertTrue(e.getCause() instanceof ActorNotFoundException);
+      }
+    }
+    finally
+    {
+      as.shutdown();
+    }
+  }
+
+  @Test
+  public void givenTwoSystems_whenSenderSentBackTo_thenMessageArrivesWithHeaders()
+      throws Exception
+  {
+    val as = createTwoSystems();
+
+    val as1 = as.getFirst();
+    try
+    {
+      val as2 = as.getSecond();
+      try
+      {
+        val act1 = as1.actorOf(CachingActor.class);
+        as2.actorOf(SenderEchoActor.class);
+        as1.actorFor(getUrl2());
+
+        val headers = new HashMap<String, String>();
+        headers.put(SenderEchoActor.HEADER, "42");
+        as1.tell(getUrl2(), "123", headers);
+        Thread.sleep(getDelayMillis());
+
+        assertEquals(1, act1.getCache().size());
+        assertEquals(SenderEchoActor.PREFIX + "123 42", act1.getCache().get(0));
+
+        // network actors send back over the inbound connection, rather than connecting to the sender
+        assertEquals(isReturnPathReused(), ((ActorSystem) as2).getActorRegistry().get(getUrl1()) == null);
+      }
+      finally
+      {
+        as2.shutdown();
+      }
+    }
+    finally
+    {
+      as1.shutdown();
+    }
+  }
+
+  @Test
+  public void givenNamedActorsUnderOneNode_whenEachSentTo_thenEachReceivesItsOwnMessages()
+      throws Exception
+  {
+    val as = createTwoSystems();
+
+    val as1 = as.getFirst();
+    try
+    {
+      val as2 = as.getSecond();
+      try
+      {
+        val act1 = as1.actorOf(CachingActor.class);
+        val act2 = as2.actorOf(CachingActor.class);
+        val actA = as2.actorOf("a", CachingActor.class, new Object[0]);
+        as2.actorOf("echo", SenderEchoActor.class, new Object[0]);
+
+        val urlA = named(getUrl2(), "a");
+        assertEquals(urlA, actA.getUrl());
+        assertEquals(null, as1.actorFor(named(getUrl1(), "a")));
+
+        as1.actorFor(getUrl2()).send("root");
+        as1.actorFor(urlA).send("a");
+        as1.actorFor(named(getUrl2(), "echo"));
+        as1.tell(named(getUrl2(), "echo"), "123");
+        Thread.sleep(getDelayMillis());
+
+        assertEquals(1, act2.getCache().size());
+        assertEquals("root", act2.getCache().get(0));
+        assertEquals(1, actA.getCache().size());
+        assertEquals("a", actA.getCache().get(0));
+        assertEquals(1, act1.getCache().size());
+        assertEquals(SenderEchoActor.PREFIX + "123 null", act1.getCache().get(0));
+      }
+      finally
+      {
+        as2.shutdown();
+      }
+    }
+    finally
+    {
+      as1.shutdown();
+    }
+  }
+
+  @Test
+  public void givenNamedActorSendingThroughReference_whenRecipientRepliesToSender_thenReplyReachesNamedActor()
+      throws Exception
+  {
+    val as = createTwoSystems();
+
+    val as1 = as.getFirst();
+    try
+    {
+      val as2 = as.getSecond();
+      try
+      {
+        val act1 = as1.actorOf(CachingActor.class);
+        val relay = as1.actorOf("relay", RelayActor.class, new Object[0]);
+        as2.actorOf("echo", SenderEchoActor.class, new Object[0]);
+        val echoUrl = named(getUrl2(), "echo");
+        as1.actorFor(echoUrl);
+
+        relay.send(echoUrl);
+        for (int i = 0; i < 20 && relay.getCache().size() < 1; i++)
+          Thread.sleep(getDelayMillis());
+
+        assertEquals(Arrays.asList((Object) (SenderEchoActor.PREFIX + "ping null")), relay.getCache());
+        assertEquals(0, act1.getCache().size());
+      }
+      finally
+      {
+        as2.shutdown();
+      }
+    }
+    finally
+    {
+      as1.shutdown();
+    }
+  }
+
+  @Test
+  public void givenRouter_whenMessagesSentFromRemoteSystem_thenSpreadOverAllRoutees()
+      throws Exception
+  {
+    val as = createTwoSystems();
+    val as1 = as.getFirst();
+    try
+    {
+      val as2 = as.getSecond();
+      try
+      {
+        val received = new ConcurrentHashMap<Serializable, RouteeActor>();
+        val router = as2.routerOf("workers", RouteeActor.class, new Object[] {received}, 4, new RoundRobinRouting());
+        assertEquals(named(getUrl2(), "workers"), router.getUrl());
+        assertTrue(as1.actorFor(named(getUrl2(), "workers")) != null);
+
+        for (int i = 0; i < 40; i++)
+          as1.tell(named(getUrl2(), "workers"), i);
+        for (int i = 0; i < 20 && received.size() < 40; i++)
+          Thread.sleep(getDelayMillis());
+
+        assertEquals(40, received.size());
+        assertEquals(4, new HashSet<RouteeActor>(received.values()).size());
+      }
+      finally
+      {
+        as2.shutdown();
+      }
+    }
+    finally
+    {
+      as1.shutdown();
+    }
+  }
+
+  @Test
+  public void givenGroupAcrossTwoSystems_whenMessageBroadcast_thenEachMemberReceivesItOnce()
+      throws Exception
+  {
+    val as = createTwoSystems();
+    val as1 = as.getFirst();
+    try
+    {
+      val as2 = as.getSecond();
+      try
+      {
+        val act1 = as1.actorOf(CachingActor.class);
+        val act2 = as2.actorOf(CachingActor.class);
+        val actA = as2.actorOf("a", CachingActor.class, new Object[0]);
+
+        val group = as1.groupOf(Arrays.asList(getUrl1(), getUrl2(), named(getUrl2(), "a"), getUrl2()));
+        assertEquals(3, group.getMembers().size());
+        assertEquals(3, group.tell("hello"));
+        Thread.sleep(getDelayMillis());
+
+        assertEquals(Arrays.asList("hello"), act1.getCache());
+        assertEquals(Arrays.asList("hello"), act2.getCache());
+        assertEquals(Arrays.asList("hello"), actA.getCache());
+      }
+      finally
+      {
+        as2.shutdown();
+      }
+    }
+    finally
+    {
+      as1.shutdown();
+    }
+  }
+
+  @Test
+  public void givenGroupAcrossSystemsSharingRegistry_whenMessageBroadcast_thenEachMemberReceivesItOnce()
+      throws Exception
+  {
+    val adapterFactory = new AdapterFactory(new AdapterRegistry());
+    val as1 = createSystem1(adapterFactory);
+    try
+    {
+      val as2 = createSystem2(adapterFactory);
+      try
+      {
+        val as3 = new ActorSystem(createConfiguration(getUrl3()), adapterFactory);
+        try
+        {
+          val act2 = as2.actorOf(CachingActor.class);
+          val actA = as2.actorOf("a", CachingActor.class, new Object[0]);
+          val act3 = as3.actorOf(CachingActor.class);
+          val actB = as3.actorOf("b", CachingActor.class, new Object[0]);
+
+          val group = as1.groupOf(Arrays.asList(getUrl2(), named(getUrl2(), "a"), getUrl3(), named(getUrl3(), "b")));
+          assertEquals(4, group.tell("hello"));
+          Thread.sleep(getDelayMillis());
+
+          assertEquals(Arrays.asList("hello"), act2.getCache());
+          assertEquals(Arrays.asList("hello"), actA.getCache());
+          assertEquals(Arrays.asList("hello"), act3.getCache());
+          assertEquals(Arrays.asList("hello"), actB.getCache());
+        }
+        finally
+        {
+          as3.shutdown();
+        }
+      }
+      finally
+      {
+        as2.shutdown();
+      }
+    }
+    finally
+    {
+      as1.shutdown();
+    }
+  }
+
+  @Test
+  public void givenGroupOfReplyingActors_whenRequestsGathered_thenAllOrFirstRepliesReturned()
+      throws Exception
+  {
+    val as = createTwoSystems();
+    val as1 = as.getFirst();
+    try
+    {
+      val as2 = as.getSecond();
+      try
+      {
+        as1.actorOf(ReplyingActor.class);
+        as2.actorOf(ReplyingActor.class);
+        as2.actorOf("b", ReplyingActor.class, new Object[0]);
+        val group = as1.groupOf(Arrays.asList(getUrl1(), getUrl2(), named(getUrl2(), "b")));
+
+        val all = group.gather("request", 5000).get(5, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList(ReplyingActor.PREFIX + "request", ReplyingActor.PREFIX + "request",
+                                   ReplyingActor.PREFIX + "request"), all);
+
+        val first = group.gather("first", 1, 5000).get(5, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList(ReplyingActor.PREFIX + "first"), first);
+
+        // unanswered requests complete with whatever arrived by the deadline
+        val ignored = group.gather(ReplyingActor.IGNORED, getDelayMillis());
+        assertTrue(ignored.get(5, TimeUnit.SECONDS).isEmpty());
+      }
+      finally
+      {
+        as2.shutdown();
+      }
+    }
+    finally
+    {
+      as1.shutdown();
+    }
+  }
+
+  @Test
+  public void givenPool_whenBurstSentAndThenIdle_thenGrowsAndShrinksBack()
+      throws Exception
+  {
+    val as = createSystem1();
+    try
+    {
+      val resizer = new Resizer(1, 4, 2, 0, 0.1, 20);
+      val pool = as.poolOf("pool", SleepingActor.class, new Object[] {10L}, new RoundRobinRouting(), resizer);
+      assertEquals(1, pool.getRouteeCount());
+
+      for (int i = 0; i < 100; i++)
+        as.tell(pool.getUrl(), i);
+      for (int i = 0; i < 100 && pool.getRouteeCount() < 4; i++)
+        Thread.sleep(20);
+      assertEquals(4, pool.getRouteeCount());
+
+      for (int i = 0; i < 250 && pool.getRouteeCount() > 1; i++)
+        Thread.sleep(20);
+      assertEquals(1, pool.getRouteeCount());
+      assertEquals(0, pool.size());
+    }
+    finally
+    {
+      as.shutdown();
+    }
+  }
+
+  @Test(expected = ActorCreationException.class)
+  public void givenActorSystem_whenRouterWithoutRouteesCreated_thenExceptionThrown()
+      throws Exception
+  {
+    val as = createSystem1();
+    try
+    {
+      as.routerOf("workers", CachingActor.class, new Object[0], 0, new RandomRouting());
+    }
+    finally
+    {
+      as.shutdown();
+    }
+  }
+
+  @Test(expected = ActorCreationException.class)
+  public void givenActorSystem_whenActorNamedWithSlash_thenExceptionThrown()
+      throws Exception
+  {
+    val as = createSystem1();
+    try
+    {
+      as.actorOf("a/b", CachingActor.class, new Object[0]);
+    }
+    finally
+    {
+      as.shutdown();
+    }
+  }
+
+  private static ActorURL named(final ActorURL node, final String name)
+  {
+    return new ActorURL(node.getProtocol(), node.getHost(), node.getPort(), name);
+  }
+
   protected Pair<IActorSystem, IActorSystem> createTwoSystems()
   {
     // systems must share the same adapter registry, if ran in-memory, so that they can communicate and share data
@@ -312,18 +898,28 @@ public class ActorSystemInMemoryTest
 
   protected IActorSystem createSystem1(IAdapterFactory factory)
   {
-    val actorConfig1 = new ActorConfiguration(getUrl1());
+    val actorConfig1 = createConfiguration(getUrl1());
     val actorSystem1 = new ActorSystem(actorConfig1, factory);
     return actorSystem1;
   }
 
   protected IActorSystem createSystem2(IAdapterFactory factory)
   {
-    val actorConfig2 = new ActorConfiguration(getUrl2());
+    val actorConfig2 = createConfiguration(getUrl2());
     val actorSystem2 = new ActorSystem(actorConfig2, factory);
     return actorSystem2;
   }
 
+  protected ActorConfiguration createConfiguration(ActorURL url)
+  {
+    return new ActorConfiguration(url);
+  }
+
+  protected boolean isReturnPathReused()
+  {
+    return false;
+  }
+
   protected ActorURL getUrl1()
   {
     return URL1;
@@ -18,8 +18,32 @@
 // /////////////////////////////////////////////////////////
 package netactors;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import lombok.val;
+import netactors.actor.CachingActor;
+import netactors.actor.SleepingActor;
+import netactors.exception.AdapterStartException;
 import netactors.nexus.ActorURL;
+import netactors.nexus.AdapterFactory;
+import netactors.nexus.Envelope;
 import netactors.nexus.ProtocolType;
+import netactors.nexus.common.AbstractClientTcpUdpAdapter;
+import org.junit.Test;
 
 public class ActorSystemTcpTest
     extends ActorSystemInMemoryTest
@@ -29,6 +53,12 @@ public class ActorSystemTcpTest
   private final ActorURL URL3 = new ActorURL(ProtocolType.TCP, "localhost", 12347);
   private final int DELAY_MS = 250;
 
+  @Override
+  protected boolean isReturnPathReused()
+  {
+    return true;
+  }
+
   @Override
   protected ActorURL getUrl1()
   {
@@ -53,6 +83,407 @@ public class ActorSystemTcpTest
     return DELAY_MS;
   }
 
+  @Test
+  public void givenRemoteSystemRestarted_whenMessagesSentWhileDown_thenReplayedInOrderOnceReconnected()
+      throws Exception
+  {
+    val as1 = new ActorSystem(createConfiguration(getUrl1()).withReconnect(10, 20, 100), new AdapterFactory());
+    try
+    {
+      IActorSystem as2 = createSystem2(new AdapterFactory());
+      try
+      {
+        as2.actorOf(CachingActor.class);
+        as1.actorFor(getUrl2());
+        as2.shutdown();
+        Thread.sleep(getDelayMillis());
+
+        // buffered while down
+        as1.tell(getUrl2(), "1");
+        as1.tell(getUrl2(), "2");
+        as1.tell(getUrl2(), "3");
+
+        as2 = createSystem2(new AdapterFactory());
+        val act2 = as2.actorOf(CachingActor.class);
+        for (int i = 0; i < 20 && act2.getCache().size() < 3; i++)
+          Thread.sleep(getDelayMillis());
+
+        assertEquals(Arrays.asList("1", "2", "3"), act2.getCache());
+
+        val adapter = (AbstractClientTcpUdpAdapter) ((ActorSystem) as1).getActorRegistry().get(getUrl2()).getConnector();
+        assertEquals(3, adapter.getLinkStats().getReplayed());
+        assertEquals(0, adapter.getLinkStats().getBuffered());
+        assertTrue(adapter.getLinkStats().getReconnects() >= 1);
+      }
+      finally
+      {
+        as2.shutdown();
+      }
+    }
+    finally
+    {
+      as1.shutdown();
+    }
+  }
+
+  @Test
+  public void givenRemoteNodeNotConnectedYet_whenResolvedAsynchronously_thenOneFutureSharedAndEarlyMessagesDelivered()
+      throws Exception
+  {
+    val as1 = createSystem1();
+    try
+    {
+      val as2 = createSystem2(new AdapterFactory());
+      try
+      {
+        val act2 = as2.actorOf(CachingActor.class);
+
+        val future = as1.actorForAsync(getUrl2());
+        assertSame(future, as1.actorForAsync(getUrl2()));
+
+        // usable before the connection is up
+        future.getReference().send("1");
+        assertSame(future.getReference(), future.get(getDelayMillis() * 4, TimeUnit.MILLISECONDS));
+        for (int i = 0; i < 20 && act2.getCache().size() < 1; i++)
+          Thread.sleep(getDelayMillis());
+
+        assertEquals(Arrays.asList("1"), act2.getCache());
+        assertSame(future.getReference(), as1.actorFor(getUrl2()));
+      }
+      finally
+      {
+        as2.shutdown();
+      }
+    }
+    finally
+    {
+      as1.shutdown();
+    }
+  }
+
+  @Test
+  public void givenRemoteNodeDown_whenResolvedAsynchronously_thenFutureFailsAndNothingRegistered()
+      throws Exception
+  {
+    val as1 = createSystem1();
+    try
+    {
+      val future = as1.actorForAsync(getUrl2());
+      try
+      {
+        future.get(getDelayMillis() * 4, TimeUnit.MILLISECONDS);
+        fail("Node is down");
+      }
+      catch(ExecutionException e)
+      {
+        assertTrue(e.getCause() instanceof AdapterStartException);
+      }
+
+      assertNull(((ActorSystem) as1).getActorRegistry().get(getUrl2()));
+    }
+    finally
+    {
+      as1.shutdown();
+    }
+  }
+
+  @Test
+  public void givenGroupOfActorsOnOneRemoteNode_whenMessageBroadcast_thenEncodedOnce()
+      throws Exception
+  {
+    val as1 = createSystem1();
+    try
+    {
+      val as2 = createSystem2(new AdapterFactory());
+      try
+      {
+        val act2 = as2.actorOf(CachingActor.class);
+        val actA = as2.actorOf("a", CachingActor.class, new Object[0]);
+        val urlA = new ActorURL(ProtocolType.TCP, "localhost", getUrl2().getPort(), "a");
+
+        val group = as1.groupOf(Arrays.asList(getUrl2(), urlA));
+        assertEquals(2, group.tell("hello"));
+        Thread.sleep(getDelayMillis());
+
+        assertEquals(Arrays.asList("hello"), act2.getCache());
+        assertEquals(Arrays.asList("hello"), actA.getCache());
+        val adapter = (AbstractClientTcpUdpAdapter) ((ActorSystem) as1).getActorRegistry().get(getUrl2()).getConnector();
+        assertEquals(1, adapter.getEncodingStats().getMessages());
+      }
+      finally
+      {
+        as2.shutdown();
+      }
+    }
+    finally
+    {
+      as1.shutdown();
+    }
+  }
+
+  @Test
+  public void givenBatchPending_whenChannelDropsBeforeLingerFlush_thenBatchBufferedAndReplayedInOrder()
+      throws Exception
+  {
+    // batches are held back for a second, longer than it takes the remote system to go down
+    val config = createConfiguration(getUrl1()).withWriteBatching(4096, 1000000).withReconnect(10, 20, 100);
+    val as1 = new ActorSystem(config, new AdapterFactory());
+    try
+    {
+      IActorSystem as2 = createSystem2(new AdapterFactory());
+      try
+      {
+        as2.actorOf(CachingActor.class);
+        as1.actorFor(getUrl2());
+        Thread.sleep(getDelayMillis());
+
+        as1.tell(getUrl2(), "1");
+        as1.tell(getUrl2(), "2");
+        as2.shutdown();
+        Thread.sleep(1500);
+        as1.tell(getUrl2(), "3");
+
+        as2 = createSystem2(new AdapterFactory());
+        val act2 = as2.actorOf(CachingActor.class);
+        for (int i = 0; i < 20 && act2.getCache().size() < 3; i++)
+          Thread.sleep(getDelayMillis());
+
+        assertEquals(Arrays.asList("1", "2", "3"), act2.getCache());
+        val adapter = (AbstractClientTcpUdpAdapter) as1.getActorRegistry().get(getUrl2()).getConnector();
+        assertEquals(0, adapter.getLinkStats().getDropped());
+        assertEquals(3, adapter.getLinkStats().getReplayed());
+      }
+      finally
+      {
+        as2.shutdown();
+      }
+    }
+    finally
+    {
+      as1.shutdown();
+    }
+  }
+
+  @Test
+  public void givenWorkerPoolBusy_whenBatchedMessageSent_thenFlushedWithoutWaitingForActors()
+      throws Exception
+  {
+    // the only worker thread of the sending system is kept busy by an actor for longer than the test waits
+    val config = createConfiguration(getUrl1()).withWriteBatching(4096, 0).withSharedWorkerThreads(1);
+    val as1 = new ActorSystem(config, new AdapterFactory());
+    try
+    {
+      val as2 = createSystem2(new AdapterFactory());
+      try
+      {
+        val act2 = as2.actorOf(CachingActor.class);
+        as1.actorFor(getUrl2());
+        as1.actorOf(SleepingActor.class, new Object[] {10000L});
+        as1.tell(getUrl1(), "sleep");
+        Thread.sleep(getDelayMillis());
+
+        as1.tell(getUrl2(), "1");
+        for (int i = 0; i < 20 && act2.getCache().isEmpty(); i++)
+          Thread.sleep(getDelayMillis());
+
+        assertEquals(Arrays.asList("1"), act2.getCache());
+      }
+      finally
+      {
+        as2.shutdown();
+      }
+    }
+    finally
+    {
+      as1.shutdown();
+    }
+  }
+
+  @Test
+  public void givenMessageWhichCannotBeEncoded_whenSentBeforeAnother_thenOnlyThatMessageFails()
+      throws Exception
+  {
+    val as1 = createSystem1();
+    try
+    {
+      val as2 = createSystem2(new AdapterFactory());
+      try
+      {
+        val act2 = as2.actorOf(CachingActor.class);
+        val ref = as1.actorFor(getUrl2());
+        ref.send(new UnserializableMessage());
+        ref.send("1");
+        for (int i = 0; i < 20 && act2.getCache().size() < 1; i++)
+          Thread.sleep(getDelayMillis());
+
+        assertEquals(Arrays.asList("1"), act2.getCache());
+        val adapter = (AbstractClientTcpUdpAdapter) ((ActorSystem) as1).getActorRegistry().get(getUrl2()).getConnector();
+        assertEquals(0, adapter.getLinkStats().getReconnectAttempts());
+      }
+      finally
+      {
+        as2.shutdown();
+      }
+    }
+    finally
+    {
+      as1.shutdown();
+    }
+  }
+
+  @Test
+  public void givenFrameWhichCannotBeDecoded_whenValidFrameFollows_thenConnectionKeptAndMessageDelivered()
+      throws Exception
+  {
+    val as2 = createSystem2(new AdapterFactory());
+    try
+    {
+      val act2 = as2.actorOf(CachingActor.class);
+      val encoded = new ByteArrayOutputStream();
+      createConfiguration(getUrl2()).getMessageCodec().encode(new Envelope(0, false, null, getUrl2(), null, "1"), encoded);
+
+      val socket = new Socket(getUrl2().getHost(), getUrl2().getPort());
+      try
+      {
+        val out = new DataOutputStream(socket.getOutputStream());
+        out.writeInt(3);
+        out.write(new byte[] {127, 127, 127});
+        out.flush();
+        Thread.sleep(getDelayMillis());
+
+        out.writeInt(encoded.size());
+        out.write(encoded.toByteArray());
+        out.flush();
+        for (int i = 0; i < 20 && act2.getCache().size() < 1; i++)
+          Thread.sleep(getDelayMillis());
+      }
+      finally
+      {
+        socket.close();
+      }
+
+      assertEquals(Arrays.asList("1"), act2.getCache());
+    }
+    finally
+    {
+      as2.shutdown();
+    }
+  }
+
+  @Test
+  public void givenTwoSystems_whenMessagesExchanged_thenMetricsReportActorsAndTransports()
+      throws Exception
+  {
+    val as1 = createSystem1();
+    try
+    {
+      val as2 = createSystem2(new AdapterFactory());
+      try
+      {
+        val act2 = as2.actorOf(CachingActor.class);
+        val ref = as1.actorFor(getUrl2());
+        for (int i = 0; i < 10; i++)
+          ref.send(i);
+        Thread.sleep(getDelayMillis());
+        assertEquals(10, act2.getCache().size());
+
+        val actor = as2.getMetrics().getActor(getUrl2());
+        assertEquals(10, actor.getReceived());
+        assertEquals(10, actor.getProcessed());
+        assertEquals(0, actor.getMailboxDepth());
+
+        val link = as1.getMetrics().getTransports().values().iterator().next();
+        assertEquals(10, link.getMessagesOut());
+        assertTrue(link.getBytesOut() > 0);
+
+        // a frame which no codec can decode
+        val socket = new Socket(getUrl2().getHost(), getUrl2().getPort());
+        try
+        {
+          val out = new DataOutputStream(socket.getOutputStream());
+          out.writeInt(3);
+          out.write(new byte[] {127, 127, 127});
+          out.flush();
+          Thread.sleep(getDelayMillis());
+        }
+        finally
+        {
+          socket.close();
+        }
+
+        val endpoint = as2.getMetrics().getTransports().values().iterator().next();
+        assertEquals(10, endpoint.getMessagesIn());
+        assertEquals(link.getBytesOut(), endpoint.getBytesIn());
+        assertEquals(1, endpoint.getDecodeFailures());
+      }
+      finally
+      {
+        as2.shutdown();
+      }
+    }
+    finally
+    {
+      as1.shutdown();
+    }
+  }
+
+  @Test
+  public void givenTwoSystems_whenManagedOverJmx_thenActorsListedAndReconnectedOrShutDown()
+      throws Exception
+  {
+    val server = ManagementFactory.getPlatformMBeanServer();
+    val name1 = new ObjectName("netactors:type=ActorSystem,name=" + ObjectName.quote(getUrl1().toString()));
+    val name2 = new ObjectName("netactors:type=ActorSystem,name=" + ObjectName.quote(getUrl2().toString()));
+    val as1 = createSystem1();
+    try
+    {
+      val as2 = createSystem2(new AdapterFactory());
+      try
+      {
+        val act2 = as2.actorOf(CachingActor.class);
+        as1.actorFor(getUrl2()).send("1");
+        Thread.sleep(getDelayMillis());
+
+        assertEquals(1, server.getAttribute(name1, "ActorCount"));
+        val client = ((CompositeData[]) server.getAttribute(name1, "Actors"))[0];
+        assertEquals(getUrl2().toString(), client.get("url"));
+        assertEquals("client", client.get("type"));
+        assertEquals("connected", client.get("state"));
+
+        val actor = ((CompositeData[]) server.getAttribute(name2, "Actors"))[0];
+        assertEquals("server", actor.get("type"));
+        assertEquals("open", actor.get("state"));
+        assertEquals(1L, actor.get("received"));
+        assertEquals(0, actor.get("mailboxDepth"));
+        assertEquals(1, ((String[]) server.getAttribute(name2, "ServerAdapters")).length);
+
+        // messages flow again once reconnected
+        val signature = new String[] {String.class.getName()};
+        assertEquals(true, server.invoke(name1, "reconnect", new Object[] {getUrl2().toString()}, signature));
+        Thread.sleep(getDelayMillis());
+        as1.tell(getUrl2(), "2");
+        for (int i = 0; i < 20 && act2.getCache().size() < 2; i++)
+          Thread.sleep(getDelayMillis());
+        assertEquals(Arrays.asList("1", "2"), act2.getCache());
+        val transport = ((CompositeData[]) server.getAttribute(name1, "Transports"))[0];
+        assertTrue((Long) transport.get("reconnects") >= 1);
+
+        assertEquals(true, server.invoke(name2, "shutdownActor", new Object[] {getUrl2().toString()}, signature));
+        assertEquals(false, server.invoke(name2, "shutdownActor", new Object[] {getUrl2().toString()}, signature));
+        assertEquals(0, server.getAttribute(name2, "ActorCount"));
+      }
+      finally
+      {
+        as2.shutdown();
+      }
+      assertFalse(server.isRegistered(name2));
+    }
+    finally
+    {
+      as1.shutdown();
+    }
+  }
+
   // @Test
   // public void leakTest()
   // throws Exception
@@ -83,4 +514,13 @@ public class ActorSystemTcpTest
   // assertEquals(null, as.actorFor(getUrl3()));
   // }
   // }
+
+  private static final class UnserializableMessage
+      implements Serializable
+  {
+    private static final long serialVersionUID = 1L;
+    // fails Java serialization
+    @SuppressWarnings("unused")
+    private final Object payload = new Object();
+  }
 }
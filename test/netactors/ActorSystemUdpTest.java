@@ -33,6 +33,12 @@ public class ActorSystemUdpTest
   private final ActorURL URL3 = new ActorURL(ProtocolType.UDP, "localhost", 12347);
   private final int DELAY_MS = 250;
 
+  @Override
+  protected boolean isReturnPathReused()
+  {
+    return true;
+  }
+
   @Override
   protected ActorURL getUrl1()
   {
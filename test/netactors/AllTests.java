@@ -18,12 +18,24 @@
 // /////////////////////////////////////////////////////////
 package netactors;
 
+import netactors.buffer.PooledBufferOutputStreamTest;
+import netactors.codec.BinaryCodecTest;
+import netactors.codec.SerializationCodecTest;
+import netactors.context.SystemContextTest;
+import netactors.mailbox.MailboxTest;
+import netactors.metrics.MetricsRegistryTest;
+import netactors.nexus.ActorURLTest;
+import netactors.routing.RouterTest;
+import netactors.threading.DispatcherTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
-@SuiteClasses({ActorSystemInMemoryTest.class, ActorSystemTcpTest.class, ActorSystemUdpTest.class})
+@SuiteClasses({ActorSystemInMemoryTest.class, ActorSystemTcpTest.class, ActorSystemUdpTest.class, MailboxTest.class,
+    DispatcherTest.class, ActorSystemTcpBinaryCodecTest.class, BinaryCodecTest.class,
+    SerializationCodecTest.class, ActorSystemTcpBatchingTest.class, PooledBufferOutputStreamTest.class,
+    ActorURLTest.class, RouterTest.class, MetricsRegistryTest.class, SystemContextTest.class})
 public class AllTests
 {
 
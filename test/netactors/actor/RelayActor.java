@@ -0,0 +1,54 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.actor;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import lombok.Getter;
+import netactors.IActorSystem;
+import netactors.config.IActorConfiguration;
+import netactors.nexus.ActorURL;
+
+public final class RelayActor
+    extends UntypedActor
+{
+  @Getter
+  private final List<Object> cache = new CopyOnWriteArrayList<Object>();
+
+  /**
+   * Constructor
+   */
+  public RelayActor(final IActorSystem system, final IActorConfiguration config)
+  {
+    super(system, config);
+  }
+
+  /**
+   * Sends a message through a reference to the actor at a received URL, caching any other message
+   */
+  @Override
+  public void onReceive(final Serializable message)
+  {
+    if (message instanceof ActorURL)
+      getSystem().actorFor((ActorURL) message).send("ping");
+    else
+      cache.add(message);
+  }
+}
@@ -0,0 +1,100 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.buffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import lombok.val;
+import org.jboss.netty.buffer.CompositeChannelBuffer;
+import org.junit.Test;
+import common.TestAspectDecorator;
+
+public class PooledBufferOutputStreamTest
+    extends TestAspectDecorator
+{
+  @Test
+  public void givenOutputLargerThanFirstChunk_whenWritten_thenCompositeHoldsAllBytesInOrder()
+      throws Exception
+  {
+    val pool = new BufferPool();
+    val stats = new EncodingStats();
+    val out = new PooledBufferOutputStream(pool, stats, 512);
+
+    val data = new byte[3000];
+    for (int i = 0; i < data.length; i++)
+      data[i] = (byte) i;
+
+    out.writeInt(0);
+    out.write(data, 0, data.length);
+    out.setInt(0, out.size() - 4);
+
+    val buffer = out.toBuffer(true);
+    assertTrue(buffer instanceof CompositeChannelBuffer);
+    assertEquals(3004, buffer.readableBytes());
+    assertEquals(3000, buffer.getInt(0));
+
+    val read = new byte[data.length];
+    buffer.getBytes(4, read);
+    assertArrayEquals(data, read);
+
+    // 512, then 2048, then 8192 bytes
+    assertEquals(3, stats.getChunks());
+    assertEquals(3, stats.getAllocations());
+  }
+
+  @Test
+  public void givenReleasedChunks_whenOutputWrittenAgain_thenChunksReused()
+      throws Exception
+  {
+    val pool = new BufferPool();
+    val stats = new EncodingStats();
+
+    for (int i = 0; i < 10; i++)
+    {
+      val out = new PooledBufferOutputStream(pool, stats, 512);
+      out.write(new byte[100], 0, 100);
+      out.release();
+    }
+
+    assertEquals(10, stats.getChunks());
+    assertEquals(1, stats.getAllocations());
+    assertEquals(1, pool.size());
+  }
+
+  @Test
+  public void givenFullPool_whenChunksReleased_thenExcessLeftToCollector()
+      throws Exception
+  {
+    // room for two free buffers of the smallest class
+    val pool = new BufferPool(1024);
+    val stats = new EncodingStats();
+
+    val outs = new PooledBufferOutputStream[3];
+    for (int i = 0; i < outs.length; i++)
+    {
+      outs[i] = new PooledBufferOutputStream(pool, stats, 512);
+      outs[i].write(1);
+    }
+    for (final PooledBufferOutputStream out : outs)
+      out.release();
+
+    assertEquals(2, pool.size());
+  }
+}
@@ -0,0 +1,284 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.codec;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import lombok.val;
+import netactors.nexus.ActorURL;
+import netactors.nexus.Envelope;
+import netactors.nexus.Multicast;
+import netactors.nexus.ProtocolType;
+import org.jboss.netty.buffer.ChannelBufferInputStream;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.junit.Test;
+import common.TestAspectDecorator;
+
+public class BinaryCodecTest
+    extends TestAspectDecorator
+{
+  @Test
+  public void givenCommonTypes_whenEncodedAndDecoded_thenEqualValuesReturned()
+      throws Exception
+  {
+    val codec = new BinaryCodec();
+
+    val values = new ArrayList<Serializable>();
+    values.add("");
+    values.add("h\u00e9llo w\u00f6rld \u20ac");
+    values.add(0);
+    values.add(-1);
+    values.add(Integer.MIN_VALUE);
+    values.add(Integer.MAX_VALUE);
+    values.add(Long.MIN_VALUE);
+    values.add(Long.MAX_VALUE);
+    values.add((short) -3);
+    values.add((byte) 7);
+    values.add('x');
+    values.add(true);
+    values.add(false);
+    values.add(1.5f);
+    values.add(-2.25d);
+    values.add(new ArrayList<Object>(Arrays.asList("a", 1, null, 2L)));
+    values.add(new HashSet<Object>(Arrays.asList("a", "b")));
+    val map = new HashMap<Object, Object>();
+    map.put("key", Arrays.asList(1, 2, 3));
+    map.put(4, null);
+    values.add(map);
+
+    for (val value : values)
+      assertEquals(value, roundTrip(codec, value));
+
+    assertArrayEquals(new byte[] {1, 2, 3}, (byte[]) roundTrip(codec, new byte[] {1, 2, 3}));
+  }
+
+  @Test
+  public void givenRegisteredType_whenEncodedAndDecoded_thenWrittenBySerializer()
+      throws Exception
+  {
+    val codec = new BinaryCodec().register(1, Point.class, new PointSerializer());
+
+    assertEquals(new Point(3, -4), roundTrip(codec, new Point(3, -4)));
+    assertEquals(Arrays.asList(new Point(1, 2), new Point(5, 6)),
+                 roundTrip(codec, new ArrayList<Object>(Arrays.asList(new Point(1, 2), new Point(5, 6)))));
+
+    // tag, ID and two single-byte varints
+    assertEquals(4, encode(codec, new Point(3, -4)).length);
+  }
+
+  @Test
+  public void givenUnregisteredSerializableType_whenEncodedAndDecoded_thenJavaSerializationUsed()
+      throws Exception
+  {
+    val codec = new BinaryCodec();
+
+    assertEquals(new Point(3, -4), roundTrip(codec, new Point(3, -4)));
+    val list = new ArrayList<Object>(Arrays.asList(new Point(1, 2), "after"));
+    assertEquals(list, roundTrip(codec, list));
+  }
+
+  @Test
+  public void givenEnvelope_whenEncodedAndDecoded_thenAllFieldsKept()
+      throws Exception
+  {
+    val codec = new BinaryCodec();
+    val sender = new ActorURL(ProtocolType.TCP, "localhost", 12345);
+    val recipient = new ActorURL(ProtocolType.UDP, "remotehost", 65535);
+
+    val request = (Envelope) roundTrip(codec, Envelope.request(300, sender, "ping"));
+    assertEquals(300, request.getCorrelationId());
+    assertFalse(request.isReply());
+    assertEquals(sender, request.getSender());
+    assertEquals(null, request.getRecipient());
+    assertTrue(request.getHeaders().isEmpty());
+    assertEquals("ping", request.getMessage());
+
+    val headers = new HashMap<String, String>();
+    headers.put("trace", "42");
+    headers.put("user", "h\u00e9llo");
+    val message = (Envelope) roundTrip(codec, new Envelope(0, false, sender, recipient, headers, 7L));
+    assertEquals(sender, message.getSender());
+    assertEquals(recipient, message.getRecipient());
+    assertEquals(headers, message.getHeaders());
+    assertEquals(7L, message.getMessage());
+
+    val reply = (Envelope) roundTrip(codec, Envelope.reply(Long.MAX_VALUE, new Point(3, -4)));
+    assertEquals(Long.MAX_VALUE, reply.getCorrelationId());
+    assertTrue(reply.isReply());
+    assertEquals(new Point(3, -4), reply.getMessage());
+  }
+
+  @Test
+  public void givenMulticast_whenEncodedAndDecoded_thenRecipientsAndEnvelopeKept()
+      throws Exception
+  {
+    val codec = new BinaryCodec();
+    val sender = new ActorURL(ProtocolType.TCP, "localhost", 12345);
+    val recipients = new ActorURL[] {new ActorURL(ProtocolType.TCP, "remotehost", 12346),
+                                     new ActorURL(ProtocolType.TCP, "remotehost", 12346, "a")};
+
+    val multicast = (Multicast) roundTrip(codec, new Multicast(recipients, Envelope.request(12, sender, "ping")));
+    assertArrayEquals(recipients, multicast.getRecipients());
+    assertEquals(12, multicast.getEnvelope().getCorrelationId());
+    assertEquals(sender, multicast.getEnvelope().getSender());
+    assertEquals("ping", multicast.getEnvelope().getMessage());
+  }
+
+  @Test
+  public void givenCommonMessages_whenEncoded_thenMuchSmallerThanJavaSerialization()
+      throws Exception
+  {
+    val binary = new BinaryCodec();
+    val serialization = new SerializationCodec();
+
+    assertTrue(encode(binary, 42).length * 10 <= encode(serialization, 42).length);
+    assertTrue(encode(binary, 42L).length * 10 <= encode(serialization, 42L).length);
+
+    val list = new ArrayList<Object>(Arrays.asList(1, 2, 3, 4, 5));
+    assertTrue(encode(binary, list).length * 10 <= encode(serialization, list).length);
+  }
+
+  @Test
+  public void givenUnregisteredSerializableType_whenDecoded_thenClassResolvedThroughResolver()
+      throws Exception
+  {
+    val resolver = new CachingClassResolver(getClass().getClassLoader());
+    val codec = new BinaryCodec(resolver);
+
+    assertEquals(new Point(3, -4), roundTrip(codec, new Point(3, -4)));
+    assertTrue(resolver.getMisses() > 0);
+  }
+
+  @Test
+  public void givenMalformedLengths_whenDecoded_thenIOExceptionThrownWithoutAllocating()
+      throws Exception
+  {
+    val codec = new BinaryCodec();
+    // a byte array and a list claiming Integer.MAX_VALUE elements, in a frame of six bytes
+    for (byte tag : new byte[] {11, 12})
+    {
+      val frame = ChannelBuffers.wrappedBuffer(new byte[] {tag, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07});
+      try
+      {
+        codec.decode(new ChannelBufferInputStream(frame));
+        fail("Expected an IOException");
+      }
+      catch(IOException e)
+      {
+      }
+    }
+
+    // a length within the maximum frame length, but beyond the remaining bytes
+    val frame = ChannelBuffers.wrappedBuffer(new byte[] {11, (byte) 0x80, (byte) 0x80, 0x01});
+    try
+    {
+      codec.decode(new ChannelBufferInputStream(frame));
+      fail("Expected an IOException");
+    }
+    catch(IOException e)
+    {
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void givenRegisteredId_whenRegisteredAgain_thenExceptionThrown()
+      throws Exception
+  {
+    new BinaryCodec().register(1, Point.class, new PointSerializer()).register(1, String.class, null);
+  }
+
+  private static byte[] encode(final IMessageCodec codec, final Serializable message)
+      throws IOException
+  {
+    val out = new ByteArrayOutputStream();
+    codec.encode(message, out);
+    return out.toByteArray();
+  }
+
+  private static Object roundTrip(final IMessageCodec codec, final Serializable message)
+      throws IOException
+  {
+    return codec.decode(new ByteArrayInputStream(encode(codec, message)));
+  }
+
+  /**
+   * User type
+   */
+  private static final class Point
+      implements Serializable
+  {
+    private static final long serialVersionUID = 1L;
+    final int x;
+    final int y;
+
+    Point(final int x, final int y)
+    {
+      this.x = x;
+      this.y = y;
+    }
+
+    @Override
+    public boolean equals(final Object obj)
+    {
+      return obj instanceof Point && ((Point) obj).x == x && ((Point) obj).y == y;
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return 31 * x + y;
+    }
+  }
+
+  /**
+   * Serializer of the user type
+   */
+  private static final class PointSerializer
+      implements ITypeSerializer<Point>
+  {
+    @Override
+    public void write(final Point value, final DataOutput out)
+        throws IOException
+    {
+      out.writeByte(value.x);
+      out.writeByte(value.y);
+    }
+
+    @Override
+    public Point read(final DataInput in)
+        throws IOException
+    {
+      return new Point(in.readByte(), in.readByte());
+    }
+  }
+}
@@ -0,0 +1,78 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import lombok.val;
+import netactors.config.ActorConfiguration;
+import netactors.nexus.ActorURL;
+import netactors.nexus.ProtocolType;
+import org.junit.Test;
+import common.TestAspectDecorator;
+
+public class SerializationCodecTest
+    extends TestAspectDecorator
+{
+  private final ActorURL URL1 = new ActorURL(ProtocolType.TCP, "localhost", 12345);
+  private final ActorURL URL2 = new ActorURL(ProtocolType.TCP, "localhost", 12346);
+
+  @Test
+  public void givenCachingResolver_whenSameClassesDecodedAgain_thenServedFromCache()
+      throws Exception
+  {
+    val resolver = new CachingClassResolver(getClass().getClassLoader());
+    val codec = new SerializationCodec(resolver);
+    val message = new ArrayList<Object>(Arrays.asList("a", 1, 2L));
+
+    assertEquals(message, roundTrip(codec, message));
+    val misses = resolver.getMisses();
+    assertTrue(misses > 0);
+    assertEquals(0, resolver.getHits());
+
+    assertEquals(message, roundTrip(codec, message));
+    assertEquals(misses, resolver.getMisses());
+    assertTrue(resolver.getHits() >= misses);
+  }
+
+  @Test
+  public void givenActorConfiguration_whenClonedForRemoteActors_thenClassResolverShared()
+      throws Exception
+  {
+    val config = new ActorConfiguration(URL1);
+    val codec = (SerializationCodec) config.getMessageCodec();
+
+    assertTrue(codec.getClassResolver() instanceof CachingClassResolver);
+    assertSame(codec, config.cloneFor(URL2).getMessageCodec());
+  }
+
+  private static Object roundTrip(final IMessageCodec codec, final Serializable message)
+      throws Exception
+  {
+    val out = new ByteArrayOutputStream();
+    codec.encode(message, out);
+    return codec.decode(new ByteArrayInputStream(out.toByteArray()));
+  }
+}
@@ -0,0 +1,150 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.context;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import lombok.val;
+import netactors.config.ActorConfiguration;
+import netactors.exception.AdapterStartException;
+import netactors.nexus.ActorURL;
+import netactors.nexus.ProtocolType;
+import org.junit.Test;
+import common.TestAspectDecorator;
+
+public class SystemContextTest
+    extends TestAspectDecorator
+{
+  @Test
+  public void givenResourceOpeningWithContextPools_whenContextShutDownMeanwhile_thenNeitherThreadBlocks()
+      throws Exception
+  {
+    val context = new SystemContext(Executors.defaultThreadFactory());
+    val opening = new CountDownLatch(1);
+    val proceed = new CountDownLatch(1);
+
+    // the resource takes the pools of the context while being opened, as node links and listeners do
+    val acquirer = new Thread(new Runnable() {
+      public void run()
+      {
+        try
+        {
+          context.acquire("resource", new ISharedResourceFactory<ISharedResource>() {
+            public ISharedResource create()
+            {
+              opening.countDown();
+              await(proceed);
+              context.getScheduler();
+              return new ISharedResource() {
+                public void open()
+                    throws AdapterStartException
+                {
+                  context.getWorkerPool();
+                }
+
+                public void close()
+                {
+                }
+              };
+            }
+          });
+        }
+        catch(AdapterStartException e)
+        {
+          throw new IllegalStateException(e);
+        }
+      }
+    });
+    val stopper = new Thread(new Runnable() {
+      public void run()
+      {
+        context.shutdown();
+      }
+    });
+
+    acquirer.start();
+    opening.await();
+    stopper.start();
+    Thread.sleep(100);
+    proceed.countDown();
+
+    acquirer.join(5000);
+    stopper.join(5000);
+    assertFalse(acquirer.isAlive());
+    assertFalse(stopper.isAlive());
+    context.shutdown();
+  }
+
+  @Test
+  public void givenWorkerThreadsProperty_whenConfigurationCreated_thenSharedPoolSizedAndNoDedicatedPool()
+      throws Exception
+  {
+    System.setProperty("netactorWorkerThreads", "3");
+    try
+    {
+      val config = new ActorConfiguration(new ActorURL(ProtocolType.MEM, "localhost", 12345));
+      assertEquals(3, config.getSharedWorkerThreads());
+      assertEquals(0, config.getWorkerThreads());
+    }
+    finally
+    {
+      System.clearProperty("netactorWorkerThreads");
+    }
+  }
+
+  @Test
+  public void givenSharedWorkerThreads_whenPoolsRequestedForActors_thenAllShareOnePoolOfThatSize()
+      throws Exception
+  {
+    val config = new ActorConfiguration(new ActorURL(ProtocolType.MEM, "localhost", 12345)).withSharedWorkerThreads(2);
+    val context = new SystemContext(Executors.defaultThreadFactory(), config.getSharedWorkerThreads(), 1);
+    try
+    {
+      val pool = context.getWorkerPool(config);
+      assertSame(pool, context.getWorkerPool(config.cloneFor(new ActorURL(ProtocolType.MEM, "localhost", 12346))));
+      assertTrue(context.isShared(pool));
+      assertEquals(2, ((ThreadPoolExecutor) pool).getMaximumPoolSize());
+
+      val dedicated = context.getWorkerPool(config.withWorkerThreads(1));
+      assertFalse(context.isShared(dedicated));
+      dedicated.shutdown();
+    }
+    finally
+    {
+      context.shutdown();
+    }
+  }
+
+  private static void await(final CountDownLatch latch)
+  {
+    try
+    {
+      latch.await();
+    }
+    catch(InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,600 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.mailbox;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.val;
+import netactors.actor.IActor;
+import netactors.config.ActorConfiguration;
+import netactors.exception.MailboxFullException;
+import netactors.metrics.ActorMetrics;
+import netactors.nexus.ActorURL;
+import netactors.nexus.ProtocolType;
+import netactors.threading.ExecutorDispatcher;
+import netactors.threading.IDispatcher;
+import org.junit.Test;
+import common.TestAspectDecorator;
+
+public class MailboxTest
+    extends TestAspectDecorator
+{
+  private final ActorURL URL = new ActorURL(ProtocolType.MEM, "localhost", 12345);
+  private final int PRODUCERS = 8;
+  private final int MESSAGES_PER_PRODUCER = 10000;
+
+  @Test
+  public void givenEmptyQueue_whenMessagesOffered_thenPolledInInsertionOrder()
+      throws Exception
+  {
+    val queue = new MpscMessageQueue();
+    assertTrue(queue.isEmpty());
+    assertEquals(null, queue.poll());
+
+    queue.offer("1");
+    queue.offer("2");
+    queue.offer("3");
+    assertEquals(3, queue.size());
+
+    assertEquals("1", queue.poll());
+    assertEquals("2", queue.poll());
+    assertEquals("3", queue.poll());
+    assertEquals(null, queue.poll());
+    assertTrue(queue.isEmpty());
+    assertEquals(0, queue.size());
+  }
+
+  @Test
+  public void givenConcurrentProducers_whenMessagesEnqueued_thenAllProcessedByOneThreadAtATime()
+      throws Exception
+  {
+    val total = PRODUCERS * MESSAGES_PER_PRODUCER;
+    val actor = new ConcurrencyDetectingActor(URL, total);
+    val pool = Executors.newCachedThreadPool();
+    try
+    {
+      val mailbox = new Mailbox(new ActorConfiguration(URL), actor, new MpscMessageQueue(), new ExecutorDispatcher(pool, false));
+
+      val start = new CountDownLatch(1);
+      for (int i = 0; i < PRODUCERS; i++)
+        pool.execute(new Runnable() {
+          public void run()
+          {
+            try
+            {
+              start.await();
+              for (int j = 0; j < MESSAGES_PER_PRODUCER; j++)
+                mailbox.enqueue(j);
+            }
+            catch(InterruptedException e)
+            {
+              Thread.currentThread().interrupt();
+            }
+          }
+        });
+
+      start.countDown();
+      assertTrue(actor.getDone().await(10, TimeUnit.SECONDS));
+      assertEquals(total, actor.getProcessed());
+      assertEquals(1, actor.getMaxConcurrency());
+      assertEquals(0, mailbox.size());
+    }
+    finally
+    {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  public void givenThroughputOfTwo_whenFiveMessagesEnqueued_thenProcessedInThreeTurns()
+      throws Exception
+  {
+    val actor = new ConcurrencyDetectingActor(URL, 5);
+    val dispatcher = new ManualDispatcher();
+    val mailbox = new Mailbox(new ActorConfiguration(URL).withThroughput(2), actor, new MpscMessageQueue(), dispatcher);
+
+    for (int i = 0; i < 5; i++)
+      mailbox.enqueue(i);
+    assertEquals(1, dispatcher.getTasks().size());
+
+    dispatcher.runNext();
+    assertEquals(2, actor.getProcessed());
+    assertEquals(1, dispatcher.getTasks().size());
+
+    dispatcher.runNext();
+    assertEquals(4, actor.getProcessed());
+    assertEquals(1, dispatcher.getTasks().size());
+
+    dispatcher.runNext();
+    assertEquals(5, actor.getProcessed());
+    assertEquals(0, dispatcher.getTasks().size());
+  }
+
+  @Test
+  public void givenThroughputDeadline_whenSlowMessagesEnqueued_thenTurnYieldsAfterDeadline()
+      throws Exception
+  {
+    val actor = new SlowActor(URL, 5);
+    val dispatcher = new ManualDispatcher();
+    val config = new ActorConfiguration(URL).withThroughput(100).withThroughputDeadlineMillis(1);
+    val mailbox = new Mailbox(config, actor, new MpscMessageQueue(), dispatcher);
+
+    for (int i = 0; i < 3; i++)
+      mailbox.enqueue(i);
+
+    dispatcher.runNext();
+    assertEquals(1, actor.getProcessed());
+    assertEquals(2, mailbox.size());
+    assertEquals(1, dispatcher.getTasks().size());
+  }
+
+  @Test
+  public void givenFullMailboxDroppingNewest_whenMessageOffered_thenNewMessageDiscarded()
+      throws Exception
+  {
+    val actor = new RecordingActor(URL);
+    val dispatcher = new ManualDispatcher();
+    val config = new ActorConfiguration(URL).withMailboxCapacity(2, OverflowPolicy.DROP_NEWEST);
+    val mailbox = new Mailbox(config, actor, new MpscMessageQueue(), dispatcher);
+
+    assertTrue(mailbox.offer("1"));
+    assertTrue(mailbox.offer("2"));
+    assertFalse(mailbox.offer("3"));
+    mailbox.enqueue("4");
+    assertEquals(2, mailbox.size());
+
+    dispatcher.runNext();
+    assertEquals(Arrays.asList("1", "2"), actor.getReceived());
+
+    // slots are freed once processed
+    assertTrue(mailbox.offer("5"));
+  }
+
+  @Test
+  public void givenFullMailboxDroppingOldest_whenMessageOffered_thenOldestMessageDiscarded()
+      throws Exception
+  {
+    val actor = new RecordingActor(URL);
+    val dispatcher = new ManualDispatcher();
+    val config = new ActorConfiguration(URL).withMailboxCapacity(2, OverflowPolicy.DROP_OLDEST);
+    val mailbox = new Mailbox(config, actor, new MpscMessageQueue(), dispatcher);
+
+    assertTrue(mailbox.offer("1"));
+    assertTrue(mailbox.offer("2"));
+    assertTrue(mailbox.offer("3"));
+    assertTrue(mailbox.offer("4"));
+    assertEquals(2, mailbox.size());
+
+    dispatcher.runNext();
+    assertEquals(Arrays.asList("3", "4"), actor.getReceived());
+    assertEquals(0, mailbox.size());
+
+    assertTrue(mailbox.offer("5"));
+    assertTrue(mailbox.offer("6"));
+    dispatcher.runNext();
+    assertEquals(Arrays.asList("3", "4", "5", "6"), actor.getReceived());
+  }
+
+  @Test
+  public void givenStalledMailboxDroppingOldest_whenManyMessagesOffered_thenDepthBoundedAndEvictionsRecorded()
+      throws Exception
+  {
+    val actor = new RecordingActor(URL);
+    val dispatcher = new ManualDispatcher();
+    val config = new ActorConfiguration(URL).withMailboxCapacity(10, OverflowPolicy.DROP_OLDEST);
+    val metrics = new ActorMetrics(URL);
+    val mailbox = new Mailbox(config, actor, new MpscMessageQueue(), dispatcher, metrics);
+
+    for (int i = 0; i < 10000; i++)
+    {
+      assertTrue(mailbox.offer(i));
+      assertTrue(mailbox.size() <= 10);
+    }
+
+    assertEquals(10, mailbox.size());
+    assertEquals(10000, metrics.snapshot().getReceived());
+    assertEquals(9990, metrics.snapshot().getRejected());
+
+    while (!dispatcher.getTasks().isEmpty())
+      dispatcher.runNext();
+    assertEquals(Arrays.asList(9990, 9991, 9992, 9993, 9994, 9995, 9996, 9997, 9998, 9999), actor.getReceived());
+  }
+
+  @Test
+  public void givenFullPriorityMailboxDroppingOldest_whenMessagesOffered_thenLeastUrgentMessagesDiscarded()
+      throws Exception
+  {
+    val actor = new RecordingActor(URL);
+    val dispatcher = new ManualDispatcher();
+    val config = new ActorConfiguration(URL).withMailboxCapacity(3, OverflowPolicy.DROP_OLDEST);
+    val mailbox = new Mailbox(config, actor, new PriorityMessageQueue(new MarkerPrioritizer()), dispatcher);
+
+    assertTrue(mailbox.offer(new Urgent("A")));
+    assertTrue(mailbox.offer("1"));
+    assertTrue(mailbox.offer(new Urgent("B")));
+    assertTrue(mailbox.offer("2"));
+    assertTrue(mailbox.offer(new Urgent("C")));
+    assertTrue(mailbox.offer(new Urgent("D")));
+    assertEquals(3, mailbox.size());
+
+    dispatcher.runNext();
+    assertEquals(Arrays.<Serializable>asList(new Urgent("B"), new Urgent("C"), new Urgent("D")), actor.getReceived());
+  }
+
+  @Test
+  public void givenFullMailboxBlocking_whenMessageOffered_thenSenderTimesOut()
+      throws Exception
+  {
+    val actor = new RecordingActor(URL);
+    val dispatcher = new ManualDispatcher();
+    val config = new ActorConfiguration(URL, 50).withMailboxCapacity(1, OverflowPolicy.BLOCK);
+    val mailbox = new Mailbox(config, actor, new MpscMessageQueue(), dispatcher);
+
+    assertTrue(mailbox.offer("1"));
+
+    val start = System.nanoTime();
+    assertFalse(mailbox.offer("2"));
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 40);
+
+    dispatcher.runNext();
+    assertEquals(Arrays.asList("1"), actor.getReceived());
+  }
+
+  @Test
+  public void givenFullMailboxBlocking_whenSlotFreed_thenBlockedSenderProceeds()
+      throws Exception
+  {
+    val actor = new RecordingActor(URL);
+    val dispatcher = new ManualDispatcher();
+    val config = new ActorConfiguration(URL, 5000).withMailboxCapacity(1, OverflowPolicy.BLOCK);
+    val mailbox = new Mailbox(config, actor, new MpscMessageQueue(), dispatcher);
+    mailbox.offer("1");
+
+    val pool = Executors.newSingleThreadExecutor();
+    try
+    {
+      val sent = pool.submit(new Callable<Boolean>() {
+        public Boolean call()
+        {
+          return mailbox.offer("2");
+        }
+      });
+
+      Thread.sleep(50);
+      assertFalse(sent.isDone());
+
+      dispatcher.runNext();
+      assertTrue(sent.get(5, TimeUnit.SECONDS));
+      // the second message may already have been processed within the first turn
+      while (!dispatcher.getTasks().isEmpty())
+        dispatcher.runNext();
+      assertEquals(Arrays.asList("1", "2"), actor.getReceived());
+    }
+    finally
+    {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test(expected = MailboxFullException.class)
+  public void givenFullMailboxFailing_whenMessageEnqueued_thenExceptionThrown()
+      throws Exception
+  {
+    val actor = new RecordingActor(URL);
+    val config = new ActorConfiguration(URL).withMailboxCapacity(1, OverflowPolicy.FAIL);
+    val mailbox = new Mailbox(config, actor, new MpscMessageQueue(), new ManualDispatcher());
+
+    mailbox.enqueue("1");
+    assertFalse(mailbox.offer("2"));
+    mailbox.enqueue("3");
+  }
+
+  @Test
+  public void givenShutDownMailbox_whenMessagesSent_thenDiscardedWithoutFailing()
+      throws Exception
+  {
+    val actor = new RecordingActor(URL);
+    val config = new ActorConfiguration(URL).withMailboxCapacity(1, OverflowPolicy.FAIL);
+    val mailbox = new Mailbox(config, actor, new MpscMessageQueue(), new ManualDispatcher());
+
+    mailbox.enqueue("1");
+    mailbox.shutdown();
+    mailbox.enqueue("2");
+    assertFalse(mailbox.offer("3"));
+    assertEquals(1, mailbox.size());
+  }
+
+  @Test
+  public void givenPriorityQueue_whenUrgentMessageOffered_thenPolledBeforeNormalMessages()
+      throws Exception
+  {
+    val queue = new PriorityMessageQueue(new MarkerPrioritizer());
+    queue.offer("1");
+    queue.offer("2");
+    queue.offer(new Urgent("A"));
+    queue.offer("3");
+    queue.offer(new Urgent("B"));
+    assertEquals(5, queue.size());
+
+    assertEquals(new Urgent("A"), queue.poll());
+    assertEquals(new Urgent("B"), queue.poll());
+    assertEquals("1", queue.poll());
+    assertEquals("2", queue.poll());
+    assertEquals("3", queue.poll());
+    assertEquals(null, queue.poll());
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  public void givenPrioritizerWithOutOfRangeLevels_whenMessagesOffered_thenLevelsClamped()
+      throws Exception
+  {
+    val queue = new PriorityMessageQueue(new IMessagePrioritizer() {
+      public int getLevels()
+      {
+        return 3;
+      }
+
+      public int getPriority(final Serializable message)
+      {
+        return (Integer) message;
+      }
+    });
+    queue.offer(5);
+    queue.offer(1);
+    queue.offer(-5);
+
+    assertEquals(-5, queue.poll());
+    assertEquals(1, queue.poll());
+    assertEquals(5, queue.poll());
+  }
+
+  /**
+   * Urgent message
+   */
+  private static final class Urgent
+      implements IPriorityMessage
+  {
+    private static final long serialVersionUID = 1L;
+    private final String name;
+
+    Urgent(final String name)
+    {
+      this.name = name;
+    }
+
+    @Override
+    public boolean equals(final Object obj)
+    {
+      return obj instanceof Urgent && ((Urgent) obj).name.equals(name);
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return name.hashCode();
+    }
+  }
+
+  /**
+   * Dispatcher queuing tasks until explicitly run
+   */
+  private static final class ManualDispatcher
+      implements IDispatcher
+  {
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<Runnable>();
+
+    @Override
+    public void execute(final Runnable task)
+    {
+      tasks.add(task);
+    }
+
+    @Override
+    public void shutdown()
+    {
+    }
+
+    void runNext()
+    {
+      tasks.remove().run();
+    }
+
+    Queue<Runnable> getTasks()
+    {
+      return tasks;
+    }
+  }
+
+  /**
+   * Actor recording all received messages
+   */
+  private static final class RecordingActor
+      implements IActor
+  {
+    private final ActorURL url;
+    private final List<Serializable> received = new ArrayList<Serializable>();
+
+    RecordingActor(final ActorURL url)
+    {
+      this.url = url;
+    }
+
+    @Override
+    public ActorURL getUrl()
+    {
+      return url;
+    }
+
+    @Override
+    public void onReceive(final Serializable message)
+    {
+      received.add(message);
+    }
+
+    @Override
+    public void send(final Serializable message)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean trySend(final Serializable message)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    List<Serializable> getReceived()
+    {
+      return received;
+    }
+  }
+
+  /**
+   * Actor blocking for a while on every message
+   */
+  private static final class SlowActor
+      implements IActor
+  {
+    private final ActorURL url;
+    private final int sleepMillis;
+    private int processed;
+
+    SlowActor(final ActorURL url, final int sleepMillis)
+    {
+      this.url = url;
+      this.sleepMillis = sleepMillis;
+    }
+
+    @Override
+    public ActorURL getUrl()
+    {
+      return url;
+    }
+
+    @Override
+    public void onReceive(final Serializable message)
+    {
+      try
+      {
+        Thread.sleep(sleepMillis);
+      }
+      catch(InterruptedException e)
+      {
+        Thread.currentThread().interrupt();
+      }
+      processed++;
+    }
+
+    @Override
+    public void send(final Serializable message)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean trySend(final Serializable message)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    int getProcessed()
+    {
+      return processed;
+    }
+  }
+
+  /**
+   * Actor recording how many threads have been inside onReceive at the same time
+   */
+  private static final class ConcurrencyDetectingActor
+      implements IActor
+  {
+    private final ActorURL url;
+    private final AtomicInteger inside = new AtomicInteger();
+    private final CountDownLatch done;
+    private volatile int maxConcurrency;
+    private int processed;
+
+    ConcurrencyDetectingActor(final ActorURL url, final int expected)
+    {
+      this.url = url;
+      this.done = new CountDownLatch(expected);
+    }
+
+    @Override
+    public ActorURL getUrl()
+    {
+      return url;
+    }
+
+    @Override
+    public void onReceive(final Serializable message)
+    {
+      val concurrency = inside.incrementAndGet();
+      if (concurrency > maxConcurrency)
+        maxConcurrency = concurrency;
+
+      // unsynchronized on purpose, the mailbox guarantees exclusive access
+      processed++;
+
+      inside.decrementAndGet();
+      done.countDown();
+    }
+
+    @Override
+    public void send(final Serializable message)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean trySend(final Serializable message)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    CountDownLatch getDone()
+    {
+      return done;
+    }
+
+    int getMaxConcurrency()
+    {
+      return maxConcurrency;
+    }
+
+    int getProcessed()
+    {
+      return processed;
+    }
+  }
+}
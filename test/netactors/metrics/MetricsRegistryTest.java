@@ -0,0 +1,137 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import lombok.val;
+import netactors.buffer.EncodingStats;
+import netactors.nexus.ActorURL;
+import netactors.nexus.ProtocolType;
+import org.junit.Test;
+import common.TestAspectDecorator;
+
+public class MetricsRegistryTest
+    extends TestAspectDecorator
+{
+  @Test
+  public void givenStripedCounter_whenIncrementedFromManyThreads_thenNoUpdateLost()
+      throws Exception
+  {
+    val counter = new StripedCounter();
+    val threads = new ArrayList<Thread>();
+    for (int i = 0; i < 8; i++)
+      threads.add(new Thread(new Runnable() {
+        public void run()
+        {
+          for (int j = 0; j < 100000; j++)
+            counter.increment();
+        }
+      }));
+
+    for (Thread thread : threads)
+      thread.start();
+    for (Thread thread : threads)
+      thread.join();
+
+    assertEquals(800000, counter.sum());
+  }
+
+  @Test
+  public void givenHistogram_whenValuesRecorded_thenPercentilesWithinResolution()
+      throws Exception
+  {
+    val histogram = new LatencyHistogram();
+    for (int i = 1; i <= 100000; i++)
+      histogram.record(i);
+
+    val snapshot = histogram.snapshot();
+    assertEquals(100000, snapshot.getCount());
+    assertEquals(50000.5, snapshot.getMean(), 0.001);
+    assertEquals(100000, snapshot.getMax());
+    assertWithin(50000, snapshot.getValueAtPercentile(50));
+    assertWithin(99000, snapshot.getValueAtPercentile(99));
+    assertEquals(100000, snapshot.getValueAtPercentile(100));
+    assertEquals(1, snapshot.getValueAtPercentile(0));
+  }
+
+  @Test
+  public void givenHistogramBuckets_whenValuesMapped_thenEachWithinItsBucket()
+      throws Exception
+  {
+    assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucketOf(LatencyHistogram.MAX_VALUE));
+    for (long value = 0; value < LatencyHistogram.MAX_VALUE; value = value * 3 / 2 + 1)
+    {
+      val bucket = LatencyHistogram.bucketOf(value);
+      assertTrue(LatencyHistogram.highestValueOf(bucket) >= value);
+      assertTrue(bucket == 0 || LatencyHistogram.highestValueOf(bucket - 1) < value);
+    }
+
+    val histogram = new LatencyHistogram();
+    histogram.record(Long.MAX_VALUE);
+    histogram.record(-5);
+    assertEquals(LatencyHistogram.MAX_VALUE, histogram.snapshot().getMax());
+    assertEquals(0, histogram.snapshot().getValueAtPercentile(50));
+  }
+
+  @Test
+  public void givenRegistry_whenSnapshotTaken_thenActorsAndTransportsReported()
+      throws Exception
+  {
+    val registry = new MetricsRegistry();
+    val url = new ActorURL(ProtocolType.MEM, "localhost", 12345);
+    val actor = registry.actor(url);
+    assertSame(actor, registry.actor(ActorURL.of(ProtocolType.MEM, "localhost", 12345)));
+
+    actor.recordReceived();
+    actor.recordReceived();
+    actor.recordRejected();
+    actor.recordProcessed(1000);
+
+    val encodingStats = new EncodingStats();
+    encodingStats.recordMessage(20);
+    val transport = new TransportMetrics("link", encodingStats, null);
+    transport.recordDecoded(30);
+    transport.recordDecodeFailure();
+    registry.register(transport);
+
+    val snapshot = registry.snapshot();
+    val actorSnapshot = snapshot.getActor(url);
+    assertEquals(2, actorSnapshot.getReceived());
+    assertEquals(1, actorSnapshot.getRejected());
+    assertEquals(1, actorSnapshot.getProcessed());
+    assertEquals(0, actorSnapshot.getMailboxDepth());
+    val transportSnapshot = snapshot.getTransports().get("link");
+    assertEquals(1, transportSnapshot.getMessagesOut());
+    assertEquals(20, transportSnapshot.getBytesOut());
+    assertEquals(1, transportSnapshot.getMessagesIn());
+    assertEquals(30, transportSnapshot.getBytesIn());
+    assertEquals(1, transportSnapshot.getDecodeFailures());
+
+    registry.unregister(transport);
+    assertTrue(registry.snapshot().getTransports().isEmpty());
+  }
+
+  private static void assertWithin(final long expected, final long actual)
+  {
+    assertTrue("actual=" + actual, Math.abs(actual - expected) <= expected / 16);
+  }
+}
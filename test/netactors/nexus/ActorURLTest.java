@@ -0,0 +1,102 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.nexus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import lombok.val;
+import org.junit.Test;
+import common.TestAspectDecorator;
+
+public class ActorURLTest
+    extends TestAspectDecorator
+{
+  @Test
+  public void givenEqualUrls_whenInterned_thenSameCanonicalInstanceAndId()
+      throws Exception
+  {
+    val canonical = ActorURL.of(ProtocolType.TCP, "LocalHost", 13001, "echo");
+    val copy = new ActorURL(ProtocolType.TCP, "localhost", 13001, "echo");
+
+    assertTrue(canonical.isInterned());
+    assertFalse(copy.isInterned());
+    assertEquals(canonical, copy);
+    assertEquals(canonical.hashCode(), copy.hashCode());
+    assertSame(canonical, copy.intern());
+    assertSame(canonical, ActorURL.parse("tcp://localhost:13001/echo"));
+    assertEquals(canonical.getId(), copy.getId());
+    assertTrue(canonical.getId() != ActorURL.of(ProtocolType.TCP, "localhost", 13001).getId());
+  }
+
+  @Test
+  public void givenNamedUrl_whenNodeRequested_thenCanonicalNodeReturned()
+      throws Exception
+  {
+    val url = new ActorURL(ProtocolType.UDP, "localhost", 13002, "worker");
+
+    assertSame(ActorURL.of(ProtocolType.UDP, "localhost", 13002), url.getNode());
+    assertSame(url.getNode(), url.getNode());
+  }
+
+  @Test
+  public void givenNodeUrlNotInterned_whenNodeRequested_thenCanonicalNodeReturned()
+      throws Exception
+  {
+    val url = new ActorURL(ProtocolType.TCP, "localhost", 13003);
+    assertFalse(url.isInterned());
+    assertSame(ActorURL.of(ProtocolType.TCP, "localhost", 13003), url.getNode());
+  }
+
+  @Test
+  public void givenUrlNotInterned_whenLookedUpByValue_thenNotAddedToCanonicalUrls()
+      throws Exception
+  {
+    val first = ActorURL.valueOf(ProtocolType.TCP, "localhost", 13003, "remote");
+    val second = ActorURL.valueOf(ProtocolType.TCP, "localhost", 13003, "remote");
+
+    assertFalse(first.isInterned());
+    assertNotSame(first, second);
+    assertEquals(first, second);
+
+    val canonical = first.intern();
+    assertSame(canonical, ActorURL.valueOf(ProtocolType.TCP, "localhost", 13003, "remote"));
+  }
+
+  @Test
+  public void givenInternedUrl_whenSerializedAndDeserialized_thenCanonicalInstanceReturned()
+      throws Exception
+  {
+    val canonical = ActorURL.of(ProtocolType.TCP, "localhost", 13004);
+
+    val bytes = new ByteArrayOutputStream();
+    val out = new ObjectOutputStream(bytes);
+    out.writeObject(canonical);
+    out.close();
+
+    val in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    assertSame(canonical, in.readObject());
+  }
+}
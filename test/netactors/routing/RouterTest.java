@@ -0,0 +1,277 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.routing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.val;
+import netactors.actor.IActor;
+import netactors.config.ActorConfiguration;
+import netactors.mailbox.IMailbox;
+import netactors.nexus.ActorURL;
+import netactors.nexus.Envelope;
+import netactors.nexus.ProtocolType;
+import org.junit.Test;
+import common.TestAspectDecorator;
+
+public class RouterTest
+    extends TestAspectDecorator
+{
+  private final ActorURL URL = new ActorURL(ProtocolType.MEM, "localhost", 12345, "router");
+
+  @Test
+  public void givenRoundRobinRouter_whenMessagesSent_thenEachRouteeGetsItsShare()
+      throws Exception
+  {
+    val routees = routees(4);
+    val router = new Router(new ActorConfiguration(URL), routees, new RoundRobinRouting());
+
+    for (int i = 0; i < 40; i++)
+      router.send(i);
+
+    for (IMailbox routee : routees)
+      assertEquals(10, routee.size());
+    assertEquals(40, router.size());
+  }
+
+  @Test
+  public void givenSmallestMailboxRouter_whenOneRouteeLessBusy_thenItReceives()
+      throws Exception
+  {
+    val routees = routees(3);
+    for (int i = 0; i < 5; i++)
+    {
+      routees[0].enqueue(i);
+      routees[2].enqueue(i);
+    }
+    routees[1].enqueue(0);
+    val router = new Router(new ActorConfiguration(URL), routees, new SmallestMailboxRouting());
+
+    router.send("next");
+    router.send("next");
+
+    assertEquals(3, routees[1].size());
+    assertEquals(5, routees[0].size());
+    assertEquals(5, routees[2].size());
+  }
+
+  @Test
+  public void givenConsistentHashRouter_whenSameKeysSent_thenSameRouteeReceives()
+      throws Exception
+  {
+    val routees = routees(5);
+    val router = new Router(new ActorConfiguration(URL), routees, new ConsistentHashRouting(new IHashKeyExtractor() {
+      public Object getHashKey(final Serializable message)
+      {
+        return message.toString().substring(0, 1);
+      }
+    }, ConsistentHashRouting.DEFAULT_VIRTUAL_NODES));
+
+    router.send("a1");
+    router.send(Envelope.message(URL, null, "a2"));
+    router.send("a3");
+
+    int receiving = 0;
+    for (StubMailbox routee : routees)
+      if (routee.size() > 0)
+      {
+        receiving++;
+        assertEquals(3, routee.size());
+      }
+    assertEquals(1, receiving);
+  }
+
+  @Test
+  public void givenConsistentHashRouting_whenRouteeAdded_thenFewKeysMove()
+      throws Exception
+  {
+    val routing = new ConsistentHashRouting();
+    val keys = 10000;
+    val before = new int[keys];
+    for (int i = 0; i < keys; i++)
+      before[i] = routing.select("key" + i, routees(8));
+
+    int moved = 0;
+    int spread[] = new int[9];
+    for (int i = 0; i < keys; i++)
+    {
+      val after = routing.select("key" + i, routees(9));
+      spread[after]++;
+      if (after != before[i])
+      {
+        moved++;
+        // keys only move to the new routee
+        assertEquals(8, after);
+      }
+    }
+
+    // about one ninth of the keys move, and every routee gets a fair share
+    assertTrue("moved=" + moved, moved > keys / 18 && moved < keys / 4);
+    for (int count : spread)
+      assertTrue("count=" + count, count > keys / 27);
+  }
+
+  @Test
+  public void givenShutDownRouter_whenMessagesSent_thenDiscarded()
+      throws Exception
+  {
+    val routees = routees(2);
+    val router = new Router(new ActorConfiguration(URL), routees, new RandomRouting());
+
+    router.shutdown();
+    router.send("1");
+
+    assertFalse(router.trySend("2"));
+    assertEquals(0, router.size());
+    assertTrue(routees[0].isShutdown() && routees[1].isShutdown());
+  }
+
+  @Test
+  public void givenRouter_whenRouteesAddedAndRemoved_thenMessagesSpreadOverCurrentRoutees()
+      throws Exception
+  {
+    val routees = routees(2);
+    val router = new Router(new ActorConfiguration(URL), routees, new RoundRobinRouting());
+    val added = new StubMailbox();
+
+    assertTrue(router.addRoutee(added));
+    for (int i = 0; i < 3; i++)
+      router.send(i);
+    assertEquals(3, router.getRouteeCount());
+    assertEquals(1, added.size());
+
+    assertEquals(added, router.removeRoutee());
+    assertEquals(routees[1], router.removeRoutee());
+    assertEquals(null, router.removeRoutee());
+    router.send("last");
+    assertEquals(2, routees[0].size());
+    assertFalse(added.isShutdown());
+
+    router.shutdown();
+    val late = new StubMailbox();
+    assertFalse(router.addRoutee(late));
+    assertTrue(late.isShutdown());
+  }
+
+  @Test
+  public void givenResizer_whenRouteesUnderPressure_thenPoolGrowsWithinUpperBound()
+      throws Exception
+  {
+    val resizer = new Resizer(1, 10, 10, 1000, 0.1, 100);
+
+    assertEquals(2, resizer.resize(4, 40, 100, 0, 100000000));
+    assertEquals(1, resizer.resize(9, 90, 100, 0, 100000000));
+    assertEquals(0, resizer.resize(10, 1000, 100, 0, 100000000));
+    // 2ms per message, over the 1ms latency threshold
+    assertEquals(1, resizer.resize(2, 0, 10, 20000000, 100000000));
+    assertEquals(0, resizer.resize(2, 0, 100, 50000000, 100000000));
+  }
+
+  @Test
+  public void givenResizer_whenRouteesIdle_thenPoolShrinksByOneDownToLowerBound()
+      throws Exception
+  {
+    val resizer = new Resizer(2, 10, 10, 0, 0.1, 100);
+
+    assertEquals(-1, resizer.resize(4, 0, 10, 1000, 100000000));
+    assertEquals(0, resizer.resize(2, 0, 10, 1000, 100000000));
+    // busy half of the time, nothing queued
+    assertEquals(0, resizer.resize(4, 0, 1000, 200000000, 100000000));
+    assertEquals(1, resizer.resize(1, 0, 0, 0, 100000000));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void givenUpperBoundBelowLowerBound_whenResizerCreated_thenExceptionThrown()
+      throws Exception
+  {
+    new Resizer(4, 2);
+  }
+
+  private StubMailbox[] routees(final int count)
+  {
+    val result = new StubMailbox[count];
+    for (int i = 0; i < count; i++)
+      result[i] = new StubMailbox();
+    return result;
+  }
+
+  /**
+   * Mailbox keeping messages without processing them
+   */
+  private static final class StubMailbox
+      implements IMailbox
+  {
+    @Getter
+    private final List<Serializable> messages = new ArrayList<Serializable>();
+    private boolean shutdown;
+
+    @Override
+    public IActor getActor()
+    {
+      return null;
+    }
+
+    @Override
+    public synchronized void enqueue(final Serializable message)
+    {
+      messages.add(message);
+    }
+
+    @Override
+    public synchronized boolean offer(final Serializable message)
+    {
+      return messages.add(message);
+    }
+
+    @Override
+    public synchronized int size()
+    {
+      return messages.size();
+    }
+
+    @Override
+    public long getProcessedCount()
+    {
+      return 0;
+    }
+
+    @Override
+    public long getProcessingNanos()
+    {
+      return 0;
+    }
+
+    @Override
+    public synchronized boolean isShutdown()
+    {
+      return shutdown;
+    }
+
+    @Override
+    public synchronized void shutdown()
+    {
+      shutdown = true;
+    }
+  }
+}
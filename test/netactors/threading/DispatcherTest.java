@@ -0,0 +1,194 @@
+// /////////////////////////////////////////////////////////
+// This file is part of netactors.
+//
+// netactors is free software: you can redistribute it and/or modify
+// it under the terms of the GNU Lesser General Public License as published by
+// the Free Software Foundation, either version 3 of the License, or
+// (at your option) any later version.
+//
+// netactors is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+// GNU Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public License
+// along with netactors. If not, see <http://www.gnu.org/licenses/>.
+// /////////////////////////////////////////////////////////
+// Authored by: Nikolaos Tountas -> salam.kaser-at-gmail.com
+// /////////////////////////////////////////////////////////
+package netactors.threading;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import lombok.val;
+import netactors.ActorSystem;
+import netactors.actor.CachingActor;
+import netactors.actor.InvalidNoArgConstructorActor;
+import netactors.actor.ThreadRecordingActor;
+import netactors.config.ActorConfiguration;
+import netactors.exception.ActorCreationException;
+import netactors.mailbox.IPriorityMessage;
+import netactors.mailbox.MarkerPrioritizer;
+import netactors.nexus.ActorURL;
+import netactors.nexus.ProtocolType;
+import org.junit.Test;
+import common.TestAspectDecorator;
+
+public class DispatcherTest
+    extends TestAspectDecorator
+{
+  private final ActorURL URL = new ActorURL(ProtocolType.MEM, "localhost", 12345);
+  private final int MESSAGES = 100;
+  private final int DELAY_MS = 150;
+
+  @Test
+  public void givenCallingThreadDispatcher_whenMessageTold_thenProcessedBeforeTellReturns()
+      throws Exception
+  {
+    val as = new ActorSystem(new ActorConfiguration(URL));
+    try
+    {
+      val actor = as.actorOf(CachingActor.class, new Object[0], new CallingThreadDispatcher());
+
+      as.tell(URL, "123");
+      assertEquals(1, actor.getCache().size());
+      assertEquals("123", actor.getCache().get(0));
+
+      as.tell(URL, "234");
+      assertEquals(2, actor.getCache().size());
+      assertEquals("234", actor.getCache().get(1));
+    }
+    finally
+    {
+      as.shutdown();
+    }
+  }
+
+  @Test
+  public void givenPinnedDispatcher_whenMessagesTold_thenAllProcessedOnTheSameThread()
+      throws Exception
+  {
+    val as = new ActorSystem(new ActorConfiguration(URL));
+    try
+    {
+      val actor = as.actorOf(ThreadRecordingActor.class, new Object[0], new PinnedDispatcher());
+
+      for (int i = 0; i < MESSAGES; i++)
+      {
+        as.tell(URL, i);
+        if (i % 10 == 0)
+          Thread.sleep(1);
+      }
+      Thread.sleep(DELAY_MS);
+
+      assertEquals(1, actor.getThreads().size());
+      assertTrue(!actor.getThreads().contains(Thread.currentThread()));
+    }
+    finally
+    {
+      as.shutdown();
+    }
+  }
+
+  @Test
+  public void givenVirtualThreadConfiguration_whenMessagesTold_thenProcessedOnVirtualOrFallbackThreads()
+      throws Exception
+  {
+    val as = new ActorSystem(new ActorConfiguration(URL).withVirtualThreads(true));
+    try
+    {
+      val actor = as.actorOf(CachingActor.class);
+
+      for (int i = 0; i < MESSAGES; i++)
+        as.tell(URL, i);
+      Thread.sleep(DELAY_MS);
+
+      assertEquals(MESSAGES, actor.getCache().size());
+      for (int i = 0; i < MESSAGES; i++)
+        assertEquals(i, actor.getCache().get(i));
+    }
+    finally
+    {
+      as.shutdown();
+    }
+  }
+
+  @Test
+  public void givenPriorityMailbox_whenUrgentMessageToldBehindBacklog_thenProcessedFirst()
+      throws Exception
+  {
+    val as = new ActorSystem(new ActorConfiguration(URL));
+    try
+    {
+      val dispatcher = new HeldDispatcher();
+      val actor = as.actorOf(CachingActor.class, new Object[0], dispatcher, new MarkerPrioritizer());
+
+      as.tell(URL, "1");
+      as.tell(URL, "2");
+      as.tell(URL, new Reload());
+      dispatcher.release();
+
+      assertEquals(3, actor.getCache().size());
+      assertTrue(actor.getCache().get(0) instanceof Reload);
+      assertEquals("1", actor.getCache().get(1));
+      assertEquals("2", actor.getCache().get(2));
+    }
+    finally
+    {
+      as.shutdown();
+    }
+  }
+
+  @Test(expected = ActorCreationException.class)
+  public void givenForkJoinDispatcher_whenActorCreationFails_thenExceptionThrown()
+      throws Exception
+  {
+    val as = new ActorSystem(new ActorConfiguration(URL));
+    try
+    {
+      as.actorOf(InvalidNoArgConstructorActor.class, new Object[0], new ForkJoinDispatcher(2));
+    }
+    finally
+    {
+      as.shutdown();
+    }
+  }
+
+  /**
+   * Urgent message
+   */
+  private static final class Reload
+      implements IPriorityMessage
+  {
+    private static final long serialVersionUID = 1L;
+  }
+
+  /**
+   * Dispatcher holding back tasks until released, then running them on the calling thread
+   */
+  private static final class HeldDispatcher
+      implements IDispatcher
+  {
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<Runnable>();
+
+    @Override
+    public void execute(final Runnable task)
+    {
+      tasks.add(task);
+    }
+
+    @Override
+    public void shutdown()
+    {
+    }
+
+    void release()
+    {
+      Runnable task;
+      while ((task = tasks.poll()) != null)
+        task.run();
+    }
+  }
+}